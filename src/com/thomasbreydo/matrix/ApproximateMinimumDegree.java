@@ -0,0 +1,236 @@
+package com.thomasbreydo.matrix;
+
+import java.util.Arrays;
+
+/**
+ * Approximate minimum degree ordering of the symmetrized non-zero pattern of a square {@code
+ * SparseMatrix}, after Amestoy, Davis and Duff.
+ *
+ * <p>Elimination is simulated on a quotient graph: eliminating a variable turns it into an
+ * element, whose member list stands for the clique of fill it creates, so the graph never grows
+ * beyond the size of {@code A}. Elements adjacent to the pivot are absorbed into the new one. At
+ * each step the variable with the smallest degree is eliminated next, which greedily keeps the
+ * fill of each step small. Exact degrees would be costly to maintain, so each neighbor of the
+ * pivot gets the AMD upper bound {@code |A_i| + |L_p \ i| + sum |L_e \ L_p|}, with the last terms
+ * counted in one pass over the elements of the pivot's neighbors. Supervariables (groups of
+ * indistinguishable variables) are not detected, so each variable is eliminated on its own.
+ */
+final class ApproximateMinimumDegree {
+  private static final byte VARIABLE = 0;
+  private static final byte ELEMENT = 1;
+  private static final byte ABSORBED = 2;
+
+  private ApproximateMinimumDegree() {}
+
+  /**
+   * Compute the ordering.
+   *
+   * @return {@code order}, where {@code order[i]} is the original index placed at position {@code
+   *     i}
+   */
+  static int[] order(SparseMatrix matrix) {
+    int n = matrix.getRowCount();
+    int[] pointers = new int[n + 1];
+    int[] adjacency = symmetrizedPattern(matrix, pointers);
+
+    int[][] variables = new int[n][]; // A_i: variables adjacent to variable i
+    int[] variableCount = new int[n];
+    int[][] elements = new int[n][]; // E_i: elements adjacent to variable i
+    int[] elementCount = new int[n];
+    int[][] members = new int[n][]; // L_e: variables adjacent to element e
+    byte[] state = new byte[n];
+    for (int i = 0; i < n; ++i) {
+      variables[i] = Arrays.copyOfRange(adjacency, pointers[i], pointers[i + 1]);
+      variableCount[i] = variables[i].length;
+      elements[i] = new int[2];
+    }
+    adjacency = null; // only the per-variable copies are used from here on
+
+    DegreeBuckets buckets = new DegreeBuckets(n);
+    for (int i = 0; i < n; ++i) buckets.insert(i, variableCount[i]);
+
+    int[] order = new int[n];
+    int[] mark = new int[n]; // mark[i] == p + 1 if variable i is in L_p
+    int[] outside = new int[n]; // |L_e \ L_p| for the elements touched at step p
+    int[] touched = new int[n]; // touched[e] == p + 1 if outside[e] is valid at step p
+    int[] pivotMembers = new int[n];
+    for (int step = 0; step < n; ++step) {
+      int pivot = buckets.removeMin();
+      order[step] = pivot;
+      int stamp = step + 1;
+
+      // L_p: the pivot's variables, plus the members of its elements, which are absorbed
+      int size = 0;
+      mark[pivot] = stamp;
+      for (int k = 0; k < variableCount[pivot]; ++k) {
+        int v = variables[pivot][k];
+        if (state[v] == VARIABLE && mark[v] != stamp) {
+          mark[v] = stamp;
+          pivotMembers[size++] = v;
+        }
+      }
+      for (int k = 0; k < elementCount[pivot]; ++k) {
+        int e = elements[pivot][k];
+        if (state[e] != ELEMENT) continue;
+        for (int v : members[e]) {
+          if (state[v] == VARIABLE && mark[v] != stamp) {
+            mark[v] = stamp;
+            pivotMembers[size++] = v;
+          }
+        }
+        state[e] = ABSORBED;
+        members[e] = null;
+      }
+      state[pivot] = ELEMENT;
+      members[pivot] = Arrays.copyOf(pivotMembers, size);
+      variables[pivot] = null;
+      elements[pivot] = null;
+
+      // |L_e \ L_p| for every other element adjacent to L_p; elements inside L_p are absorbed
+      for (int j = 0; j < size; ++j) {
+        int i = pivotMembers[j];
+        for (int k = 0; k < elementCount[i]; ++k) {
+          int e = elements[i][k];
+          if (state[e] != ELEMENT) continue;
+          if (touched[e] != stamp) {
+            touched[e] = stamp;
+            outside[e] = members[e].length;
+          }
+          --outside[e];
+        }
+      }
+      for (int j = 0; j < size; ++j) {
+        int i = pivotMembers[j];
+        for (int k = 0; k < elementCount[i]; ++k) {
+          int e = elements[i][k];
+          if (state[e] == ELEMENT && outside[e] == 0) {
+            state[e] = ABSORBED;
+            members[e] = null;
+          }
+        }
+      }
+
+      // prune each neighbor's lists, add the new element, and bound its degree
+      int remaining = n - step - 1;
+      for (int j = 0; j < size; ++j) {
+        int i = pivotMembers[j];
+        int external = 0;
+        int count = 0;
+        int[] list = elements[i];
+        for (int k = 0; k < elementCount[i]; ++k) {
+          int e = list[k];
+          if (state[e] != ELEMENT) continue;
+          list[count++] = e;
+          external += outside[e];
+        }
+        if (count == list.length) elements[i] = list = Arrays.copyOf(list, 2 * count + 1);
+        list[count++] = pivot;
+        elementCount[i] = count;
+
+        // variables in L_p are now reached through the new element
+        count = 0;
+        list = variables[i];
+        for (int k = 0; k < variableCount[i]; ++k) {
+          int v = list[k];
+          if (state[v] == VARIABLE && mark[v] != stamp) list[count++] = v;
+        }
+        variableCount[i] = count;
+
+        long fromOld = (long) buckets.degree(i) + size - 1;
+        long fromElements = (long) count + size - 1 + external;
+        buckets.move(i, (int) Math.min(remaining - 1, Math.min(fromOld, fromElements)));
+      }
+    }
+    return order;
+  }
+
+  /** @return the pattern of {@code A + A^T} without the diagonal, as CSR adjacency lists. */
+  private static int[] symmetrizedPattern(SparseMatrix matrix, int[] pointers) {
+    int n = matrix.getRowCount();
+    int[] rowPointers = matrix.getRowPointers();
+    int[] columnIndices = matrix.getColumnIndices();
+    for (int row = 0; row < n; ++row) {
+      for (int k = rowPointers[row]; k < rowPointers[row + 1]; ++k) {
+        int col = columnIndices[k];
+        if (col == row) continue;
+        ++pointers[row + 1];
+        ++pointers[col + 1];
+      }
+    }
+    for (int node = 0; node < n; ++node) pointers[node + 1] += pointers[node];
+    int[] next = Arrays.copyOf(pointers, n);
+    int[] adjacency = new int[pointers[n]];
+    for (int row = 0; row < n; ++row) {
+      for (int k = rowPointers[row]; k < rowPointers[row + 1]; ++k) {
+        int col = columnIndices[k];
+        if (col == row) continue;
+        adjacency[next[row]++] = col;
+        adjacency[next[col]++] = row;
+      }
+    }
+
+    // remove the duplicates that symmetric input produces
+    int out = 0;
+    int start = 0;
+    for (int node = 0; node < n; ++node) {
+      int end = pointers[node + 1];
+      Arrays.sort(adjacency, start, end);
+      int nodeStart = out;
+      for (int k = start; k < end; ++k) {
+        if (out > nodeStart && adjacency[out - 1] == adjacency[k]) continue;
+        adjacency[out++] = adjacency[k];
+      }
+      start = end;
+      pointers[node + 1] = out;
+    }
+    return Arrays.copyOf(adjacency, out);
+  }
+
+  /** Variables in doubly linked lists by degree, for constant-time moves and minimum lookup. */
+  private static final class DegreeBuckets {
+    private final int[] head;
+    private final int[] next;
+    private final int[] previous;
+    private final int[] degree;
+    private int min;
+
+    DegreeBuckets(int n) {
+      head = new int[n + 1];
+      Arrays.fill(head, -1);
+      next = new int[n];
+      previous = new int[n];
+      degree = new int[n];
+    }
+
+    int degree(int node) {
+      return degree[node];
+    }
+
+    void insert(int node, int d) {
+      degree[node] = d;
+      previous[node] = -1;
+      next[node] = head[d];
+      if (head[d] >= 0) previous[head[d]] = node;
+      head[d] = node;
+      if (d < min) min = d;
+    }
+
+    void remove(int node) {
+      if (previous[node] >= 0) next[previous[node]] = next[node];
+      else head[degree[node]] = next[node];
+      if (next[node] >= 0) previous[next[node]] = previous[node];
+    }
+
+    void move(int node, int d) {
+      remove(node);
+      insert(node, Math.max(d, 0));
+    }
+
+    int removeMin() {
+      while (head[min] < 0) ++min;
+      int node = head[min];
+      remove(node);
+      return node;
+    }
+  }
+}
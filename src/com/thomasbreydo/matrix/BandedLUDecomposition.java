@@ -0,0 +1,135 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Factor a {@code BandedMatrix} once as {@code PA = LU} (partial pivoting) and reuse the factors to
+ * solve systems in {@code O(n * bandwidth)} each.
+ *
+ * <p>Row interchanges can widen {@code U} to {@code lowerBandwidth + upperBandwidth}
+ * super-diagonals, so each stored row keeps room for that fill. Factoring costs {@code O(n *
+ * lowerBandwidth * (lowerBandwidth + upperBandwidth))}.
+ */
+public class BandedLUDecomposition {
+  private final int n;
+  private final int lowerBandwidth;
+  private final int upperBandwidth; // of U, including the fill from row interchanges
+  private final int width;
+  private final double[] lu; // row i holds columns i - lowerBandwidth .. i + upperBandwidth
+  private final int[] pivot; // rows k and pivot[k] were interchanged at step k
+  private final boolean singular;
+
+  /**
+   * Factor {@code matrix}. {@code matrix} itself is not modified.
+   *
+   * @param matrix the {@code BandedMatrix} to factor
+   */
+  public BandedLUDecomposition(@NotNull BandedMatrix matrix) {
+    n = matrix.getRowCount();
+    lowerBandwidth = matrix.getLowerBandwidth();
+    upperBandwidth = Math.min(n - 1, matrix.getLowerBandwidth() + matrix.getUpperBandwidth());
+    width = lowerBandwidth + upperBandwidth + 1;
+    lu = new double[Math.multiplyExact(n, width)];
+    pivot = new int[n];
+    for (int row = 0; row < n; ++row) {
+      int first = Math.max(0, row - lowerBandwidth);
+      int last = Math.min(n - 1, row + matrix.getUpperBandwidth());
+      for (int col = first; col <= last; ++col)
+        lu[indexOf(row, col)] = matrix.getValueAt(row, col);
+    }
+
+    // a pivot is zero if it is within rounding error of the largest band element, as in
+    // LUDecomposition
+    double largest = 0;
+    for (double value : lu) largest = Math.max(largest, Math.abs(value));
+    double tolerance = n * Math.ulp(1.0) * largest;
+
+    boolean foundZeroPivot = false;
+    for (int k = 0; k < n; ++k) {
+      int lastRow = Math.min(n - 1, k + lowerBandwidth);
+      int lastCol = Math.min(n - 1, k + upperBandwidth);
+      int maxRow = k;
+      for (int row = k + 1; row <= lastRow; ++row)
+        if (Math.abs(lu[indexOf(row, k)]) > Math.abs(lu[indexOf(maxRow, k)])) maxRow = row;
+      pivot[k] = maxRow;
+      if (maxRow != k) {
+        for (int col = k; col <= lastCol; ++col) {
+          double temp = lu[indexOf(k, col)];
+          lu[indexOf(k, col)] = lu[indexOf(maxRow, col)];
+          lu[indexOf(maxRow, col)] = temp;
+        }
+      }
+
+      double pivotValue = lu[indexOf(k, k)];
+      if (Math.abs(pivotValue) <= tolerance) {
+        foundZeroPivot = true;
+        continue;
+      }
+      for (int row = k + 1; row <= lastRow; ++row) {
+        double factor = lu[indexOf(row, k)] / pivotValue;
+        lu[indexOf(row, k)] = factor;
+        if (factor == 0) continue;
+        int offset = indexOf(row, 0);
+        int pivotOffset = indexOf(k, 0);
+        for (int col = k + 1; col <= lastCol; ++col)
+          lu[offset + col] -= factor * lu[pivotOffset + col];
+      }
+    }
+    singular = foundZeroPivot;
+  }
+
+  /** @return the index of {@code (row, col)}; valid for columns within the stored window only. */
+  private int indexOf(int row, int col) {
+    return row * width + (col - row + lowerBandwidth);
+  }
+
+  /**
+   * Check whether the factored {@code BandedMatrix} is singular: whether it has a pivot no larger
+   * than {@code n * ulp(1) * max|a_ij|} over the band, i.e. within rounding error of zero.
+   *
+   * @return {@code true} if the factored {@code BandedMatrix} is singular
+   */
+  public boolean isSingular() {
+    return singular;
+  }
+
+  /**
+   * Solve {@code Ax = b}.
+   *
+   * @param b right-hand side, of length {@code n}
+   * @return the solution {@code x} as a new array
+   */
+  public double[] solve(double @NotNull [] b) {
+    if (b.length != n) throw new IllegalArgumentException("b.length must equal the row count");
+    double[] x = b.clone();
+    solveInPlace(x);
+    return x;
+  }
+
+  /**
+   * Solve {@code Ax = b} without allocating, overwriting {@code b} with the solution.
+   *
+   * @param b right-hand side, of length {@code n}; receives the solution
+   */
+  public void solveInPlace(double @NotNull [] b) {
+    if (b.length != n) throw new IllegalArgumentException("b.length must equal the row count");
+    if (singular) throw new RuntimeException("matrix is not invertible");
+
+    for (int k = 0; k < n; ++k) { // apply the interchanges and L in the order they happened
+      if (pivot[k] != k) {
+        double temp = b[k];
+        b[k] = b[pivot[k]];
+        b[pivot[k]] = temp;
+      }
+      int lastRow = Math.min(n - 1, k + lowerBandwidth);
+      for (int row = k + 1; row <= lastRow; ++row) b[row] -= lu[indexOf(row, k)] * b[k];
+    }
+    for (int row = n - 1; row >= 0; --row) {
+      int offset = indexOf(row, 0);
+      int lastCol = Math.min(n - 1, row + upperBandwidth);
+      double sum = b[row];
+      for (int col = row + 1; col <= lastCol; ++col) sum -= lu[offset + col] * b[col];
+      b[row] = sum / lu[offset + row];
+    }
+  }
+}
@@ -0,0 +1,212 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Store a square banded matrix: only the elements at most {@code lowerBandwidth} below and {@code
+ * upperBandwidth} above the diagonal may be non-zero.
+ *
+ * <p>Row {@code i} is stored as the {@code lowerBandwidth + upperBandwidth + 1} elements from
+ * column {@code i - lowerBandwidth} to column {@code i + upperBandwidth}, so memory use is {@code
+ * O(n * bandwidth)} instead of {@code O(n^2)}.
+ */
+public class BandedMatrix {
+  private final int n;
+  private final int lowerBandwidth;
+  private final int upperBandwidth;
+  private final int width; // stored elements per row
+  private final double[] band;
+
+  /**
+   * Initialize this {@code BandedMatrix} as an {@code n x n} matrix filled with zeros.
+   *
+   * @param n number of rows and number of columns
+   * @param lowerBandwidth number of sub-diagonals that may be non-zero
+   * @param upperBandwidth number of super-diagonals that may be non-zero
+   */
+  public BandedMatrix(int n, int lowerBandwidth, int upperBandwidth) {
+    if (n <= 0) throw new IllegalArgumentException("n must be positive");
+    if (lowerBandwidth < 0 || upperBandwidth < 0)
+      throw new IllegalArgumentException("bandwidths must be non-negative");
+    this.n = n;
+    this.lowerBandwidth = Math.min(lowerBandwidth, n - 1);
+    this.upperBandwidth = Math.min(upperBandwidth, n - 1);
+    width = this.lowerBandwidth + this.upperBandwidth + 1;
+    band = new double[Math.multiplyExact(n, width)];
+  }
+
+  /**
+   * Create a tridiagonal {@code BandedMatrix}.
+   *
+   * @param lower sub-diagonal; {@code lower[i]} is the element at {@code (i, i - 1)} and {@code
+   *     lower[0]} is ignored
+   * @param diagonal main diagonal
+   * @param upper super-diagonal; {@code upper[i]} is the element at {@code (i, i + 1)} and {@code
+   *     upper[n - 1]} is ignored
+   * @return a new {@code n x n} {@code BandedMatrix} with bandwidth one
+   */
+  public static @NotNull BandedMatrix tridiagonal(
+      double @NotNull [] lower, double @NotNull [] diagonal, double @NotNull [] upper) {
+    int n = diagonal.length;
+    if (lower.length != n || upper.length != n)
+      throw new IllegalArgumentException("lower, diagonal and upper must have the same length");
+    BandedMatrix output = new BandedMatrix(n, 1, 1);
+    for (int i = 0; i < n; ++i) {
+      if (i > 0) output.setEntry(i, i - 1, lower[i]);
+      output.setEntry(i, i, diagonal[i]);
+      if (i + 1 < n) output.setEntry(i, i + 1, upper[i]);
+    }
+    return output;
+  }
+
+  /**
+   * Create a {@code BandedMatrix} from the band of {@code matrix}.
+   *
+   * @param matrix square {@code Matrix} whose elements outside the band are all zero
+   * @param lowerBandwidth number of sub-diagonals to keep
+   * @param upperBandwidth number of super-diagonals to keep
+   * @return a new {@code BandedMatrix} equal to {@code matrix}
+   */
+  public static @NotNull BandedMatrix fromMatrix(
+      @NotNull Matrix matrix, int lowerBandwidth, int upperBandwidth) {
+    if (matrix.getRowCount() != matrix.getColumnCount())
+      throw new IllegalArgumentException("matrix must be square");
+    int n = matrix.getRowCount();
+    BandedMatrix output = new BandedMatrix(n, lowerBandwidth, upperBandwidth);
+    for (int row = 0; row < n; ++row) {
+      for (int col = 0; col < n; ++col) {
+        double value = matrix.getValueAt(row, col);
+        if (output.inBand(row, col)) output.setEntry(row, col, value);
+        else if (value != 0) throw new IllegalArgumentException("matrix has elements outside band");
+      }
+    }
+    return output;
+  }
+
+  /**
+   * Convert this {@code BandedMatrix} to a dense {@code Matrix}.
+   *
+   * @return a new {@code Matrix} equal to this {@code BandedMatrix}
+   */
+  public Matrix toMatrix() {
+    Matrix output = new Matrix(n, n);
+    for (int row = 0; row < n; ++row)
+      for (int col = firstColumn(row); col <= lastColumn(row); ++col)
+        output.setEntry(row, col, band[indexOf(row, col)]);
+    return output;
+  }
+
+  private boolean inBand(int row, int col) {
+    return col >= row - lowerBandwidth && col <= row + upperBandwidth;
+  }
+
+  private int firstColumn(int row) {
+    return Math.max(0, row - lowerBandwidth);
+  }
+
+  private int lastColumn(int row) {
+    return Math.min(n - 1, row + upperBandwidth);
+  }
+
+  private int indexOf(int row, int col) {
+    return row * width + (col - row + lowerBandwidth);
+  }
+
+  /**
+   * Get the number of rows (and columns) in this {@code BandedMatrix}.
+   *
+   * @return the number of rows in this {@code BandedMatrix}
+   */
+  public int getRowCount() {
+    return n;
+  }
+
+  /**
+   * Get the number of sub-diagonals that may be non-zero.
+   *
+   * @return the lower bandwidth
+   */
+  public int getLowerBandwidth() {
+    return lowerBandwidth;
+  }
+
+  /**
+   * Get the number of super-diagonals that may be non-zero.
+   *
+   * @return the upper bandwidth
+   */
+  public int getUpperBandwidth() {
+    return upperBandwidth;
+  }
+
+  /**
+   * Get the element at row {@code row} and column {@code column}.
+   *
+   * @param row row index of element
+   * @param column column index of element
+   * @return the element at row {@code row} and column {@code column}
+   */
+  public double getValueAt(int row, int column) {
+    Objects.checkIndex(row, n);
+    Objects.checkIndex(column, n);
+    return inBand(row, column) ? band[indexOf(row, column)] : 0;
+  }
+
+  /**
+   * Set the element at row {@code row} and column {@code column} to {@code value}.
+   *
+   * @param row row index of element
+   * @param column column index of element; must lie inside the band
+   * @param value the new value for the element
+   */
+  public void setEntry(int row, int column, double value) {
+    Objects.checkIndex(row, n);
+    Objects.checkIndex(column, n);
+    if (!inBand(row, column)) throw new IllegalArgumentException("element is outside the band");
+    band[indexOf(row, column)] = value;
+  }
+
+  /**
+   * Multiply this {@code BandedMatrix} by the column vector {@code vector}.
+   *
+   * @param vector the vector to multiply by, of length {@code n}
+   * @return the product as a new array
+   */
+  public double[] times(double @NotNull [] vector) {
+    return times(vector, new double[n]);
+  }
+
+  /**
+   * Store the product of this {@code BandedMatrix} and the column vector {@code vector} in {@code
+   * dest} without allocating.
+   *
+   * @param vector the vector to multiply by, of length {@code n}
+   * @param dest array of length {@code n} to store the product in; must not be {@code vector}
+   * @return {@code dest}
+   */
+  public double[] times(double @NotNull [] vector, double @NotNull [] dest) {
+    if (vector.length != n || dest.length != n)
+      throw new IllegalArgumentException("vector.length and dest.length must equal n");
+    if (dest == vector) throw new IllegalArgumentException("dest must not be vector");
+    for (int row = 0; row < n; ++row) {
+      double sum = 0;
+      for (int col = firstColumn(row); col <= lastColumn(row); ++col)
+        sum += band[indexOf(row, col)] * vector[col];
+      dest[row] = sum;
+    }
+    return dest;
+  }
+
+  /**
+   * Solve {@code Ax = b} in {@code O(n * bandwidth^2)}. To solve several systems with the same
+   * {@code BandedMatrix}, factor it once with {@link BandedLUDecomposition} instead.
+   *
+   * @param b right-hand side, of length {@code n}
+   * @return the solution {@code x} as a new array
+   */
+  public double[] solve(double @NotNull [] b) {
+    return new BandedLUDecomposition(this).solve(b);
+  }
+}
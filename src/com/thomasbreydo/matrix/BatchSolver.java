@@ -0,0 +1,289 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.stream.IntStream;
+
+/**
+ * Solve many independent small systems {@code Ax = b} in one pass, without creating a {@code
+ * Matrix} per system.
+ *
+ * <p>All arrays are interleaved (structure of arrays), as in {@link
+ * TridiagonalSolver#solveBatchInPlace}: for {@code count} systems of size {@code n}, element
+ * {@code (i, j)} of system {@code s} is at {@code a[(i * n + j) * count + s]} and element {@code
+ * i} of its right-hand side at {@code b[i * count + s]}. Systems of size 2, 3 and 4 are solved in
+ * closed form (Cramer's rule), so the innermost loops run over systems with unit stride and no
+ * branches, which the JIT vectorizes. Larger systems fall back to elimination with partial
+ * pivoting, one system at a time. Cramer's rule is less stable than pivoted elimination: for an
+ * ill-conditioned system its error can be larger than {@link LUDecomposition}'s.
+ *
+ * <p>Singular systems do not throw: they are flagged in {@code singular} and their solutions are
+ * set to {@code NaN}. The test is relative to the scale of each system, so multiplying a system by
+ * a constant does not change whether it is singular. A closed-form system is singular if {@code
+ * |det A|} is at most {@code n * ulp(1)} times the product of the row norms, which bounds {@code
+ * |det A|} by Hadamard's inequality. A larger system is singular if a pivot is at most {@code n *
+ * ulp(1) * max |a_ij|}, as in {@link LUDecomposition}.
+ */
+public final class BatchSolver {
+  /** Machine epsilon; singularity thresholds are multiples of it. */
+  private static final double EPSILON = Math.ulp(1.0);
+  /** Batches with fewer matrix elements than this are solved on the calling thread. */
+  private static final int PARALLEL_ELEMENTS = 1 << 16;
+  /** Systems per parallel task; a multiple of the vector width keeps the inner loops aligned. */
+  private static final int SYSTEMS_PER_TASK = 256;
+
+  private BatchSolver() {}
+
+  /**
+   * Solve {@code count} independent {@code n x n} systems. {@code a} is not modified.
+   *
+   * @param n size of each system
+   * @param count number of systems
+   * @param a interleaved matrices, of length {@code n * n * count}
+   * @param b interleaved right-hand sides, of length {@code n * count}; receives the solutions
+   * @param singular array of length {@code count}; {@code singular[s]} is set to whether system
+   *     {@code s} is singular
+   * @return the number of singular systems
+   */
+  public static int solveBatchInPlace(
+      int n, int count, double @NotNull [] a, double @NotNull [] b, boolean @NotNull [] singular) {
+    if (n <= 0 || count <= 0) throw new IllegalArgumentException("n and count must be positive");
+    if (a.length != Math.multiplyExact(Math.multiplyExact(n, n), count))
+      throw new IllegalArgumentException("a must have length n * n * count");
+    if (b.length != n * count) throw new IllegalArgumentException("b must have length n * count");
+    if (singular.length != count)
+      throw new IllegalArgumentException("singular must have length count");
+
+    if ((long) n * n * count < PARALLEL_ELEMENTS || count <= SYSTEMS_PER_TASK) {
+      solveRange(n, count, 0, count, a, b, singular);
+    } else {
+      int tasks = (count + SYSTEMS_PER_TASK - 1) / SYSTEMS_PER_TASK;
+      IntStream.range(0, tasks)
+          .parallel()
+          .forEach(
+              task -> {
+                int first = task * SYSTEMS_PER_TASK;
+                int end = Math.min(count, first + SYSTEMS_PER_TASK);
+                solveRange(n, count, first, end, a, b, singular);
+              });
+    }
+
+    int singularCount = 0;
+    for (int s = 0; s < count; ++s) {
+      if (!singular[s]) continue;
+      ++singularCount;
+      for (int i = 0; i < n; ++i) b[i * count + s] = Double.NaN;
+    }
+    return singularCount;
+  }
+
+  /** Solve systems {@code [first, end)} of an interleaved batch. */
+  private static void solveRange(
+      int n, int count, int first, int end, double[] a, double[] b, boolean[] singular) {
+    switch (n) {
+      case 1:
+        solve1(count, first, end, a, b, singular);
+        break;
+      case 2:
+        solve2(count, first, end, a, b, singular);
+        break;
+      case 3:
+        solve3(count, first, end, a, b, singular);
+        break;
+      case 4:
+        solve4(count, first, end, a, b, singular);
+        break;
+      default:
+        solveGeneral(n, count, first, end, a, b, singular);
+    }
+  }
+
+  private static void solve1(
+      int count, int first, int end, double[] a, double[] b, boolean[] singular) {
+    for (int s = first; s < end; ++s) {
+      singular[s] = a[s] == 0;
+      b[s] /= a[s];
+    }
+  }
+
+  private static void solve2(
+      int count, int first, int end, double[] a, double[] b, boolean[] singular) {
+    for (int s = first; s < end; ++s) {
+      double a00 = a[s];
+      double a01 = a[count + s];
+      double a10 = a[2 * count + s];
+      double a11 = a[3 * count + s];
+      double b0 = b[s];
+      double b1 = b[count + s];
+      double det = a00 * a11 - a01 * a10;
+      double rowNorms = Math.sqrt((a00 * a00 + a01 * a01) * (a10 * a10 + a11 * a11));
+      singular[s] = Math.abs(det) <= 2 * EPSILON * rowNorms;
+      b[s] = (b0 * a11 - a01 * b1) / det;
+      b[count + s] = (a00 * b1 - b0 * a10) / det;
+    }
+  }
+
+  private static void solve3(
+      int count, int first, int end, double[] a, double[] b, boolean[] singular) {
+    for (int s = first; s < end; ++s) {
+      double a00 = a[s];
+      double a01 = a[count + s];
+      double a02 = a[2 * count + s];
+      double a10 = a[3 * count + s];
+      double a11 = a[4 * count + s];
+      double a12 = a[5 * count + s];
+      double a20 = a[6 * count + s];
+      double a21 = a[7 * count + s];
+      double a22 = a[8 * count + s];
+      double b0 = b[s];
+      double b1 = b[count + s];
+      double b2 = b[2 * count + s];
+
+      // cofactors of the first column, reused for the determinant
+      double c00 = a11 * a22 - a12 * a21;
+      double c10 = a02 * a21 - a01 * a22;
+      double c20 = a01 * a12 - a02 * a11;
+      double det = a00 * c00 + a10 * c10 + a20 * c20;
+      double rowNorms =
+          Math.sqrt(
+              (a00 * a00 + a01 * a01 + a02 * a02)
+                  * (a10 * a10 + a11 * a11 + a12 * a12)
+                  * (a20 * a20 + a21 * a21 + a22 * a22));
+      singular[s] = Math.abs(det) <= 3 * EPSILON * rowNorms;
+      b[s] = (b0 * c00 + b1 * c10 + b2 * c20) / det;
+      b[count + s] =
+          (a00 * (b1 * a22 - a12 * b2)
+                  - b0 * (a10 * a22 - a12 * a20)
+                  + a02 * (a10 * b2 - b1 * a20))
+              / det;
+      b[2 * count + s] =
+          (a00 * (a11 * b2 - b1 * a21)
+                  - a01 * (a10 * b2 - b1 * a20)
+                  + b0 * (a10 * a21 - a11 * a20))
+              / det;
+    }
+  }
+
+  private static void solve4(
+      int count, int first, int end, double[] a, double[] b, boolean[] singular) {
+    for (int s = first; s < end; ++s) {
+      double a00 = a[s];
+      double a01 = a[count + s];
+      double a02 = a[2 * count + s];
+      double a03 = a[3 * count + s];
+      double a10 = a[4 * count + s];
+      double a11 = a[5 * count + s];
+      double a12 = a[6 * count + s];
+      double a13 = a[7 * count + s];
+      double a20 = a[8 * count + s];
+      double a21 = a[9 * count + s];
+      double a22 = a[10 * count + s];
+      double a23 = a[11 * count + s];
+      double a30 = a[12 * count + s];
+      double a31 = a[13 * count + s];
+      double a32 = a[14 * count + s];
+      double a33 = a[15 * count + s];
+      double b0 = b[s];
+      double b1 = b[count + s];
+      double b2 = b[2 * count + s];
+      double b3 = b[3 * count + s];
+
+      // 2x2 minors of the top two rows (s*) and the bottom two rows (c*)
+      double s0 = a00 * a11 - a10 * a01;
+      double s1 = a00 * a12 - a10 * a02;
+      double s2 = a00 * a13 - a10 * a03;
+      double s3 = a01 * a12 - a11 * a02;
+      double s4 = a01 * a13 - a11 * a03;
+      double s5 = a02 * a13 - a12 * a03;
+      double c5 = a22 * a33 - a32 * a23;
+      double c4 = a21 * a33 - a31 * a23;
+      double c3 = a21 * a32 - a31 * a22;
+      double c2 = a20 * a33 - a30 * a23;
+      double c1 = a20 * a32 - a30 * a22;
+      double c0 = a20 * a31 - a30 * a21;
+      double det = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+      double rowNorms =
+          Math.sqrt(
+              (a00 * a00 + a01 * a01 + a02 * a02 + a03 * a03)
+                  * (a10 * a10 + a11 * a11 + a12 * a12 + a13 * a13)
+                  * (a20 * a20 + a21 * a21 + a22 * a22 + a23 * a23)
+                  * (a30 * a30 + a31 * a31 + a32 * a32 + a33 * a33));
+      singular[s] = Math.abs(det) <= 4 * EPSILON * rowNorms;
+
+      // x = adj(A) b / det
+      b[s] =
+          ((a11 * c5 - a12 * c4 + a13 * c3) * b0
+                  + (-a01 * c5 + a02 * c4 - a03 * c3) * b1
+                  + (a31 * s5 - a32 * s4 + a33 * s3) * b2
+                  + (-a21 * s5 + a22 * s4 - a23 * s3) * b3)
+              / det;
+      b[count + s] =
+          ((-a10 * c5 + a12 * c2 - a13 * c1) * b0
+                  + (a00 * c5 - a02 * c2 + a03 * c1) * b1
+                  + (-a30 * s5 + a32 * s2 - a33 * s1) * b2
+                  + (a20 * s5 - a22 * s2 + a23 * s1) * b3)
+              / det;
+      b[2 * count + s] =
+          ((a10 * c4 - a11 * c2 + a13 * c0) * b0
+                  + (-a00 * c4 + a01 * c2 - a03 * c0) * b1
+                  + (a30 * s4 - a31 * s2 + a33 * s0) * b2
+                  + (-a20 * s4 + a21 * s2 - a23 * s0) * b3)
+              / det;
+      b[3 * count + s] =
+          ((-a10 * c3 + a11 * c1 - a12 * c0) * b0
+                  + (a00 * c3 - a01 * c1 + a02 * c0) * b1
+                  + (-a30 * s3 + a31 * s1 - a32 * s0) * b2
+                  + (a20 * s3 - a21 * s1 + a22 * s0) * b3)
+              / det;
+    }
+  }
+
+  /** Gather each system into a dense scratch array and eliminate with partial pivoting. */
+  private static void solveGeneral(
+      int n, int count, int first, int end, double[] a, double[] b, boolean[] singular) {
+    double[] m = new double[n * n];
+    double[] x = new double[n];
+    for (int s = first; s < end; ++s) {
+      for (int i = 0; i < n * n; ++i) m[i] = a[i * count + s];
+      for (int i = 0; i < n; ++i) x[i] = b[i * count + s];
+      double largest = 0;
+      for (int i = 0; i < n * n; ++i) largest = Math.max(largest, Math.abs(m[i]));
+      double tolerance = n * EPSILON * largest;
+
+      boolean foundZeroPivot = false;
+      for (int k = 0; k < n && !foundZeroPivot; ++k) {
+        int maxRow = k;
+        for (int row = k + 1; row < n; ++row)
+          if (Math.abs(m[row * n + k]) > Math.abs(m[maxRow * n + k])) maxRow = row;
+        if (Math.abs(m[maxRow * n + k]) <= tolerance) {
+          foundZeroPivot = true;
+          break;
+        }
+        if (maxRow != k) {
+          for (int col = k; col < n; ++col) {
+            double temp = m[k * n + col];
+            m[k * n + col] = m[maxRow * n + col];
+            m[maxRow * n + col] = temp;
+          }
+          double temp = x[k];
+          x[k] = x[maxRow];
+          x[maxRow] = temp;
+        }
+        for (int row = k + 1; row < n; ++row) {
+          double factor = m[row * n + k] / m[k * n + k];
+          if (factor == 0) continue;
+          for (int col = k + 1; col < n; ++col) m[row * n + col] -= factor * m[k * n + col];
+          x[row] -= factor * x[k];
+        }
+      }
+      singular[s] = foundZeroPivot;
+      if (foundZeroPivot) continue;
+      for (int row = n - 1; row >= 0; --row) {
+        double sum = x[row];
+        for (int col = row + 1; col < n; ++col) sum -= m[row * n + col] * x[col];
+        x[row] = sum / m[row * n + row];
+      }
+      for (int i = 0; i < n; ++i) b[i * count + s] = x[i];
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * The (right-)preconditioned biconjugate gradient stabilized method, for general non-singular
+ * {@code A}. Each iteration costs two products with {@code A} and two applications of the
+ * preconditioner.
+ */
+public class BiCGStab extends IterativeSolver {
+  /**
+   * Initialize this {@code BiCGStab} without preconditioning.
+   *
+   * @param operator non-singular {@code A}
+   */
+  public BiCGStab(@NotNull LinearOperator operator) {
+    this(operator, Preconditioner.identity());
+  }
+
+  /**
+   * Initialize this {@code BiCGStab}.
+   *
+   * @param operator non-singular {@code A}
+   * @param preconditioner approximation of {@code A}, such as {@link Preconditioner#jacobi} or
+   *     {@link IncompleteLU}
+   */
+  public BiCGStab(@NotNull LinearOperator operator, @NotNull Preconditioner preconditioner) {
+    super(operator, preconditioner);
+  }
+
+  @Override
+  public IterativeResult solveInPlace(double @NotNull [] b, double @NotNull [] x) {
+    checkLengths(b, x);
+    int n = b.length;
+    double normB = norm(b);
+    if (normB == 0) {
+      Arrays.fill(x, 0);
+      return new IterativeResult(true, 0, 0);
+    }
+    double[] r = new double[n];
+    residual(b, x, r);
+    double relativeResidual = norm(r) / normB;
+    if (relativeResidual <= tolerance) return new IterativeResult(true, 0, relativeResidual);
+
+    double[] shadow = r.clone(); // the fixed "r hat" of BiCG
+    double[] p = new double[n];
+    double[] v = new double[n];
+    double[] y = new double[n];
+    double[] s = new double[n];
+    double[] z = new double[n];
+    double[] t = new double[n];
+    double rho = 1;
+    double alpha = 1;
+    double omega = 1;
+    for (int iteration = 1; iteration <= maxIterations; ++iteration) {
+      double rhoNext = dot(shadow, r);
+      if (rhoNext == 0 || omega == 0) // breakdown
+        return new IterativeResult(false, iteration - 1, relativeResidual);
+      double beta = (rhoNext / rho) * (alpha / omega);
+      rho = rhoNext;
+      for (int i = 0; i < n; ++i) p[i] = r[i] + beta * (p[i] - omega * v[i]);
+
+      preconditioner.apply(p, y);
+      operator.apply(y, v);
+      alpha = rho / dot(shadow, v);
+      for (int i = 0; i < n; ++i) s[i] = r[i] - alpha * v[i];
+      KERNELS.axpy(alpha, y, 0, x, 0, n);
+      relativeResidual = norm(s) / normB;
+      if (relativeResidual <= tolerance)
+        return new IterativeResult(true, iteration, relativeResidual);
+
+      preconditioner.apply(s, z);
+      operator.apply(z, t);
+      omega = dot(t, s) / dot(t, t);
+      KERNELS.axpy(omega, z, 0, x, 0, n);
+      for (int i = 0; i < n; ++i) r[i] = s[i] - omega * t[i];
+      relativeResidual = norm(r) / normB;
+      if (relativeResidual <= tolerance)
+        return new IterativeResult(true, iteration, relativeResidual);
+      if (!Double.isFinite(relativeResidual))
+        return new IterativeResult(false, iteration, relativeResidual);
+    }
+    return new IterativeResult(false, maxIterations, relativeResidual);
+  }
+}
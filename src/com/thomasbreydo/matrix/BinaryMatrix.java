@@ -0,0 +1,290 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Store a matrix over GF(2), the field {@code {0, 1}} where addition is XOR, with each row packed
+ * 64 columns to a {@code long}. Memory use is one bit per element, and adding one row to another
+ * is a word-wise XOR.
+ *
+ * <p>Row reduction is blocked like {@link Matrix.Elimination#BLOCKED}: pivots are found 64 columns
+ * (one word) at a time using only that word of each row, the pivot rows are reduced among
+ * themselves, and then every other row is updated by all of the panel's pivot rows in one visit.
+ * Each row is therefore read from memory once per 64 columns rather than once per column, and the
+ * row updates are split across the common {@code ForkJoinPool}.
+ */
+public class BinaryMatrix {
+  /** Updates touching fewer words than this run on the calling thread. */
+  private static final int PARALLEL_WORDS = 1 << 16;
+
+  private final int rowCount;
+  private final int colCount;
+  private final int wordsPerRow;
+  private final long[] words; // row r holds columns 64w..64w+63 in words[r * wordsPerRow + w]
+
+  /**
+   * Initialize this {@code BinaryMatrix} filled with zeros.
+   *
+   * @param rowCount number of rows
+   * @param colCount number of columns
+   */
+  public BinaryMatrix(int rowCount, int colCount) {
+    if (rowCount <= 0 || colCount <= 0)
+      throw new IllegalArgumentException("rowCount and colCount must be positive");
+    this.rowCount = rowCount;
+    this.colCount = colCount;
+    wordsPerRow = (colCount + Long.SIZE - 1) / Long.SIZE;
+    words = new long[Math.multiplyExact(rowCount, wordsPerRow)];
+  }
+
+  /**
+   * Initialize this {@code BinaryMatrix} with a copy of {@code matrix}.
+   *
+   * @param matrix initial values, {@code true} for one
+   */
+  public BinaryMatrix(boolean @NotNull [] @NotNull [] matrix) {
+    this(matrix.length, matrix.length == 0 ? 0 : matrix[0].length);
+    for (int row = 0; row < rowCount; ++row) {
+      if (matrix[row].length != colCount)
+        throw new IllegalArgumentException("all rows must have the same length");
+      for (int col = 0; col < colCount; ++col) if (matrix[row][col]) setEntry(row, col, true);
+    }
+  }
+
+  /**
+   * Get a deep copy of this {@code BinaryMatrix}.
+   *
+   * @return a deep copy of this {@code BinaryMatrix}
+   */
+  public BinaryMatrix copy() {
+    BinaryMatrix output = new BinaryMatrix(rowCount, colCount);
+    System.arraycopy(words, 0, output.words, 0, words.length);
+    return output;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    BinaryMatrix other = (BinaryMatrix) o;
+    return rowCount == other.rowCount
+        && colCount == other.colCount
+        && Arrays.equals(words, other.words);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * rowCount + colCount) + Arrays.hashCode(words);
+  }
+
+  /**
+   * Get the string representation of this {@code BinaryMatrix}, one row of {@code 0}s and {@code
+   * 1}s per line.
+   *
+   * @return the string representation of this {@code BinaryMatrix}
+   */
+  @Override
+  public String toString() {
+    StringBuilder stringBuilder = new StringBuilder((colCount + 1) * rowCount);
+    for (int row = 0; row < rowCount; ++row) {
+      for (int col = 0; col < colCount; ++col) stringBuilder.append(getValueAt(row, col) ? 1 : 0);
+      stringBuilder.append('\n');
+    }
+    return stringBuilder.toString();
+  }
+
+  /**
+   * Get the number of rows in this {@code BinaryMatrix}.
+   *
+   * @return the number of rows in this {@code BinaryMatrix}
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Get the number of columns in this {@code BinaryMatrix}.
+   *
+   * @return the number of columns in this {@code BinaryMatrix}
+   */
+  public int getColumnCount() {
+    return colCount;
+  }
+
+  /**
+   * Get the element at {@code (row, column)}.
+   *
+   * @param row row index of the element
+   * @param column column index of the element
+   * @return {@code true} if the element is one
+   */
+  public boolean getValueAt(int row, int column) {
+    Objects.checkIndex(row, rowCount);
+    Objects.checkIndex(column, colCount);
+    return (words[row * wordsPerRow + column / Long.SIZE] & 1L << column) != 0;
+  }
+
+  /**
+   * Set the element at {@code (row, column)}.
+   *
+   * @param row row index of the element
+   * @param column column index of the element
+   * @param value {@code true} for one
+   */
+  public void setEntry(int row, int column, boolean value) {
+    Objects.checkIndex(row, rowCount);
+    Objects.checkIndex(column, colCount);
+    int index = row * wordsPerRow + column / Long.SIZE;
+    if (value) words[index] |= 1L << column; // shifts use the low six bits of column
+    else words[index] &= ~(1L << column);
+  }
+
+  /**
+   * Return the reduced row-echelon form of this {@code BinaryMatrix}.
+   *
+   * @return a new {@code BinaryMatrix} in reduced row-echelon form
+   */
+  public BinaryMatrix rowReduce() {
+    BinaryMatrix output = copy();
+    output.rowReduceInPlace();
+    return output;
+  }
+
+  /** Put this {@code BinaryMatrix} in reduced row-echelon form. */
+  public void rowReduceInPlace() {
+    reduce(true);
+  }
+
+  /**
+   * Get the rank of this {@code BinaryMatrix}, by forward elimination of a copy.
+   *
+   * @return the number of linearly independent rows
+   */
+  public int rank() {
+    return copy().reduce(false);
+  }
+
+  /**
+   * Solve {@code Ax = b} over GF(2). If there are many solutions, the one with every free variable
+   * set to zero is returned.
+   *
+   * @param b right-hand side, of length {@link #getRowCount()}
+   * @return a solution {@code x}, of length {@link #getColumnCount()}
+   * @throws RuntimeException if the system has no solution
+   */
+  public boolean[] solve(boolean @NotNull [] b) {
+    if (b.length != rowCount) throw new IllegalArgumentException("b.length must equal row count");
+    BinaryMatrix augmented = new BinaryMatrix(rowCount, colCount + 1);
+    for (int row = 0; row < rowCount; ++row) {
+      System.arraycopy(
+          words, row * wordsPerRow, augmented.words, row * augmented.wordsPerRow, wordsPerRow);
+      if (b[row]) augmented.setEntry(row, colCount, true);
+    }
+    int rank = augmented.reduce(true);
+    boolean[] x = new boolean[colCount];
+    for (int row = 0; row < rank; ++row) {
+      int pivotCol = augmented.firstOne(row);
+      if (pivotCol == colCount) throw new RuntimeException("system has no solution");
+      x[pivotCol] = augmented.getValueAt(row, colCount);
+    }
+    return x;
+  }
+
+  private int firstOne(int row) {
+    int offset = row * wordsPerRow;
+    for (int w = 0; w < wordsPerRow; ++w)
+      if (words[offset + w] != 0)
+        return w * Long.SIZE + Long.numberOfTrailingZeros(words[offset + w]);
+    return -1;
+  }
+
+  /**
+   * Eliminate one 64-column panel at a time.
+   *
+   * @param full if {@code true}, also clear above each pivot (reduced row-echelon form)
+   * @return the rank
+   */
+  private int reduce(boolean full) {
+    int rank = 0;
+    long[] panel = new long[rowCount];
+    int[] pivotBits = new int[Long.SIZE];
+    int[] pivotOfBit = new int[Long.SIZE];
+    for (int w = 0; w < wordsPerRow && rank < rowCount; ++w) {
+      // 1. find the panel's pivots by eliminating a copy of word w of the remaining rows
+      for (int row = rank; row < rowCount; ++row) panel[row] = words[row * wordsPerRow + w];
+      int count = 0;
+      int bitEnd = Math.min(Long.SIZE, colCount - w * Long.SIZE);
+      for (int bit = 0; bit < bitEnd && rank + count < rowCount; ++bit) {
+        long mask = 1L << bit;
+        int top = rank + count;
+        int found = top;
+        while (found < rowCount && (panel[found] & mask) == 0) ++found;
+        if (found == rowCount) continue;
+        if (found != top) {
+          swapRows(found, top);
+          long temp = panel[found];
+          panel[found] = panel[top];
+          panel[top] = temp;
+        }
+        for (int row = top + 1; row < rowCount; ++row)
+          if ((panel[row] & mask) != 0) panel[row] ^= panel[top];
+        pivotOfBit[bit] = count;
+        pivotBits[count++] = bit;
+      }
+      if (count == 0) continue;
+
+      // 2. reduce the pivot rows among themselves, so each pivot bit is set in one pivot row only
+      long pivotMask = 0;
+      for (int j = 0; j < count; ++j) {
+        long mask = 1L << pivotBits[j];
+        pivotMask |= mask;
+        int pivotOffset = (rank + j) * wordsPerRow;
+        for (int i = 0; i < count; ++i) {
+          int offset = (rank + i) * wordsPerRow;
+          if (i != j && (words[offset + w] & mask) != 0) xorRow(pivotOffset, offset, w);
+        }
+      }
+
+      // 3. every other row now needs exactly the pivot rows whose bits it has set
+      int first = rank;
+      int end = rank + count;
+      long panelMask = pivotMask;
+      int word = w;
+      GaussJordan.RowChunk update =
+          (chunkStart, chunkEnd) -> {
+            for (int row = chunkStart; row < chunkEnd; ++row) {
+              if ((row >= first && row < end) || (!full && row < first)) continue;
+              int offset = row * wordsPerRow;
+              long bits = words[offset + word] & panelMask;
+              while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                xorRow((first + pivotOfBit[bit]) * wordsPerRow, offset, word);
+              }
+            }
+          };
+      if ((long) rowCount * (wordsPerRow - w) < PARALLEL_WORDS) update.update(0, rowCount);
+      else GaussJordan.forEachRowChunk(rowCount, update);
+      rank = end;
+    }
+    return rank;
+  }
+
+  /** XOR the row at {@code sourceOffset} into the row at {@code destOffset}, from word w on. */
+  private void xorRow(int sourceOffset, int destOffset, int w) {
+    for (int i = w; i < wordsPerRow; ++i) words[destOffset + i] ^= words[sourceOffset + i];
+  }
+
+  private void swapRows(int row1, int row2) {
+    int offset1 = row1 * wordsPerRow;
+    int offset2 = row2 * wordsPerRow;
+    for (int i = 0; i < wordsPerRow; ++i) {
+      long temp = words[offset1 + i];
+      words[offset1 + i] = words[offset2 + i];
+      words[offset2 + i] = temp;
+    }
+  }
+}
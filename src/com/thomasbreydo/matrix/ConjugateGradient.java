@@ -0,0 +1,72 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * The preconditioned conjugate gradient method, for symmetric positive-definite {@code A}. Each
+ * iteration costs one product with {@code A} and one application of the preconditioner.
+ */
+public class ConjugateGradient extends IterativeSolver {
+  /**
+   * Initialize this {@code ConjugateGradient} without preconditioning.
+   *
+   * @param operator symmetric positive-definite {@code A}
+   */
+  public ConjugateGradient(@NotNull LinearOperator operator) {
+    this(operator, Preconditioner.identity());
+  }
+
+  /**
+   * Initialize this {@code ConjugateGradient}.
+   *
+   * @param operator symmetric positive-definite {@code A}
+   * @param preconditioner symmetric positive-definite approximation of {@code A}, such as {@link
+   *     Preconditioner#jacobi} or {@link IncompleteCholesky}
+   */
+  public ConjugateGradient(
+      @NotNull LinearOperator operator, @NotNull Preconditioner preconditioner) {
+    super(operator, preconditioner);
+  }
+
+  @Override
+  public IterativeResult solveInPlace(double @NotNull [] b, double @NotNull [] x) {
+    checkLengths(b, x);
+    int n = b.length;
+    double normB = norm(b);
+    if (normB == 0) {
+      Arrays.fill(x, 0);
+      return new IterativeResult(true, 0, 0);
+    }
+    double[] r = new double[n];
+    double[] z = new double[n];
+    double[] p = new double[n];
+    double[] q = new double[n];
+    residual(b, x, r);
+    double relativeResidual = norm(r) / normB;
+    if (relativeResidual <= tolerance) return new IterativeResult(true, 0, relativeResidual);
+
+    preconditioner.apply(r, z);
+    System.arraycopy(z, 0, p, 0, n);
+    double rz = dot(r, z);
+    for (int iteration = 1; iteration <= maxIterations; ++iteration) {
+      operator.apply(p, q);
+      double alpha = rz / dot(p, q);
+      KERNELS.axpy(alpha, p, 0, x, 0, n);
+      KERNELS.axpy(-alpha, q, 0, r, 0, n);
+      relativeResidual = norm(r) / normB;
+      if (relativeResidual <= tolerance)
+        return new IterativeResult(true, iteration, relativeResidual);
+      if (!Double.isFinite(relativeResidual))
+        return new IterativeResult(false, iteration, relativeResidual);
+
+      preconditioner.apply(r, z);
+      double rzNext = dot(r, z);
+      double beta = rzNext / rz;
+      rz = rzNext;
+      for (int i = 0; i < n; ++i) p[i] = z[i] + beta * p[i];
+    }
+    return new IterativeResult(false, maxIterations, relativeResidual);
+  }
+}
@@ -0,0 +1,502 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable integer matrix whose rank, determinant and reduced row echelon form are computed
+ * exactly, with no tolerance for deciding what is zero.
+ *
+ * <p>The rank and determinant are computed modulo primes just below {@code 2^31}, with one {@link
+ * ModularMatrix} elimination per prime, so no element ever outgrows a {@code long}. The rank modulo
+ * {@code p} is never more than the true rank, and is less only if {@code p} divides every nonzero
+ * minor of that size; once the product of the primes exceeds Hadamard's bound on those minors
+ * (the product of the largest row norms), the largest rank seen is exact. A matrix of full rank
+ * needs only one prime. The determinant is rebuilt from its residues by the Chinese remainder
+ * theorem, with primes until their product exceeds twice Hadamard's bound on it, so the cost grows
+ * with the size of the entries: about {@code n log2(sqrt(n) max|a_ij|) / 31} eliminations.
+ *
+ * <p>The reduced row echelon form needs the actual fractions, so it comes from a fraction-free
+ * elimination (Bareiss) over the integers: step {@code k} replaces each element by {@code
+ * (pivot * a - a_col * a_row) / previousPivot}, and the division is always exact. Every
+ * intermediate element is a minor of the original matrix, so elements grow only linearly in the
+ * number of bits, instead of exponentially as with naive integer elimination, and no fractions
+ * are ever formed. Elements are kept as {@code long} while they fit; the first operation that
+ * would overflow promotes the whole matrix to {@code BigInteger} and carries on from that row.
+ *
+ * <p>Results are computed on first use and then cached; the caches are safe to share between
+ * threads.
+ */
+public final class ExactMatrix {
+  /** Steps updating fewer {@code BigInteger} elements than this run on the calling thread. */
+  private static final int PARALLEL_ELEMENTS = 1 << 12;
+
+  private final int rowCount;
+  private final int colCount;
+  private final long[] small; // row-major elements, or null if some element does not fit a long
+  private final BigInteger[] big; // row-major elements if small is null
+  private volatile int cachedRank = -1; // -1 until computed
+  private volatile BigInteger cachedDeterminant;
+  private volatile Bareiss reduced; // Gauss-Jordan elimination, for the reduced row echelon form
+
+  /**
+   * Initialize this {@code ExactMatrix} with a copy of {@code matrix}.
+   *
+   * @param matrix initial values
+   */
+  public ExactMatrix(long @NotNull [] @NotNull [] matrix) {
+    rowCount = matrix.length;
+    colCount = rowCount == 0 ? 0 : matrix[0].length;
+    if (rowCount == 0 || colCount == 0)
+      throw new IllegalArgumentException("rowCount and colCount must be positive");
+    small = new long[Math.multiplyExact(rowCount, colCount)];
+    big = null;
+    for (int row = 0; row < rowCount; ++row) {
+      if (matrix[row].length != colCount)
+        throw new IllegalArgumentException("all rows must have the same length");
+      System.arraycopy(matrix[row], 0, small, row * colCount, colCount);
+    }
+  }
+
+  /**
+   * Initialize this {@code ExactMatrix} with a copy of {@code matrix}.
+   *
+   * @param matrix initial values
+   */
+  public ExactMatrix(@NotNull BigInteger @NotNull [] @NotNull [] matrix) {
+    rowCount = matrix.length;
+    colCount = rowCount == 0 ? 0 : matrix[0].length;
+    if (rowCount == 0 || colCount == 0)
+      throw new IllegalArgumentException("rowCount and colCount must be positive");
+    BigInteger[] values = new BigInteger[Math.multiplyExact(rowCount, colCount)];
+    for (int row = 0; row < rowCount; ++row) {
+      if (matrix[row].length != colCount)
+        throw new IllegalArgumentException("all rows must have the same length");
+      for (int col = 0; col < colCount; ++col)
+        values[row * colCount + col] = Objects.requireNonNull(matrix[row][col]);
+    }
+    long[] longs = toLongs(values);
+    small = longs;
+    big = longs == null ? values : null;
+  }
+
+  private ExactMatrix(int rowCount, int colCount, long[] small, BigInteger[] big) {
+    this.rowCount = rowCount;
+    this.colCount = colCount;
+    this.small = small;
+    this.big = big;
+  }
+
+  /**
+   * Convert {@code matrix} exactly: every {@code double} is a fraction with a power-of-two
+   * denominator, so each row is multiplied by the smallest power of two that makes it integral.
+   * Scaling rows changes neither the rank nor the reduced row echelon form, so those (and whether
+   * {@code matrix} is invertible) are exactly those of {@code matrix}. The determinant is that of
+   * the scaled rows.
+   *
+   * @param matrix {@code Matrix} with finite elements
+   * @return a new {@code ExactMatrix} with the scaled rows of {@code matrix}
+   */
+  public static @NotNull ExactMatrix fromMatrix(@NotNull Matrix matrix) {
+    int rowCount = matrix.getRowCount();
+    int colCount = matrix.getColumnCount();
+    BigInteger[] values = new BigInteger[rowCount * colCount];
+    long[] significands = new long[colCount];
+    int[] exponents = new int[colCount];
+    for (int row = 0; row < rowCount; ++row) {
+      int minExponent = Integer.MAX_VALUE;
+      for (int col = 0; col < colCount; ++col) {
+        double value = matrix.getValueAt(row, col);
+        if (!Double.isFinite(value)) throw new IllegalArgumentException("matrix is not finite");
+        long bits = Double.doubleToRawLongBits(value);
+        int biasedExponent = (int) (bits >>> 52) & 0x7ff;
+        long significand = bits & ((1L << 52) - 1);
+        if (biasedExponent != 0) significand |= 1L << 52; // implicit leading bit of normals
+        int exponent = Math.max(biasedExponent, 1) - 1075; // value = significand * 2^exponent
+        if (significand != 0) {
+          int zeros = Long.numberOfTrailingZeros(significand);
+          significand >>= zeros;
+          exponent += zeros;
+          minExponent = Math.min(minExponent, exponent);
+        }
+        significands[col] = value < 0 ? -significand : significand;
+        exponents[col] = exponent;
+      }
+      for (int col = 0; col < colCount; ++col) {
+        BigInteger value = BigInteger.valueOf(significands[col]);
+        if (significands[col] != 0) value = value.shiftLeft(exponents[col] - minExponent);
+        values[row * colCount + col] = value;
+      }
+    }
+    long[] longs = toLongs(values);
+    return new ExactMatrix(rowCount, colCount, longs, longs == null ? values : null);
+  }
+
+  /** @return {@code values} as {@code long}s, or {@code null} if one does not fit */
+  private static long[] toLongs(BigInteger[] values) {
+    long[] output = new long[values.length];
+    for (int i = 0; i < values.length; ++i) {
+      if (values[i].bitLength() >= Long.SIZE) return null;
+      output[i] = values[i].longValue();
+    }
+    return output;
+  }
+
+  /**
+   * Get the number of rows in this {@code ExactMatrix}.
+   *
+   * @return the number of rows in this {@code ExactMatrix}
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Get the number of columns in this {@code ExactMatrix}.
+   *
+   * @return the number of columns in this {@code ExactMatrix}
+   */
+  public int getColumnCount() {
+    return colCount;
+  }
+
+  /**
+   * Get the element at {@code (row, column)}.
+   *
+   * @param row row index of the element
+   * @param column column index of the element
+   * @return the element at {@code (row, column)}
+   */
+  public BigInteger getValueAt(int row, int column) {
+    Objects.checkIndex(row, rowCount);
+    Objects.checkIndex(column, colCount);
+    int index = row * colCount + column;
+    return small != null ? BigInteger.valueOf(small[index]) : big[index];
+  }
+
+  /**
+   * Get the rank of this {@code ExactMatrix}.
+   *
+   * @return the number of linearly independent rows
+   */
+  public int rank() {
+    int result = cachedRank;
+    if (result >= 0) return result;
+    Bareiss elimination = reduced;
+    if (elimination != null) return cachedRank = elimination.rank;
+
+    double[] normBits = rowNormBits();
+    int maxRank = Math.min(rowCount, colCount);
+    double primeBits = 0;
+    int modulus = Integer.MAX_VALUE;
+    result = 0;
+    do {
+      result = Math.max(result, toModular(modulus).rank());
+      primeBits += log2(modulus);
+      modulus = previousPrime(modulus);
+      // a larger rank needs a nonzero (result + 1)-minor divisible by every prime so far
+    } while (result < maxRank && primeBits <= sum(normBits, result + 1) + 1);
+    return cachedRank = result;
+  }
+
+  /**
+   * Get the determinant of this {@code ExactMatrix}.
+   *
+   * @return the determinant
+   */
+  public BigInteger determinant() {
+    if (rowCount != colCount) throw new IllegalArgumentException("matrix must be square");
+    BigInteger result = cachedDeterminant;
+    if (result != null) return result;
+
+    // |det| <= 2^bound, so residues modulo primes whose product exceeds 2^(bound + 1) fix it
+    double bound = sum(rowNormBits(), rowCount);
+    double primeBits = 0;
+    int modulus = Integer.MAX_VALUE;
+    BigInteger residue = BigInteger.ZERO;
+    BigInteger product = BigInteger.ONE;
+    do {
+      // Garner's step: residue + product * t is the determinant modulo product * p
+      BigInteger p = BigInteger.valueOf(modulus);
+      BigInteger t =
+          BigInteger.valueOf(toModular(modulus).determinant())
+              .subtract(residue)
+              .multiply(product.modInverse(p))
+              .mod(p);
+      residue = residue.add(product.multiply(t));
+      product = product.multiply(p);
+      primeBits += log2(modulus);
+      modulus = previousPrime(modulus);
+    } while (primeBits <= bound + 2);
+    if (residue.shiftLeft(1).compareTo(product) > 0) residue = residue.subtract(product);
+    return cachedDeterminant = residue;
+  }
+
+  /**
+   * Check whether this {@code ExactMatrix} is invertible (over the rationals).
+   *
+   * @return {@code true} if this {@code ExactMatrix} is square and has full rank
+   */
+  public boolean isInvertible() {
+    return rowCount == colCount && rank() == rowCount;
+  }
+
+  /**
+   * Get the reduced row echelon form scaled by a common denominator {@code d}, so that it stays
+   * integral: each pivot equals {@code d > 0}, and dividing every element by {@code d} gives the
+   * exact reduced row echelon form.
+   *
+   * @return a new {@code ExactMatrix} equal to {@code d} times the reduced row echelon form
+   */
+  public ExactMatrix rowReduceFractionFree() {
+    Bareiss elimination = reduced();
+    boolean flip = elimination.rank > 0 && elimination.lastPivot().signum() < 0;
+    long[] smallOutput = elimination.small;
+    if (smallOutput != null) {
+      long[] output = smallOutput.clone();
+      try {
+        if (flip) for (int i = 0; i < output.length; ++i) output[i] = Math.negateExact(output[i]);
+        return new ExactMatrix(rowCount, colCount, output, null);
+      } catch (ArithmeticException e) {
+        // -Long.MIN_VALUE is not a long; the shared elimination is left as it is
+      }
+    }
+    BigInteger[] output = new BigInteger[rowCount * colCount];
+    for (int i = 0; i < output.length; ++i)
+      output[i] = smallOutput != null ? BigInteger.valueOf(smallOutput[i]) : elimination.big[i];
+    if (flip) for (int i = 0; i < output.length; ++i) output[i] = output[i].negate();
+    return new ExactMatrix(rowCount, colCount, null, output);
+  }
+
+  /**
+   * Get the reduced row echelon form as a {@code Matrix}. It is computed exactly, and each element
+   * is rounded to a {@code double} only at the end, so zeros are exact.
+   *
+   * @return the reduced row echelon form of this {@code ExactMatrix}
+   */
+  public Matrix rowReduce() {
+    ExactMatrix scaled = rowReduceFractionFree();
+    Bareiss elimination = reduced();
+    Matrix output = new Matrix(rowCount, colCount);
+    if (elimination.rank == 0) return output;
+    BigInteger denominator = elimination.lastPivot().abs();
+    BigDecimal exactDenominator = new BigDecimal(denominator);
+    for (int row = 0; row < elimination.rank; ++row) {
+      for (int col = 0; col < colCount; ++col) {
+        BigInteger numerator = scaled.getValueAt(row, col);
+        if (numerator.signum() == 0) continue;
+        double value;
+        if (numerator.bitLength() <= 53 && denominator.bitLength() <= 53) {
+          value = numerator.doubleValue() / denominator.doubleValue(); // both exact, one rounding
+        } else {
+          value =
+              new BigDecimal(numerator)
+                  .divide(exactDenominator, MathContext.DECIMAL128)
+                  .doubleValue();
+        }
+        output.setEntry(row, col, value);
+      }
+    }
+    return output;
+  }
+
+  private Bareiss reduced() {
+    Bareiss elimination = reduced;
+    if (elimination == null) reduced = elimination = new Bareiss();
+    return elimination;
+  }
+
+  /** @return this matrix modulo the prime {@code modulus} */
+  private ModularMatrix toModular(int modulus) {
+    ModularMatrix output = new ModularMatrix(rowCount, colCount, modulus);
+    BigInteger p = BigInteger.valueOf(modulus);
+    for (int row = 0; row < rowCount; ++row) {
+      for (int col = 0; col < colCount; ++col) {
+        int index = row * colCount + col;
+        output.setEntry(row, col, small != null ? small[index] : big[index].mod(p).longValue());
+      }
+    }
+    return output;
+  }
+
+  /**
+   * @return for each row, an upper bound on the base-2 logarithm of its Euclidean norm ({@code
+   *     -Infinity} for a zero row), in descending order
+   */
+  private double[] rowNormBits() {
+    double[] output = new double[rowCount];
+    int[] bits = new int[colCount];
+    for (int row = 0; row < rowCount; ++row) {
+      int maxBits = 0;
+      for (int col = 0; col < colCount; ++col) {
+        int index = row * colCount + col;
+        if (small != null) {
+          long value = small[index];
+          bits[col] = value == 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(Math.abs(value));
+        } else {
+          bits[col] = big[index].abs().bitLength();
+        }
+        maxBits = Math.max(maxBits, bits[col]);
+      }
+      // |a| < 2^bits, so the squared norm is below the sum of 4^bits
+      double scaledSquares = 0;
+      for (int col = 0; col < colCount; ++col)
+        if (bits[col] > 0) scaledSquares += Math.scalb(1.0, 2 * (bits[col] - maxBits));
+      output[row] = maxBits == 0 ? Double.NEGATIVE_INFINITY : maxBits + log2(scaledSquares) / 2;
+    }
+    Arrays.sort(output);
+    for (int i = 0, j = rowCount - 1; i < j; ++i, --j) {
+      double temp = output[i];
+      output[i] = output[j];
+      output[j] = temp;
+    }
+    return output;
+  }
+
+  /** @return the sum of the first {@code count} elements of {@code values} */
+  private static double sum(double[] values, int count) {
+    double total = 0;
+    for (int i = 0; i < count; ++i) total += values[i];
+    return total;
+  }
+
+  private static double log2(double value) {
+    return Math.log(value) / Math.log(2);
+  }
+
+  /** @return the largest prime below {@code modulus} */
+  private static int previousPrime(int modulus) {
+    int candidate = modulus - 2;
+    while (!BigInteger.valueOf(candidate).isProbablePrime(64)) candidate -= 2;
+    return candidate;
+  }
+
+  /** A fraction-free elimination of a copy of this matrix, run to completion on construction. */
+  private final class Bareiss {
+    long[] small;
+    BigInteger[] big;
+    int rank;
+    private final int[] pivotColumns = new int[Math.min(rowCount, colCount)];
+    private final long[] scratch = new long[colCount];
+
+    /** Eliminate above and below each pivot (Gauss-Jordan). */
+    Bareiss() {
+      small = ExactMatrix.this.small != null ? ExactMatrix.this.small.clone() : null;
+      big = small == null ? ExactMatrix.this.big.clone() : null;
+      for (int col = 0; col < colCount && rank < rowCount; ++col) {
+        int pivotRow = findPivot(col);
+        if (pivotRow < 0) continue;
+        if (pivotRow != rank) swapRows(pivotRow, rank);
+        BigInteger previous = rank == 0 ? BigInteger.ONE : lastPivot();
+        if (small == null && (long) rowCount * (colCount - col) >= PARALLEL_ELEMENTS) {
+          // rows are independent within a step, and BigInteger products dominate the cost
+          int pivotIndex = rank;
+          int pivotCol = col;
+          IntStream.range(0, rowCount)
+              .parallel()
+              .forEach(
+                  row -> {
+                    if (row != pivotIndex) eliminateBig(row, pivotCol, previous);
+                  });
+        } else {
+          for (int row = 0; row < rowCount; ++row)
+            if (row != rank) eliminate(row, col, previous);
+        }
+        pivotColumns[rank++] = col;
+      }
+    }
+
+    /** @return the pivot of the last step, which is also every pivot after Gauss-Jordan */
+    BigInteger lastPivot() {
+      int index = (rank - 1) * colCount + pivotColumns[rank - 1];
+      return small != null ? BigInteger.valueOf(small[index]) : big[index];
+    }
+
+    private int findPivot(int col) {
+      for (int row = rank; row < rowCount; ++row) {
+        int index = row * colCount + col;
+        if (small != null ? small[index] != 0 : big[index].signum() != 0) return row;
+      }
+      return -1;
+    }
+
+    private void swapRows(int row1, int row2) {
+      for (int col = 0; col < colCount; ++col) {
+        int i = row1 * colCount + col;
+        int j = row2 * colCount + col;
+        if (small != null) {
+          long temp = small[i];
+          small[i] = small[j];
+          small[j] = temp;
+        } else {
+          BigInteger temp = big[i];
+          big[i] = big[j];
+          big[j] = temp;
+        }
+      }
+    }
+
+    /**
+     * One Bareiss update of {@code row} against the pivot at {@code (rank, col)}. Rows below the
+     * pivot are zero left of {@code col}; rows above it are updated across the whole row.
+     */
+    private void eliminate(int row, int col, BigInteger previous) {
+      if (small != null) {
+        if (eliminateSmall(row, col, previous.longValue())) return;
+        promote(); // nothing of this row was written, so redo it with BigInteger
+      }
+      eliminateBig(row, col, previous);
+    }
+
+    private void eliminateBig(int row, int col, BigInteger previous) {
+      int first = row < rank ? 0 : col + 1;
+      int offset = row * colCount;
+      int pivotOffset = rank * colCount;
+      BigInteger pivot = big[pivotOffset + col];
+      BigInteger factor = big[offset + col];
+      for (int j = first; j < colCount; ++j) {
+        if (j == col) continue;
+        big[offset + j] =
+            pivot
+                .multiply(big[offset + j])
+                .subtract(factor.multiply(big[pivotOffset + j]))
+                .divide(previous);
+      }
+      big[offset + col] = BigInteger.ZERO;
+    }
+
+    /** @return {@code false}, having written nothing, if the update overflows a {@code long} */
+    private boolean eliminateSmall(int row, int col, long previous) {
+      int first = row < rank ? 0 : col + 1;
+      int offset = row * colCount;
+      int pivotOffset = rank * colCount;
+      long pivot = small[pivotOffset + col];
+      long factor = small[offset + col];
+      try {
+        for (int j = first; j < colCount; ++j) {
+          if (j == col) continue;
+          long product = Math.multiplyExact(pivot, small[offset + j]);
+          long other = Math.multiplyExact(factor, small[pivotOffset + j]);
+          scratch[j] = Math.subtractExact(product, other) / previous;
+        }
+      } catch (ArithmeticException e) {
+        return false;
+      }
+      for (int j = first; j < colCount; ++j) if (j != col) small[offset + j] = scratch[j];
+      small[offset + col] = 0;
+      return true;
+    }
+
+    private void promote() {
+      big = new BigInteger[small.length];
+      for (int i = 0; i < small.length; ++i) big[i] = BigInteger.valueOf(small[i]);
+      small = null;
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package com.thomasbreydo.matrix;
+
+import java.util.stream.IntStream;
+
+/**
+ * Parallel and blocked variants of the Gauss-Jordan elimination behind {@link
+ * Matrix#rowReduceInPlace()}, for large matrices. Both work on a row-major array whose stride
+ * equals its column count, and both produce the same reduced row-echelon form as the sequential
+ * path (up to rounding).
+ */
+final class GaussJordan {
+  private static final RowKernels KERNELS = RowKernels.INSTANCE;
+  /** Rows handed to one fork-join task when updating rows in parallel. */
+  private static final int ROWS_PER_TASK = 32;
+  /** Number of columns searched for pivots at once by the blocked variant. */
+  static final int PANEL_WIDTH = 32;
+
+  private GaussJordan() {}
+
+  /**
+   * Row-reduce one pivot at a time. For each pivot, the pivot row is normalized once and every
+   * other row then gets {@code row -= factor * pivotRow}; those updates are independent and are
+   * split across the common {@code ForkJoinPool}.
+   */
+  static void reduceParallel(double[] data, int rowCount, int colCount) {
+    int pivotCol = 0;
+    for (int pivotRow = 0; pivotRow < rowCount && pivotCol < colCount; ++pivotRow) {
+      int found = -1;
+      while (pivotCol < colCount
+          && (found = findPivot(data, colCount, rowCount, pivotRow, pivotCol)) < 0) ++pivotCol;
+      if (found < 0) return; // no more pivots
+      int col = pivotCol++;
+      swapRows(data, colCount, pivotRow, found);
+
+      int pivotOffset = pivotRow * colCount;
+      KERNELS.divide(data, pivotOffset + col, colCount - col, data[pivotOffset + col]);
+      int row0 = pivotRow;
+      forEachRowChunk(
+          rowCount,
+          (first, end) -> {
+            for (int row = first; row < end; ++row) {
+              if (row == row0) continue;
+              int offset = row * colCount;
+              double factor = data[offset + col];
+              if (factor == 0) continue;
+              KERNELS.axpy(-factor, data, pivotOffset + col, data, offset + col, colCount - col);
+            }
+          });
+    }
+  }
+
+  /**
+   * Row-reduce a panel of up to {@link #PANEL_WIDTH} pivots at a time.
+   *
+   * <p>For each panel:
+   *
+   * <ol>
+   *   <li>Pivots are found by eliminating a copy of just the panel's columns.
+   *   <li>The (at most {@code PANEL_WIDTH}) pivot rows are reduced among themselves, so that they
+   *       hold the identity in the pivot columns.
+   *   <li>Every other row is updated once with {@code row -= sum_k row[pivotCol_k] *
+   *       pivotRow_k}, which leaves zeros in all pivot columns.
+   * </ol>
+   *
+   * <p>Step 3 touches each row once per panel instead of once per pivot, while the pivot rows stay
+   * in cache. It dominates the cost and is split across the common {@code ForkJoinPool}.
+   */
+  static void reduceBlocked(double[] data, int rowCount, int colCount) {
+    double[] panel = new double[rowCount * PANEL_WIDTH];
+    int[] pivotCols = new int[PANEL_WIDTH];
+    int[] swaps = new int[PANEL_WIDTH];
+    int pivotRow = 0;
+    for (int panelStart = 0;
+        panelStart < colCount && pivotRow < rowCount;
+        panelStart += PANEL_WIDTH) {
+      int width = Math.min(PANEL_WIDTH, colCount - panelStart);
+      int height = rowCount - pivotRow;
+      for (int i = 0; i < height; ++i)
+        System.arraycopy(data, (pivotRow + i) * colCount + panelStart, panel, i * width, width);
+      int pivotCount = findPanelPivots(panel, height, width, panelStart, pivotCols, swaps);
+      if (pivotCount == 0) continue;
+      for (int k = 0; k < pivotCount; ++k)
+        swapRows(data, colCount, pivotRow + k, pivotRow + swaps[k]);
+
+      int tail = colCount - panelStart;
+      double[] pivots = new double[pivotCount * tail];
+      for (int k = 0; k < pivotCount; ++k)
+        System.arraycopy(data, (pivotRow + k) * colCount + panelStart, pivots, k * tail, tail);
+      reducePivotRows(pivots, pivotCount, tail, panelStart, pivotCols);
+
+      // update every other row with all pivots of the panel at once
+      int firstPivotRow = pivotRow;
+      int count = pivotCount;
+      int start = panelStart;
+      forEachRowChunk(
+          rowCount,
+          (first, end) -> {
+            for (int row = first; row < end; ++row) {
+              if (row >= firstPivotRow && row < firstPivotRow + count) continue;
+              int offset = row * colCount + start;
+              eliminateWithPivots(pivots, count, tail, start, pivotCols, data, offset);
+            }
+          });
+
+      for (int k = 0; k < pivotCount; ++k)
+        System.arraycopy(pivots, k * tail, data, (pivotRow + k) * colCount + panelStart, tail);
+      pivotRow += pivotCount;
+    }
+  }
+
+  /**
+   * Find the pivots of a panel: {@code height} rows by {@code width} columns, row-major, holding
+   * columns {@code [panelStart, panelStart + width)} of the rows not yet used as pivots. {@code
+   * panel} is overwritten while eliminating.
+   *
+   * <p>Pivot {@code k} is found by swapping rows {@code k} and {@code swaps[k]} (relative to the
+   * panel); callers replay those swaps, in order, on their own storage. The pivot's column is
+   * stored in {@code pivotCols[k]}.
+   *
+   * @return the number of pivots found
+   */
+  static int findPanelPivots(
+      double[] panel, int height, int width, int panelStart, int[] pivotCols, int[] swaps) {
+    int count = 0;
+    for (int col = 0; col < width && count < height; ++col) {
+      int found = findPivot(panel, width, height, count, col);
+      if (found < 0) continue;
+      swapRows(panel, width, count, found);
+
+      int pivotOffset = count * width;
+      KERNELS.divide(panel, pivotOffset + col, width - col, panel[pivotOffset + col]);
+      for (int row = count + 1; row < height; ++row) {
+        int offset = row * width;
+        double factor = panel[offset + col];
+        if (factor != 0)
+          KERNELS.axpy(-factor, panel, pivotOffset + col, panel, offset + col, width - col);
+      }
+      swaps[count] = found;
+      pivotCols[count++] = panelStart + col;
+    }
+    return count;
+  }
+
+  /**
+   * Reduce {@code count} pivot rows among themselves so that they hold the identity in their pivot
+   * columns. Each row of {@code pivots} holds the {@code tail} columns from {@code panelStart} on.
+   */
+  static void reducePivotRows(
+      double[] pivots, int count, int tail, int panelStart, int[] pivotCols) {
+    for (int k = 0; k < count; ++k) {
+      int col = pivotCols[k] - panelStart;
+      KERNELS.divide(pivots, k * tail, tail, pivots[k * tail + col]);
+      for (int j = 0; j < count; ++j) {
+        if (j == k) continue;
+        double factor = pivots[j * tail + col];
+        if (factor != 0) KERNELS.axpy(-factor, pivots, k * tail, pivots, j * tail, tail);
+      }
+    }
+  }
+
+  /**
+   * Zero the pivot columns of one row using reduced pivot rows: {@code row -= sum_k
+   * row[pivotCol_k] * pivotRow_k}. The row's {@code tail} columns from {@code panelStart} on
+   * start at {@code row[offset]}. Reduced pivot rows are zero in each other's pivot columns, so
+   * each update leaves the other factors untouched.
+   */
+  static void eliminateWithPivots(
+      double[] pivots,
+      int count,
+      int tail,
+      int panelStart,
+      int[] pivotCols,
+      double[] row,
+      int offset) {
+    for (int k = 0; k < count; ++k) {
+      double factor = row[offset + pivotCols[k] - panelStart];
+      if (factor != 0) KERNELS.axpy(-factor, pivots, k * tail, row, offset, tail);
+    }
+  }
+
+  /**
+   * @return the row from {@code startRow} on whose element in {@code col} is largest in
+   *     magnitude, or {@code -1} if that element is ~0
+   */
+  private static int findPivot(double[] data, int stride, int rowCount, int startRow, int col) {
+    int largest = startRow;
+    for (int row = startRow + 1; row < rowCount; ++row)
+      if (Math.abs(data[row * stride + col]) > Math.abs(data[largest * stride + col]))
+        largest = row;
+    return Matrix.basicallyEqual(data[largest * stride + col], 0) ? -1 : largest;
+  }
+
+  private static void swapRows(double[] data, int stride, int row1, int row2) {
+    if (row1 == row2) return;
+    int offset1 = row1 * stride;
+    int offset2 = row2 * stride;
+    for (int col = 0; col < stride; ++col) {
+      double temp = data[offset1 + col];
+      data[offset1 + col] = data[offset2 + col];
+      data[offset2 + col] = temp;
+    }
+  }
+
+  interface RowChunk {
+    void update(int first, int end);
+  }
+
+  /** Run {@code chunk} over {@code [0, rowCount)} split into pieces on the common pool. */
+  static void forEachRowChunk(int rowCount, RowChunk chunk) {
+    int chunks = (rowCount + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+    IntStream.range(0, chunks)
+        .parallel()
+        .forEach(
+            i -> chunk.update(i * ROWS_PER_TASK, Math.min(rowCount, (i + 1) * ROWS_PER_TASK)));
+  }
+}
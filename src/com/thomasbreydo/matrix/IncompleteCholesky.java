@@ -0,0 +1,94 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The IC(0) preconditioner: {@code M = LL^T}, where {@code L} keeps exactly the sparsity pattern
+ * of the lower triangle of {@code A} and fill-in is dropped. Suited to symmetric positive-definite
+ * systems solved with {@link ConjugateGradient}.
+ */
+public class IncompleteCholesky implements Preconditioner {
+  private final int n;
+  private final int[] rowPointers; // CSR of L, diagonal last in each row
+  private final int[] columnIndices;
+  private final double[] values;
+
+  /**
+   * Factor {@code matrix}. Only its lower triangle is read, and {@code matrix} itself is not
+   * modified.
+   *
+   * @param matrix symmetric positive-definite {@code SparseMatrix} with every diagonal element
+   *     stored
+   * @throws RuntimeException if the factorization breaks down (a non-positive pivot), which can
+   *     happen for matrices that are not positive definite
+   */
+  public IncompleteCholesky(@NotNull SparseMatrix matrix) {
+    if (matrix.getRowCount() != matrix.getColumnCount())
+      throw new IllegalArgumentException("matrix must be square");
+    n = matrix.getRowCount();
+    int[] aPointers = matrix.getRowPointers();
+    int[] aColumns = matrix.getColumnIndices();
+    double[] aValues = matrix.getValues();
+
+    // copy the lower triangle (columns are sorted, so the diagonal ends each row)
+    rowPointers = new int[n + 1];
+    for (int row = 0; row < n; ++row) {
+      int count = 0;
+      for (int k = aPointers[row]; k < aPointers[row + 1] && aColumns[k] <= row; ++k) ++count;
+      rowPointers[row + 1] = rowPointers[row] + count;
+    }
+    columnIndices = new int[rowPointers[n]];
+    values = new double[rowPointers[n]];
+    for (int row = 0; row < n; ++row) {
+      int length = rowPointers[row + 1] - rowPointers[row];
+      System.arraycopy(aColumns, aPointers[row], columnIndices, rowPointers[row], length);
+      System.arraycopy(aValues, aPointers[row], values, rowPointers[row], length);
+      if (length == 0 || columnIndices[rowPointers[row + 1] - 1] != row)
+        throw new IllegalArgumentException("diagonal element missing");
+    }
+
+    // L(i, k) = (A(i, k) - sum_{j < k} L(i, j) L(k, j)) / L(k, k), over the pattern only
+    double[] rowValues = new double[n]; // the current row of L, scattered; zero off its pattern
+    for (int row = 0; row < n; ++row) {
+      int start = rowPointers[row];
+      int diagonal = rowPointers[row + 1] - 1;
+      for (int k = start; k <= diagonal; ++k) rowValues[columnIndices[k]] = values[k];
+      for (int k = start; k < diagonal; ++k) {
+        int col = columnIndices[k];
+        double sum = rowValues[col];
+        int colDiagonal = rowPointers[col + 1] - 1;
+        for (int j = rowPointers[col]; j < colDiagonal; ++j)
+          sum -= rowValues[columnIndices[j]] * values[j];
+        rowValues[col] = sum / values[colDiagonal];
+      }
+      double sum = rowValues[row];
+      for (int k = start; k < diagonal; ++k) {
+        double value = rowValues[columnIndices[k]];
+        sum -= value * value;
+      }
+      if (!(sum > 0)) throw new RuntimeException("matrix is not positive definite");
+      rowValues[row] = Math.sqrt(sum);
+
+      for (int k = start; k <= diagonal; ++k) {
+        values[k] = rowValues[columnIndices[k]];
+        rowValues[columnIndices[k]] = 0;
+      }
+    }
+  }
+
+  @Override
+  public void apply(double[] r, double[] z) {
+    for (int row = 0; row < n; ++row) { // forward substitution with L
+      int diagonal = rowPointers[row + 1] - 1;
+      double sum = r[row];
+      for (int k = rowPointers[row]; k < diagonal; ++k) sum -= values[k] * z[columnIndices[k]];
+      z[row] = sum / values[diagonal];
+    }
+    for (int row = n - 1; row >= 0; --row) { // back substitution with L^T, one column at a time
+      int diagonal = rowPointers[row + 1] - 1;
+      z[row] /= values[diagonal];
+      double value = z[row];
+      for (int k = rowPointers[row]; k < diagonal; ++k) z[columnIndices[k]] -= values[k] * value;
+    }
+  }
+}
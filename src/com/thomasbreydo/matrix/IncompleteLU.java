@@ -0,0 +1,77 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * The ILU(0) preconditioner: {@code M = LU}, where {@code L} (unit lower triangular) and {@code U}
+ * keep exactly the sparsity pattern of {@code A} and fill-in is dropped. Factoring costs about as
+ * much as a few products with {@code A}, and applying {@code M^-1} costs one product.
+ *
+ * <p>Suited to non-symmetric systems solved with {@link BiCGStab}. For symmetric
+ * positive-definite systems, {@link IncompleteCholesky} needs half the memory.
+ */
+public class IncompleteLU implements Preconditioner {
+  private final int n;
+  private final int[] rowPointers;
+  private final int[] columnIndices;
+  private final double[] lu; // L below the diagonal (unit diagonal implied), U on and above it
+  private final int[] diagonal; // index of (i, i) in lu
+
+  /**
+   * Factor {@code matrix}. {@code matrix} itself is not modified.
+   *
+   * @param matrix square {@code SparseMatrix} with every diagonal element stored and non-zero
+   */
+  public IncompleteLU(@NotNull SparseMatrix matrix) {
+    if (matrix.getRowCount() != matrix.getColumnCount())
+      throw new IllegalArgumentException("matrix must be square");
+    n = matrix.getRowCount();
+    rowPointers = matrix.getRowPointers();
+    columnIndices = matrix.getColumnIndices();
+    lu = matrix.getValues().clone();
+    diagonal = new int[n];
+    for (int row = 0; row < n; ++row) {
+      diagonal[row] =
+          Arrays.binarySearch(columnIndices, rowPointers[row], rowPointers[row + 1], row);
+      if (diagonal[row] < 0) throw new IllegalArgumentException("diagonal element missing");
+    }
+
+    int[] position = new int[n]; // position[col] = index of (row, col) in lu, or -1
+    Arrays.fill(position, -1);
+    for (int row = 0; row < n; ++row) {
+      int start = rowPointers[row];
+      int end = rowPointers[row + 1];
+      for (int k = start; k < end; ++k) position[columnIndices[k]] = k;
+      // columns are sorted, so this visits the pivots (row, col < row) in elimination order
+      for (int k = start; k < diagonal[row]; ++k) {
+        int pivot = columnIndices[k];
+        double pivotValue = lu[diagonal[pivot]];
+        if (pivotValue == 0) throw new RuntimeException("zero pivot in incomplete factorization");
+        double factor = lu[k] / pivotValue;
+        lu[k] = factor;
+        for (int j = diagonal[pivot] + 1; j < rowPointers[pivot + 1]; ++j) {
+          int target = position[columnIndices[j]];
+          if (target >= 0) lu[target] -= factor * lu[j]; // fill-in outside the pattern is dropped
+        }
+      }
+      for (int k = start; k < end; ++k) position[columnIndices[k]] = -1;
+    }
+  }
+
+  @Override
+  public void apply(double[] r, double[] z) {
+    for (int row = 0; row < n; ++row) { // forward substitution with unit-diagonal L
+      double sum = r[row];
+      for (int k = rowPointers[row]; k < diagonal[row]; ++k) sum -= lu[k] * z[columnIndices[k]];
+      z[row] = sum;
+    }
+    for (int row = n - 1; row >= 0; --row) { // back substitution with U
+      double sum = z[row];
+      for (int k = diagonal[row] + 1; k < rowPointers[row + 1]; ++k)
+        sum -= lu[k] * z[columnIndices[k]];
+      z[row] = sum / lu[diagonal[row]];
+    }
+  }
+}
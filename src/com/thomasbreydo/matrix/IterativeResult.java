@@ -0,0 +1,47 @@
+package com.thomasbreydo.matrix;
+
+/** The outcome of one run of an {@link IterativeSolver}. */
+public class IterativeResult {
+  private final boolean converged;
+  private final int iterationCount;
+  private final double relativeResidual;
+
+  IterativeResult(boolean converged, int iterationCount, double relativeResidual) {
+    this.converged = converged;
+    this.iterationCount = iterationCount;
+    this.relativeResidual = relativeResidual;
+  }
+
+  /**
+   * Check whether the relative residual reached the solver's tolerance.
+   *
+   * @return {@code true} if the solver converged
+   */
+  public boolean isConverged() {
+    return converged;
+  }
+
+  /**
+   * Get the number of iterations run.
+   *
+   * @return the number of iterations run
+   */
+  public int getIterationCount() {
+    return iterationCount;
+  }
+
+  /**
+   * Get {@code ||b - Ax|| / ||b||} (Euclidean norms) for the final {@code x}.
+   *
+   * @return the final relative residual
+   */
+  public double getRelativeResidual() {
+    return relativeResidual;
+  }
+
+  @Override
+  public String toString() {
+    return "%s after %d iterations (relative residual %.3g)"
+        .formatted(converged ? "converged" : "did not converge", iterationCount, relativeResidual);
+  }
+}
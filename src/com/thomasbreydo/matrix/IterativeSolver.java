@@ -0,0 +1,94 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Base class for iterative (Krylov) solvers of {@code Ax = b}. {@code A} is given as a {@link
+ * LinearOperator}, so it never has to be stored densely, and each iteration costs one or two
+ * products with {@code A} plus {@code O(n)} vector work.
+ *
+ * <p>Iteration stops when {@code ||b - Ax|| <= tolerance * ||b||} or after the maximum number of
+ * iterations. {@link #solveInPlace} starts from the guess passed in, so a time-stepping loop can
+ * warm-start each solve from the previous step's solution.
+ */
+public abstract class IterativeSolver {
+  static final RowKernels KERNELS = RowKernels.INSTANCE;
+
+  final LinearOperator operator;
+  final Preconditioner preconditioner;
+  double tolerance = 1e-10;
+  int maxIterations = 1000;
+
+  IterativeSolver(@NotNull LinearOperator operator, @NotNull Preconditioner preconditioner) {
+    this.operator = operator;
+    this.preconditioner = preconditioner;
+  }
+
+  /**
+   * Set the relative residual at which iteration stops. The default is {@code 1e-10}.
+   *
+   * @param tolerance positive tolerance
+   * @return this solver
+   */
+  public IterativeSolver setTolerance(double tolerance) {
+    if (!(tolerance > 0)) throw new IllegalArgumentException("tolerance must be positive");
+    this.tolerance = tolerance;
+    return this;
+  }
+
+  /**
+   * Set the maximum number of iterations. The default is {@code 1000}.
+   *
+   * @param maxIterations positive iteration cap
+   * @return this solver
+   */
+  public IterativeSolver setMaxIterations(int maxIterations) {
+    if (maxIterations <= 0) throw new IllegalArgumentException("maxIterations must be positive");
+    this.maxIterations = maxIterations;
+    return this;
+  }
+
+  /**
+   * Solve {@code Ax = b} starting from {@code x = 0}.
+   *
+   * @param b right-hand side
+   * @return the solution {@code x} as a new array
+   * @throws RuntimeException if the solver does not converge
+   */
+  public double[] solve(double @NotNull [] b) {
+    double[] x = new double[b.length];
+    IterativeResult result = solveInPlace(b, x);
+    if (!result.isConverged()) throw new RuntimeException("solver " + result);
+    return x;
+  }
+
+  /**
+   * Solve {@code Ax = b}, starting from the guess in {@code x} and overwriting it with the
+   * solution.
+   *
+   * @param b right-hand side
+   * @param x initial guess, of the same length as {@code b}; receives the solution
+   * @return how the iteration went
+   */
+  public abstract IterativeResult solveInPlace(double @NotNull [] b, double @NotNull [] x);
+
+  /** Store {@code b - Ax} in {@code r}. */
+  void residual(double[] b, double[] x, double[] r) {
+    operator.apply(x, r);
+    for (int i = 0; i < r.length; ++i) r[i] = b[i] - r[i];
+  }
+
+  static double dot(double[] x, double[] y) {
+    double sum = 0;
+    for (int i = 0; i < x.length; ++i) sum += x[i] * y[i];
+    return sum;
+  }
+
+  static double norm(double[] x) {
+    return Math.sqrt(dot(x, x));
+  }
+
+  static void checkLengths(double[] b, double[] x) {
+    if (b.length != x.length) throw new IllegalArgumentException("b and x differ in length");
+  }
+}
@@ -0,0 +1,184 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Factor a square {@code Matrix} once as {@code PA = LU} (partial pivoting) and reuse the factors
+ * to solve systems, compute the determinant, or invert.
+ *
+ * <p>Factoring costs {@code O(n^3)}; every later {@code solve(double[])} costs {@code O(n^2)}.
+ */
+public class LUDecomposition {
+  private static final RowKernels KERNELS = RowKernels.INSTANCE;
+
+  private final int n;
+  private final double[] lu; // L below the diagonal (unit diagonal implied), U on and above it
+  private final int[] pivot; // row i of LU is row pivot[i] of the original matrix
+  private final int pivotSign;
+  private final boolean singular;
+
+  /**
+   * Factor {@code matrix}. {@code matrix} itself is not modified.
+   *
+   * @param matrix the square {@code Matrix} to factor
+   */
+  public LUDecomposition(@NotNull Matrix matrix) {
+    if (matrix.getRowCount() != matrix.getColumnCount())
+      throw new IllegalArgumentException("matrix must be square");
+    n = matrix.getRowCount();
+    lu = matrix.getData().clone();
+    pivot = new int[n];
+    for (int i = 0; i < n; ++i) pivot[i] = i;
+
+    // a pivot is zero if it is within rounding error of the largest element, so the test does not
+    // change when the matrix is scaled
+    double largest = 0;
+    for (double value : lu) largest = Math.max(largest, Math.abs(value));
+    double tolerance = n * Math.ulp(1.0) * largest;
+
+    int sign = 1;
+    boolean foundZeroPivot = false;
+    for (int k = 0; k < n; ++k) {
+      int maxRow = k;
+      for (int row = k + 1; row < n; ++row)
+        if (Math.abs(lu[row * n + k]) > Math.abs(lu[maxRow * n + k])) maxRow = row;
+      if (maxRow != k) {
+        swapRows(lu, n, k, maxRow);
+        int temp = pivot[k];
+        pivot[k] = pivot[maxRow];
+        pivot[maxRow] = temp;
+        sign = -sign;
+      }
+
+      double pivotValue = lu[k * n + k];
+      if (Math.abs(pivotValue) <= tolerance) {
+        foundZeroPivot = true;
+        continue; // nothing to eliminate with; the column is (numerically) zero below k
+      }
+      int pivotOffset = k * n;
+      for (int row = k + 1; row < n; ++row) {
+        int offset = row * n;
+        double factor = lu[offset + k] / pivotValue;
+        lu[offset + k] = factor;
+        if (factor == 0) continue;
+        KERNELS.axpy(-factor, lu, pivotOffset + k + 1, lu, offset + k + 1, n - k - 1);
+      }
+    }
+    pivotSign = sign;
+    singular = foundZeroPivot;
+  }
+
+  private static void swapRows(double[] data, int stride, int row1, int row2) {
+    int offset1 = row1 * stride;
+    int offset2 = row2 * stride;
+    for (int col = 0; col < stride; ++col) {
+      double temp = data[offset1 + col];
+      data[offset1 + col] = data[offset2 + col];
+      data[offset2 + col] = temp;
+    }
+  }
+
+  /**
+   * Check whether the factored {@code Matrix} is singular: whether it has a pivot no larger than
+   * {@code n * ulp(1) * max|a_ij|}, i.e. within rounding error of zero.
+   *
+   * @return {@code true} if the factored {@code Matrix} is singular
+   */
+  public boolean isSingular() {
+    return singular;
+  }
+
+  /**
+   * Get the determinant of the factored {@code Matrix}.
+   *
+   * @return the determinant of the factored {@code Matrix}
+   */
+  public double determinant() {
+    double det = pivotSign;
+    for (int i = 0; i < n; ++i) det *= lu[i * n + i];
+    return det;
+  }
+
+  /**
+   * Solve {@code Ax = b}.
+   *
+   * @param b right-hand side, of length {@code n}
+   * @return the solution {@code x} as a new array
+   */
+  public double[] solve(double @NotNull [] b) {
+    if (b.length != n) throw new IllegalArgumentException("b.length must equal the row count");
+    checkNonSingular();
+    double[] x = new double[n];
+    for (int i = 0; i < n; ++i) x[i] = b[pivot[i]];
+    solveInPlace(x);
+    return x;
+  }
+
+  /**
+   * Solve {@code Ax = b} where {@code x} holds {@code b} permuted by the pivot order, overwriting
+   * it with the solution.
+   */
+  private void solveInPlace(double[] x) {
+    for (int row = 1; row < n; ++row) { // forward substitution with unit-diagonal L
+      int offset = row * n;
+      double sum = x[row];
+      for (int col = 0; col < row; ++col) sum -= lu[offset + col] * x[col];
+      x[row] = sum;
+    }
+    for (int row = n - 1; row >= 0; --row) { // back substitution with U
+      int offset = row * n;
+      double sum = x[row];
+      for (int col = row + 1; col < n; ++col) sum -= lu[offset + col] * x[col];
+      x[row] = sum / lu[offset + row];
+    }
+  }
+
+  /**
+   * Solve {@code AX = B} for every column of {@code B} at once.
+   *
+   * @param b right-hand sides, with {@code n} rows
+   * @return the solution {@code X} as a new {@code Matrix}
+   */
+  public Matrix solve(@NotNull Matrix b) {
+    if (b.getRowCount() != n) throw new IllegalArgumentException("row count differs");
+    checkNonSingular();
+    int m = b.getColumnCount();
+    double[] source = b.getData();
+    double[] x = new double[n * m];
+    for (int row = 0; row < n; ++row) System.arraycopy(source, pivot[row] * m, x, row * m, m);
+
+    // work on whole rows of X so the inner loops run over contiguous memory
+    for (int k = 0; k < n; ++k) {
+      int kOffset = k * m;
+      for (int row = k + 1; row < n; ++row) {
+        double factor = lu[row * n + k];
+        if (factor == 0) continue;
+        KERNELS.axpy(-factor, x, kOffset, x, row * m, m);
+      }
+    }
+    for (int k = n - 1; k >= 0; --k) {
+      int kOffset = k * m;
+      double diagonal = lu[k * n + k];
+      KERNELS.divide(x, kOffset, m, diagonal);
+      for (int row = 0; row < k; ++row) {
+        double factor = lu[row * n + k];
+        if (factor == 0) continue;
+        KERNELS.axpy(-factor, x, kOffset, x, row * m, m);
+      }
+    }
+    return new Matrix(x, n, m);
+  }
+
+  /**
+   * Get the inverse of the factored {@code Matrix}.
+   *
+   * @return the inverse as a new {@code Matrix}
+   */
+  public Matrix inverse() {
+    return solve(Matrix.identity(n));
+  }
+
+  private void checkNonSingular() {
+    if (singular) throw new RuntimeException("matrix is not invertible");
+  }
+}
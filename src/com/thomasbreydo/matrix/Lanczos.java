@@ -0,0 +1,244 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Random;
+
+/**
+ * The Lanczos method for a few of the largest or smallest eigenpairs of a symmetric {@code A},
+ * known only through a {@link LinearOperator}, so {@code A} can be a {@code SparseMatrix}, a
+ * {@code BandedMatrix} or matrix-free.
+ *
+ * <p>Each iteration costs one product with {@code A} and extends an orthonormal Krylov basis by one
+ * vector. The basis is fully reorthogonalized, which keeps spurious copies of converged eigenvalues
+ * from appearing at the cost of {@code O(n m)} work and memory after {@code m} iterations. The
+ * small tridiagonal projection is diagonalized with {@link SymmetricEigenDecomposition} to get Ritz
+ * pairs, and the iteration stops once the wanted ones have residual {@code ||Ay - θy||} below the
+ * tolerance (relative to the largest Ritz value). Extreme eigenvalues converge first, usually in
+ * far fewer than {@code n} iterations.
+ */
+public class Lanczos {
+  /** Iterations between convergence checks; each check diagonalizes the projection. */
+  private static final int CHECK_INTERVAL = 5;
+  /** Fixed seed for the starting vector, so results are reproducible. */
+  private static final long SEED = 0x5eed;
+  private static final RowKernels KERNELS = RowKernels.INSTANCE;
+
+  private final LinearOperator operator;
+  private final int n;
+  private double tolerance = 1e-10;
+  private int maxIterations = 1000;
+  private int lastIterationCount;
+
+  /**
+   * Initialize this {@code Lanczos} solver.
+   *
+   * @param operator symmetric {@code A}
+   * @param n number of rows (and columns) of {@code A}
+   */
+  public Lanczos(@NotNull LinearOperator operator, int n) {
+    if (n <= 0) throw new IllegalArgumentException("n must be positive");
+    this.operator = operator;
+    this.n = n;
+  }
+
+  /**
+   * Initialize this {@code Lanczos} solver for a symmetric {@code Matrix}.
+   *
+   * @param matrix square symmetric {@code Matrix}
+   */
+  public Lanczos(@NotNull Matrix matrix) {
+    this(LinearOperator.of(matrix), matrix.getRowCount());
+  }
+
+  /**
+   * Initialize this {@code Lanczos} solver for a symmetric {@code SparseMatrix}.
+   *
+   * @param matrix square symmetric {@code SparseMatrix}
+   */
+  public Lanczos(@NotNull SparseMatrix matrix) {
+    this(LinearOperator.of(matrix), matrix.getRowCount());
+  }
+
+  /**
+   * Initialize this {@code Lanczos} solver for a symmetric {@code BandedMatrix}.
+   *
+   * @param matrix symmetric {@code BandedMatrix}
+   */
+  public Lanczos(@NotNull BandedMatrix matrix) {
+    this(LinearOperator.of(matrix), matrix.getRowCount());
+  }
+
+  /**
+   * Set the relative residual at which a Ritz pair counts as converged.
+   *
+   * @param tolerance positive tolerance (default {@code 1e-10})
+   * @return this {@code Lanczos}
+   */
+  public Lanczos setTolerance(double tolerance) {
+    if (!(tolerance > 0)) throw new IllegalArgumentException("tolerance must be positive");
+    this.tolerance = tolerance;
+    return this;
+  }
+
+  /**
+   * Set the largest Krylov basis to build, which bounds both work and memory.
+   *
+   * @param maxIterations positive limit (default {@code 1000}); never more than {@code n} are run
+   * @return this {@code Lanczos}
+   */
+  public Lanczos setMaxIterations(int maxIterations) {
+    if (maxIterations <= 0) throw new IllegalArgumentException("maxIterations must be positive");
+    this.maxIterations = maxIterations;
+    return this;
+  }
+
+  /**
+   * Get the number of iterations run by the last call to {@link #largest} or {@link #smallest}.
+   *
+   * @return the number of iterations
+   */
+  public int getLastIterationCount() {
+    return lastIterationCount;
+  }
+
+  /**
+   * Find the {@code k} largest eigenpairs.
+   *
+   * @param k number of eigenpairs, at most {@code n}
+   * @return the eigenpairs, with eigenvalues in ascending order
+   * @throws RuntimeException if they do not converge within the iteration limit
+   */
+  public SymmetricEigenDecomposition largest(int k) {
+    return run(k, true);
+  }
+
+  /**
+   * Find the {@code k} smallest eigenpairs.
+   *
+   * @param k number of eigenpairs, at most {@code n}
+   * @return the eigenpairs, with eigenvalues in ascending order
+   * @throws RuntimeException if they do not converge within the iteration limit
+   */
+  public SymmetricEigenDecomposition smallest(int k) {
+    return run(k, false);
+  }
+
+  private SymmetricEigenDecomposition run(int k, boolean largest) {
+    if (k <= 0 || k > n) throw new IllegalArgumentException("k must be in [1, n]");
+    int limit = Math.min(n, maxIterations);
+    if (k > limit) throw new IllegalArgumentException("k must not exceed maxIterations");
+    double[][] basis = new double[limit][];
+    double[] alpha = new double[limit]; // diagonal of the projection
+    double[] beta = new double[limit]; // beta[j] couples basis vectors j - 1 and j
+    Random random = new Random(SEED);
+
+    double[] v = randomUnitVector(random, basis, 0);
+    double[] w = new double[n];
+    for (int m = 1; m <= limit; ++m) {
+      int j = m - 1;
+      basis[j] = v;
+      operator.apply(v, w);
+      alpha[j] = dot(v, w);
+      double normAv = Math.sqrt(dot(w, w));
+      orthogonalize(w, basis, m);
+      orthogonalize(w, basis, m); // twice is enough
+      double norm = Math.sqrt(dot(w, w));
+
+      // a tiny remainder means the basis spans an invariant subspace, which may still miss some
+      // of the wanted eigenvalues, so only stop there if there is no room left
+      boolean invariant = norm <= Math.ulp(1.0) * Math.sqrt(n) * normAv;
+      boolean check = m == limit || (!invariant && m % CHECK_INTERVAL == 0);
+      if (m >= k && check) {
+        SymmetricEigenDecomposition ritz = ritzPairs(alpha, beta, m, false);
+        if (converged(ritz, invariant ? 0 : norm, k, largest)) {
+          lastIterationCount = m;
+          return ritzVectors(ritzPairs(alpha, beta, m, true), basis, m, k, largest);
+        }
+        if (m == limit)
+          throw new RuntimeException("Lanczos did not converge in %d iterations".formatted(m));
+      }
+      if (invariant) {
+        // continue from a fresh direction orthogonal to the subspace
+        v = randomUnitVector(random, basis, m);
+        beta[m] = 0;
+      } else {
+        v = new double[n];
+        for (int i = 0; i < n; ++i) v[i] = w[i] / norm;
+        beta[m] = norm;
+      }
+    }
+    throw new AssertionError("unreachable: the last iteration returns or throws");
+  }
+
+  /** Subtract from {@code w} its projection onto the first {@code count} basis vectors. */
+  private void orthogonalize(double[] w, double[][] basis, int count) {
+    for (int i = 0; i < count; ++i) KERNELS.axpy(-dot(basis[i], w), basis[i], 0, w, 0, n);
+  }
+
+  private double[] randomUnitVector(Random random, double[][] basis, int count) {
+    double[] v = new double[n];
+    double norm = 0;
+    while (norm == 0) {
+      for (int i = 0; i < n; ++i) v[i] = random.nextGaussian();
+      orthogonalize(v, basis, count);
+      orthogonalize(v, basis, count);
+      norm = Math.sqrt(dot(v, v));
+    }
+    for (int i = 0; i < n; ++i) v[i] /= norm;
+    return v;
+  }
+
+  /**
+   * Diagonalize the {@code m x m} tridiagonal projection. If {@code vectors} is {@code false}, only
+   * the last component of each eigenvector is kept (as a vector of length one), which is all the
+   * convergence check needs and costs {@code O(m^2)} instead of {@code O(m^3)}.
+   */
+  private static SymmetricEigenDecomposition ritzPairs(
+      double[] alpha, double[] beta, int m, boolean vectors) {
+    double[] d = new double[m];
+    double[] e = new double[m];
+    System.arraycopy(alpha, 0, d, 0, m);
+    System.arraycopy(beta, 1, e, 1, m - 1);
+    int length = vectors ? m : 1;
+    double[] z = new double[m * length];
+    if (vectors) for (int i = 0; i < m; ++i) z[i * m + i] = 1;
+    else z[m - 1] = 1; // the rotations act on each column alone, so track only the last one
+    SymmetricEigenDecomposition.diagonalize(length, d, e, z);
+    return new SymmetricEigenDecomposition(length, d, z);
+  }
+
+  /**
+   * Check the wanted Ritz pairs: the residual of pair {@code i} is {@code |beta * s_i|}, where
+   * {@code s_i} is the last component of its eigenvector of the projection.
+   */
+  private boolean converged(SymmetricEigenDecomposition ritz, double beta, int k, boolean largest) {
+    int m = ritz.getEigenvalueCount();
+    double scale =
+        Math.max(Math.abs(ritz.getEigenvalue(0)), Math.abs(ritz.getEigenvalue(m - 1)));
+    for (int i = 0; i < k; ++i) {
+      int index = largest ? m - 1 - i : i;
+      double[] last = ritz.getEigenvector(index);
+      if (Math.abs(beta * last[last.length - 1]) > tolerance * scale) return false;
+    }
+    return true;
+  }
+
+  /** Map the wanted eigenvectors of the projection back through the basis. */
+  private SymmetricEigenDecomposition ritzVectors(
+      SymmetricEigenDecomposition ritz, double[][] basis, int m, int k, boolean largest) {
+    int first = largest ? m - k : 0;
+    double[] eigenvalues = new double[k];
+    double[] eigenvectors = new double[k * n];
+    for (int i = 0; i < k; ++i) {
+      eigenvalues[i] = ritz.getEigenvalue(first + i);
+      double[] s = ritz.getEigenvector(first + i);
+      for (int j = 0; j < m; ++j) KERNELS.axpy(s[j], basis[j], 0, eigenvectors, i * n, n);
+    }
+    return new SymmetricEigenDecomposition(n, eigenvalues, eigenvectors);
+  }
+
+  private static double dot(double[] x, double[] y) {
+    return IterativeSolver.dot(x, y);
+  }
+}
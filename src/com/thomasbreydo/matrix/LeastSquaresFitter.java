@@ -0,0 +1,194 @@
+package com.thomasbreydo.matrix;
+
+import org.dalton.polyfun.Polynomial;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Fit a polynomial of fixed degree to a stream of samples by least squares.
+ *
+ * <p>The fit is kept as a QR factorization of the (never built) tall Vandermonde matrix: only the
+ * upper-triangular {@code R} and {@code Q^T y} are stored, so memory is {@code O(d^2)} for degree
+ * {@code d} no matter how many samples are added. Each sample is folded in with {@code d + 1}
+ * Givens rotations in {@code O(d^2)}, and the coefficients can be read at any moment by back
+ * substitution. Unlike solving the normal equations, this does not square the condition number of
+ * the problem.
+ *
+ * <p>Raw powers of {@code x} are badly conditioned when the samples lie far from zero or span a
+ * wide range. If the range is known, pass it to {@link #LeastSquaresFitter(int, double, double)}:
+ * the fit is then done in a variable scaled to {@code [-1, 1]}, and only converted back to powers
+ * of {@code x} when the coefficients are read.
+ */
+public class LeastSquaresFitter {
+  private final int size; // number of coefficients, degree + 1
+  private final double center;
+  private final double halfWidth;
+  private final double[] r; // size x size, upper triangular, row-major
+  private final double[] qty; // Q^T y
+  private final double[] row; // scratch for the sample being rotated in
+  private double residualSumOfSquares;
+  private long sampleCount;
+
+  /**
+   * Initialize an empty fit of the given degree in powers of {@code x}.
+   *
+   * @param degree degree of the polynomial to fit
+   */
+  public LeastSquaresFitter(int degree) {
+    this(degree, 0, 1, false);
+  }
+
+  /**
+   * Initialize an empty fit of the given degree, for samples with x-coordinates in {@code [xMin,
+   * xMax]}. Samples outside the range are still accepted, but the fit is best conditioned inside
+   * it.
+   *
+   * @param degree degree of the polynomial to fit
+   * @param xMin smallest expected x-coordinate
+   * @param xMax largest expected x-coordinate
+   */
+  public LeastSquaresFitter(int degree, double xMin, double xMax) {
+    this(degree, (xMin + xMax) / 2, (xMax - xMin) / 2, true);
+  }
+
+  private LeastSquaresFitter(int degree, double center, double halfWidth, boolean checkRange) {
+    if (degree < 0) throw new IllegalArgumentException("degree must be non-negative");
+    if (checkRange && !(halfWidth > 0 && Double.isFinite(halfWidth)))
+      throw new IllegalArgumentException("xMin must be less than xMax");
+    size = degree + 1;
+    this.center = center;
+    this.halfWidth = halfWidth;
+    r = new double[size * size];
+    qty = new double[size];
+    row = new double[size];
+  }
+
+  /**
+   * Add the sample {@code (x, y)}. Costs {@code O(d^2)}.
+   *
+   * @param x the x-coordinate
+   * @param y the y-coordinate
+   */
+  public void add(double x, double y) {
+    double t = (x - center) / halfWidth;
+    double power = 1;
+    for (int j = 0; j < size; ++j) {
+      row[j] = power;
+      power *= t;
+    }
+    rotateIn(y);
+    ++sampleCount;
+  }
+
+  /**
+   * Add the samples {@code (xs[i], ys[i])}.
+   *
+   * @param xs x-coordinates
+   * @param ys y-coordinates, of the same length as {@code xs}
+   */
+  public void add(double @NotNull [] xs, double @NotNull [] ys) {
+    if (xs.length != ys.length) throw new IllegalArgumentException("xs and ys differ in length");
+    for (int i = 0; i < xs.length; ++i) add(xs[i], ys[i]);
+  }
+
+  /**
+   * Add every sample that was added to {@code other}, as if they had been added to this fit. Costs
+   * {@code O(d^3)}, independent of the number of samples, so separate fitters can consume parts of
+   * a data set in parallel and be merged at the end.
+   *
+   * @param other a fit of the same degree and range; it is not modified
+   */
+  public void merge(@NotNull LeastSquaresFitter other) {
+    if (other.size != size || other.center != center || other.halfWidth != halfWidth)
+      throw new IllegalArgumentException("fits differ in degree or range");
+    // the rows of other's R, with other's Q^T y, are equivalent to all of its samples
+    for (int i = 0; i < size; ++i) {
+      for (int j = 0; j < size; ++j) row[j] = other.r[i * size + j];
+      rotateIn(other.qty[i]);
+    }
+    residualSumOfSquares += other.residualSumOfSquares;
+    sampleCount += other.sampleCount;
+  }
+
+  /** Zero {@code row} against {@code R} with Givens rotations, carrying {@code y} along. */
+  private void rotateIn(double y) {
+    for (int k = 0; k < size; ++k) {
+      double b = row[k];
+      if (b == 0) continue;
+      int offset = k * size;
+      double a = r[offset + k];
+      double norm = Math.sqrt(a * a + b * b);
+      double c = a / norm;
+      double s = b / norm;
+      r[offset + k] = norm;
+      for (int j = k + 1; j < size; ++j) {
+        double rj = r[offset + j];
+        double xj = row[j];
+        r[offset + j] = c * rj + s * xj;
+        row[j] = c * xj - s * rj;
+      }
+      double q = qty[k];
+      qty[k] = c * q + s * y;
+      y = c * y - s * q;
+    }
+    residualSumOfSquares += y * y; // what is left of y is orthogonal to the column space
+  }
+
+  /**
+   * Get the number of samples added so far.
+   *
+   * @return the number of samples
+   */
+  public long getSampleCount() {
+    return sampleCount;
+  }
+
+  /**
+   * Get the sum of squared residuals of the current fit, without computing it from the samples.
+   *
+   * @return {@code sum (p(x_i) - y_i)^2} over all samples added so far
+   */
+  public double getResidualSumOfSquares() {
+    return residualSumOfSquares;
+  }
+
+  /**
+   * Get the coefficients of the current fit by back substitution in {@code O(d^2)}.
+   *
+   * @return {@code c} such that the fit is {@code c[0] + c[1] x + ... + c[d] x^d}
+   * @throws IllegalStateException if there are fewer distinct x-coordinates than coefficients
+   */
+  public double[] getCoefficients() {
+    double largest = 0;
+    for (int k = 0; k < size; ++k) largest = Math.max(largest, Math.abs(r[k * size + k]));
+    double[] coefficients = new double[size];
+    for (int k = size - 1; k >= 0; --k) {
+      int offset = k * size;
+      double diagonal = r[offset + k];
+      if (Math.abs(diagonal) <= largest * size * Math.ulp(1.0))
+        throw new IllegalStateException("too few distinct x-coordinates to fit");
+      double sum = qty[k];
+      for (int j = k + 1; j < size; ++j) sum -= r[offset + j] * coefficients[j];
+      coefficients[k] = sum / diagonal;
+    }
+    if (center == 0 && halfWidth == 1) return coefficients;
+
+    // Horner's rule in t = (x - center) / halfWidth, expanding into powers of x
+    double[] expanded = new double[size];
+    expanded[0] = coefficients[size - 1];
+    for (int k = size - 2; k >= 0; --k) {
+      for (int i = size - 1 - k; i > 0; --i)
+        expanded[i] = (expanded[i - 1] - center * expanded[i]) / halfWidth;
+      expanded[0] = coefficients[k] - center * expanded[0] / halfWidth;
+    }
+    return expanded;
+  }
+
+  /**
+   * Get the current fit as a {@code Polynomial}.
+   *
+   * @return a new {@code Polynomial} equal to the current fit
+   */
+  public Polynomial toPolynomial() {
+    return new Polynomial(getCoefficients());
+  }
+}
@@ -0,0 +1,53 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A square linear map {@code y = Ax}, known only through its action on vectors. Iterative solvers
+ * such as {@link ConjugateGradient} need nothing more, so {@code A} can be a dense {@code Matrix},
+ * a {@code SparseMatrix}, a {@code BandedMatrix}, or a matrix-free lambda.
+ */
+@FunctionalInterface
+public interface LinearOperator {
+  /**
+   * Store {@code Ax} in {@code y}.
+   *
+   * @param x the vector to apply this operator to; must not be modified
+   * @param y array of the same length as {@code x} to store the result in; never {@code x}
+   */
+  void apply(double[] x, double[] y);
+
+  /**
+   * Wrap a square dense {@code Matrix}.
+   *
+   * @param matrix the {@code Matrix} to wrap
+   * @return a {@code LinearOperator} that multiplies by {@code matrix}
+   */
+  static @NotNull LinearOperator of(@NotNull Matrix matrix) {
+    if (matrix.getRowCount() != matrix.getColumnCount())
+      throw new IllegalArgumentException("matrix must be square");
+    return matrix::times;
+  }
+
+  /**
+   * Wrap a square {@code SparseMatrix}.
+   *
+   * @param matrix the {@code SparseMatrix} to wrap
+   * @return a {@code LinearOperator} that multiplies by {@code matrix}
+   */
+  static @NotNull LinearOperator of(@NotNull SparseMatrix matrix) {
+    if (matrix.getRowCount() != matrix.getColumnCount())
+      throw new IllegalArgumentException("matrix must be square");
+    return matrix::times;
+  }
+
+  /**
+   * Wrap a {@code BandedMatrix}.
+   *
+   * @param matrix the {@code BandedMatrix} to wrap
+   * @return a {@code LinearOperator} that multiplies by {@code matrix}
+   */
+  static @NotNull LinearOperator of(@NotNull BandedMatrix matrix) {
+    return matrix::times;
+  }
+}
@@ -0,0 +1,411 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Store a matrix in a memory-mapped file, so that it can be larger than the heap.
+ *
+ * <p>The file holds a {@value #HEADER_BYTES}-byte header followed by the elements in row-major
+ * order as little-endian doubles. It is mapped as tiles of whole rows (at most {@code 1 GiB}
+ * each); the operating system pages tiles in and out as operations stream over them. Opening a
+ * file reads only its header, so reloading a matrix between runs is immediate.
+ *
+ * <p>Changes are written to the file by the operating system; call {@link #flush()} to force them
+ * to the storage device. Operations are not thread-safe.
+ */
+public class MappedMatrix implements Closeable {
+  /** Bytes in the header: magic, version, row count, column count, reserved. */
+  static final int HEADER_BYTES = 32;
+  /** First four bytes of every matrix file ({@code "MTRX"} in ASCII). */
+  static final int MAGIC = 0x5852544d;
+  /** Current version of the file format. */
+  static final int VERSION = 1;
+  private static final long TILE_BYTES = 1L << 30;
+  /** Rows buffered in memory at once when multiplying. */
+  private static final int BUFFER_BYTES = 1 << 23;
+  private static final RowKernels KERNELS = RowKernels.INSTANCE;
+
+  private final FileChannel channel;
+  private final int rowCount;
+  private final int colCount;
+  private final int rowsPerTile;
+  private final MappedByteBuffer[] mappings;
+  private final DoubleBuffer[] tiles;
+
+  private MappedMatrix(FileChannel channel, int rowCount, int colCount) throws IOException {
+    this.channel = channel;
+    this.rowCount = rowCount;
+    this.colCount = colCount;
+    long rowBytes = (long) colCount * Double.BYTES;
+    if (rowBytes > TILE_BYTES) throw new IllegalArgumentException("rows are too long to map");
+    rowsPerTile = (int) Math.min(rowCount, TILE_BYTES / rowBytes);
+    int tileCount = (rowCount + rowsPerTile - 1) / rowsPerTile;
+    mappings = new MappedByteBuffer[tileCount];
+    tiles = new DoubleBuffer[tileCount];
+    for (int tile = 0; tile < tileCount; ++tile) {
+      int rows = Math.min(rowsPerTile, rowCount - tile * rowsPerTile);
+      long position = HEADER_BYTES + (long) tile * rowsPerTile * rowBytes;
+      mappings[tile] = channel.map(FileChannel.MapMode.READ_WRITE, position, rows * rowBytes);
+      tiles[tile] = mappings[tile].order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+    }
+  }
+
+  /**
+   * Create a new file at {@code path} holding a {@code rowCount x colCount} matrix of zeros, and
+   * map it. An existing file at {@code path} is replaced.
+   *
+   * @param path the file to create
+   * @param rowCount number of rows
+   * @param colCount number of columns
+   * @return the new {@code MappedMatrix}
+   * @throws IOException if the file cannot be created or mapped
+   */
+  public static @NotNull MappedMatrix create(@NotNull Path path, int rowCount, int colCount)
+      throws IOException {
+    if (rowCount <= 0 || colCount <= 0)
+      throw new IllegalArgumentException("rowCount and colCount must be positive");
+    FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    try {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      writeHeader(header, rowCount, colCount);
+      header.flip();
+      while (header.hasRemaining()) channel.write(header, header.position());
+      return new MappedMatrix(channel, rowCount, colCount);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Create a new file at {@code path} holding a copy of {@code matrix}, and map it.
+   *
+   * @param path the file to create
+   * @param matrix the {@code Matrix} to copy
+   * @return the new {@code MappedMatrix}
+   * @throws IOException if the file cannot be created or mapped
+   */
+  public static @NotNull MappedMatrix fromMatrix(@NotNull Path path, @NotNull Matrix matrix)
+      throws IOException {
+    MappedMatrix output = create(path, matrix.getRowCount(), matrix.getColumnCount());
+    double[] row = new double[matrix.getColumnCount()];
+    for (int i = 0; i < matrix.getRowCount(); ++i) output.setRow(i, matrix.getRow(i, row));
+    return output;
+  }
+
+  /**
+   * Map an existing matrix file. Only the header is read.
+   *
+   * @param path the file to open
+   * @return the mapped {@code MappedMatrix}
+   * @throws IOException if the file cannot be read, is not a matrix file, or is truncated
+   */
+  public static @NotNull MappedMatrix open(@NotNull Path path) throws IOException {
+    FileChannel channel =
+        FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      while (header.hasRemaining())
+        if (channel.read(header, header.position()) < 0) throw new IOException("file too short");
+      header.flip();
+      long[] shape = readHeader(header);
+      long expected = HEADER_BYTES + shape[0] * shape[1] * Double.BYTES;
+      if (channel.size() < expected) throw new IOException("file is shorter than its header says");
+      return new MappedMatrix(channel, (int) shape[0], (int) shape[1]);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /** Write the file header for a {@code rowCount x colCount} matrix into {@code buffer}. */
+  static void writeHeader(ByteBuffer buffer, int rowCount, int colCount) {
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(MAGIC).putInt(VERSION).putLong(rowCount).putLong(colCount).putLong(0);
+  }
+
+  /**
+   * Read a file header from {@code buffer}.
+   *
+   * @return {@code {rowCount, colCount}}
+   * @throws IOException if the header is not a valid matrix file header
+   */
+  static long[] readHeader(ByteBuffer buffer) throws IOException {
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    if (buffer.getInt() != MAGIC) throw new IOException("not a matrix file");
+    int version = buffer.getInt();
+    if (version != VERSION) throw new IOException("unsupported matrix file version " + version);
+    long rowCount = buffer.getLong();
+    long colCount = buffer.getLong();
+    buffer.getLong(); // reserved
+    if (rowCount <= 0
+        || colCount <= 0
+        || rowCount > Integer.MAX_VALUE
+        || colCount > Integer.MAX_VALUE)
+      throw new IOException("invalid shape " + rowCount + "x" + colCount);
+    return new long[] {rowCount, colCount};
+  }
+
+  /**
+   * Get the number of rows in this {@code MappedMatrix}.
+   *
+   * @return the number of rows in this {@code MappedMatrix}
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Get the number of columns in this {@code MappedMatrix}.
+   *
+   * @return the number of columns in this {@code MappedMatrix}
+   */
+  public int getColumnCount() {
+    return colCount;
+  }
+
+  private DoubleBuffer tileOf(int row) {
+    return tiles[row / rowsPerTile];
+  }
+
+  private int offsetInTile(int row) {
+    return (row % rowsPerTile) * colCount;
+  }
+
+  /**
+   * Get the element at row {@code row} and column {@code column}.
+   *
+   * @param row row index of element
+   * @param column column index of element
+   * @return the element at row {@code row} and column {@code column}
+   */
+  public double getValueAt(int row, int column) {
+    Objects.checkIndex(row, rowCount);
+    Objects.checkIndex(column, colCount);
+    return tileOf(row).get(offsetInTile(row) + column);
+  }
+
+  /**
+   * Set the element at row {@code row} and column {@code column} to {@code value}.
+   *
+   * @param row row index of element
+   * @param column column index of element
+   * @param value the new value for the element
+   */
+  public void setEntry(int row, int column, double value) {
+    Objects.checkIndex(row, rowCount);
+    Objects.checkIndex(column, colCount);
+    tileOf(row).put(offsetInTile(row) + column, value);
+  }
+
+  /**
+   * Copy row {@code row} into {@code dest}.
+   *
+   * @param row index of the row to copy
+   * @param dest array of length {@code getColumnCount()} to copy the row into
+   * @return {@code dest}
+   */
+  public double[] getRow(int row, double @NotNull [] dest) {
+    Objects.checkIndex(row, rowCount);
+    if (dest.length != colCount)
+      throw new IllegalArgumentException("dest.length must equal the column count");
+    readRow(row, 0, dest, 0, colCount);
+    return dest;
+  }
+
+  /**
+   * Overwrite row {@code row} with {@code values}.
+   *
+   * @param row index of the row to overwrite
+   * @param values array of length {@code getColumnCount()}
+   */
+  public void setRow(int row, double @NotNull [] values) {
+    Objects.checkIndex(row, rowCount);
+    if (values.length != colCount)
+      throw new IllegalArgumentException("values.length must equal the column count");
+    writeRow(row, 0, values, 0, colCount);
+  }
+
+  private void readRow(int row, int firstCol, double[] dest, int destOffset, int length) {
+    tileOf(row).get(offsetInTile(row) + firstCol, dest, destOffset, length);
+  }
+
+  private void writeRow(int row, int firstCol, double[] source, int sourceOffset, int length) {
+    tileOf(row).put(offsetInTile(row) + firstCol, source, sourceOffset, length);
+  }
+
+  /**
+   * Copy this {@code MappedMatrix} into the heap.
+   *
+   * @return a new {@code Matrix} equal to this {@code MappedMatrix}
+   */
+  public Matrix toMatrix() {
+    double[] data = new double[Math.multiplyExact(rowCount, colCount)];
+    for (int row = 0; row < rowCount; ++row) readRow(row, 0, data, row * colCount, colCount);
+    return new Matrix(data, rowCount, colCount);
+  }
+
+  /**
+   * Add {@code other} to this {@code MappedMatrix} in place, one row at a time.
+   *
+   * @param other the {@code MappedMatrix} to add, with the same shape as this one
+   */
+  public void plusInPlace(@NotNull MappedMatrix other) {
+    if (rowCount != other.rowCount || colCount != other.colCount)
+      throw new IllegalArgumentException("matrix shapes differ");
+    double[] sum = new double[colCount];
+    double[] addend = new double[colCount];
+    for (int row = 0; row < rowCount; ++row) {
+      readRow(row, 0, sum, 0, colCount);
+      other.readRow(row, 0, addend, 0, colCount);
+      KERNELS.add(addend, 0, sum, 0, colCount);
+      writeRow(row, 0, sum, 0, colCount);
+    }
+  }
+
+  /**
+   * Multiply this {@code MappedMatrix} by the column vector {@code vector}, streaming over the
+   * rows once.
+   *
+   * @param vector the vector to multiply by, of length {@code getColumnCount()}
+   * @return the product as a new array
+   */
+  public double[] times(double @NotNull [] vector) {
+    if (vector.length != colCount)
+      throw new IllegalArgumentException("vector.length must equal the column count");
+    double[] output = new double[rowCount];
+    double[] row = new double[colCount];
+    for (int i = 0; i < rowCount; ++i) {
+      readRow(i, 0, row, 0, colCount);
+      double sum = 0;
+      for (int col = 0; col < colCount; ++col) sum += row[col] * vector[col];
+      output[i] = sum;
+    }
+    return output;
+  }
+
+  /**
+   * Store the product of this {@code MappedMatrix} and {@code other} in {@code dest}. {@code
+   * other} must fit in the heap; this {@code MappedMatrix} and {@code dest} are streamed in bands
+   * of rows, each multiplied with the same cache-blocked kernel as {@link Matrix#times(Matrix)}.
+   *
+   * @param other the {@code Matrix} to multiply by
+   * @param dest {@code MappedMatrix} of shape {@code getRowCount() x other.getColumnCount()}
+   * @return {@code dest}
+   */
+  public MappedMatrix timesInto(@NotNull Matrix other, @NotNull MappedMatrix dest) {
+    if (colCount != other.getRowCount())
+      throw new IllegalArgumentException("inner dimensions must match");
+    int outCols = other.getColumnCount();
+    if (dest.rowCount != rowCount || dest.colCount != outCols)
+      throw new IllegalArgumentException("dest has the wrong shape");
+    if (dest == this) throw new IllegalArgumentException("dest must not be this matrix");
+
+    int bandRows =
+        (int) Math.max(1, BUFFER_BYTES / ((long) Math.max(colCount, outCols) * Double.BYTES));
+    bandRows = Math.min(bandRows, rowCount);
+    double[] band = new double[bandRows * colCount];
+    double[] product = new double[bandRows * outCols];
+    for (int first = 0; first < rowCount; first += bandRows) {
+      int rows = Math.min(bandRows, rowCount - first);
+      for (int i = 0; i < rows; ++i) readRow(first + i, 0, band, i * colCount, colCount);
+      MatrixMultiplication.multiply(
+          band, colCount, other.getData(), outCols, product, outCols, rows, colCount, outCols);
+      for (int i = 0; i < rows; ++i) dest.writeRow(first + i, 0, product, i * outCols, outCols);
+    }
+    return dest;
+  }
+
+  /**
+   * Put this {@code MappedMatrix} in reduced row-echelon form in place.
+   *
+   * <p>This is the blocked Gauss-Jordan elimination of {@link Matrix.Elimination#BLOCKED}, run
+   * out of core: for each panel of columns, only the panel (one column strip) and its pivot rows
+   * are held in memory, and every other row is read, updated and written back once per panel.
+   */
+  public void rowReduceInPlace() {
+    int width = Math.min(GaussJordan.PANEL_WIDTH, colCount);
+    double[] panel = new double[Math.multiplyExact(rowCount, width)];
+    double[] row = new double[colCount];
+    double[] otherRow = new double[colCount];
+    int[] pivotCols = new int[width];
+    int[] swaps = new int[width];
+    int pivotRow = 0;
+    for (int panelStart = 0;
+        panelStart < colCount && pivotRow < rowCount;
+        panelStart += width) {
+      int panelWidth = Math.min(width, colCount - panelStart);
+      int height = rowCount - pivotRow;
+      for (int i = 0; i < height; ++i)
+        readRow(pivotRow + i, panelStart, panel, i * panelWidth, panelWidth);
+      int pivotCount =
+          GaussJordan.findPanelPivots(panel, height, panelWidth, panelStart, pivotCols, swaps);
+      if (pivotCount == 0) continue;
+      for (int k = 0; k < pivotCount; ++k) {
+        if (swaps[k] == k) continue;
+        readRow(pivotRow + k, 0, row, 0, colCount);
+        readRow(pivotRow + swaps[k], 0, otherRow, 0, colCount);
+        writeRow(pivotRow + k, 0, otherRow, 0, colCount);
+        writeRow(pivotRow + swaps[k], 0, row, 0, colCount);
+      }
+
+      int tail = colCount - panelStart;
+      double[] pivots = new double[pivotCount * tail];
+      for (int k = 0; k < pivotCount; ++k)
+        readRow(pivotRow + k, panelStart, pivots, k * tail, tail);
+      GaussJordan.reducePivotRows(pivots, pivotCount, tail, panelStart, pivotCols);
+
+      for (int i = 0; i < rowCount; ++i) {
+        if (i >= pivotRow && i < pivotRow + pivotCount) continue;
+        readRow(i, panelStart, row, 0, tail);
+        GaussJordan.eliminateWithPivots(pivots, pivotCount, tail, panelStart, pivotCols, row, 0);
+        writeRow(i, panelStart, row, 0, tail);
+      }
+      for (int k = 0; k < pivotCount; ++k)
+        writeRow(pivotRow + k, panelStart, pivots, k * tail, tail);
+      pivotRow += pivotCount;
+    }
+  }
+
+  /**
+   * Force every change to this {@code MappedMatrix} out to the storage device.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  public void flush() throws IOException {
+    for (MappedByteBuffer mapping : mappings) mapping.force();
+    channel.force(false);
+  }
+
+  /**
+   * Flush and close the file. The mapping itself is released when this {@code MappedMatrix} is
+   * garbage-collected, so it must not be used after closing.
+   *
+   * @throws IOException if the file cannot be written or closed
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      channel.close();
+    }
+  }
+}
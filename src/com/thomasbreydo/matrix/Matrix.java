@@ -3,20 +3,41 @@ package com.thomasbreydo.matrix;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
-
-/** Store a matrix and perform linear-algebraic operations. */
+import java.util.Formatter;
+import java.util.Objects;
+
+/**
+ * Store a matrix and perform linear-algebraic operations.
+ *
+ * <p>Elements are kept in one contiguous row-major {@code double[]}: the element at {@code (row,
+ * col)} lives at {@code data[row * stride + col]}.
+ */
 public class Matrix {
-  private double[][] matrix;
+  private static final RowKernels KERNELS = RowKernels.INSTANCE;
+  /** Matrices with at least this many elements are row-reduced with {@link Elimination#BLOCKED}. */
+  private static final int PARALLEL_ELEMENTS = 1 << 16;
+
+  private double[] data;
+  private int rowCount;
+  private int colCount;
+  private int stride; // distance between the starts of consecutive rows in data
 
   /**
-   * Initialize this {@code Matrix} with {@code matrix}.
+   * Initialize this {@code Matrix} with a copy of {@code matrix}.
    *
    * @param matrix initial values
    */
   public Matrix(double @NotNull [] @NotNull [] matrix) {
     if (matrix.length == 0 || matrix[0].length == 0)
       throw new IllegalArgumentException("rowCount and colCount must be positive");
-    this.matrix = matrix;
+    int colCount = matrix[0].length;
+    double[] data = new double[matrix.length * colCount];
+    for (int row = 0; row < matrix.length; ++row) {
+      if (matrix[row].length != colCount)
+        throw new IllegalArgumentException("all rows must have the same length");
+      System.arraycopy(matrix[row], 0, data, row * colCount, colCount);
+    }
+    setStorage(data, matrix.length, colCount);
   }
 
   /**
@@ -26,7 +47,21 @@ public class Matrix {
    * @param colCount number of columns
    */
   public Matrix(int rowCount, int colCount) {
-    this(new double[rowCount][colCount]);
+    if (rowCount <= 0 || colCount <= 0)
+      throw new IllegalArgumentException("rowCount and colCount must be positive");
+    setStorage(new double[Math.multiplyExact(rowCount, colCount)], rowCount, colCount);
+  }
+
+  /**
+   * Initialize this {@code Matrix} around {@code data}, which is used directly (not copied) as the
+   * row-major backing store.
+   */
+  Matrix(double @NotNull [] data, int rowCount, int colCount) {
+    if (rowCount <= 0 || colCount <= 0)
+      throw new IllegalArgumentException("rowCount and colCount must be positive");
+    if (data.length != rowCount * colCount)
+      throw new IllegalArgumentException("data.length must equal rowCount * colCount");
+    setStorage(data, rowCount, colCount);
   }
 
   /**
@@ -39,11 +74,31 @@ public class Matrix {
    */
   public Matrix(int rowCount, int colCount, double fillValue) {
     this(rowCount, colCount);
-    for (double[] row : matrix) Arrays.fill(row, fillValue);
+    Arrays.fill(data, fillValue);
+  }
+
+  private void setStorage(double @NotNull [] data, int rowCount, int colCount) {
+    this.data = data;
+    this.rowCount = rowCount;
+    this.colCount = colCount;
+    this.stride = colCount;
+  }
+
+  /** @return the index in {@code data} of the element at {@code (row, col)}. */
+  private int indexOf(int row, int col) {
+    Objects.checkIndex(row, rowCount);
+    Objects.checkIndex(col, colCount);
+    return row * stride + col;
+  }
+
+  /** @return the index in {@code data} of the first element of {@code row}. */
+  private int rowOffset(int row) {
+    Objects.checkIndex(row, rowCount);
+    return row * stride;
   }
 
   /** @return {@code true} if {@code a} is within {@code 1e-8} of {@code b}. */
-  private static boolean basicallyEqual(double a, double b) {
+  static boolean basicallyEqual(double a, double b) {
     return Math.abs(a - b) < 1e-8;
   }
 
@@ -70,7 +125,7 @@ public class Matrix {
    */
   public static @NotNull Matrix identity(int rowCount, int colCount) {
     Matrix output = new Matrix(rowCount, colCount);
-    for (int i = 0; i < Math.min(rowCount, colCount); ++i) output.matrix[i][i] = 1;
+    for (int i = 0; i < Math.min(rowCount, colCount); ++i) output.data[i * output.stride + i] = 1;
     return output;
   }
 
@@ -89,41 +144,71 @@ public class Matrix {
     if (getColumnCount() != other.getColumnCount()) return false;
     for (int row = 0; row < getRowCount(); ++row)
       for (int col = 0; col < getColumnCount(); ++col)
-        if (!basicallyEqual(matrix[row][col], other.matrix[row][col])) return false;
+        if (!basicallyEqual(getValueAt(row, col), other.getValueAt(row, col))) return false;
     return true;
   }
 
   /**
-   * Get the string representation of this {@code Matrix}.
+   * Get the string representation of this {@code Matrix}, for printing. To export a {@code
+   * Matrix}, use {@link MatrixIO} instead.
    *
    * @return the string representation of this {@code Matrix}
    */
   @Override
   public String toString() {
-    StringBuilder stringBuilder = new StringBuilder(10 * getRowCount() * getColumnCount());
-    for (int row = 0; row < getRowCount(); ++row) {
-      for (int col = 0; col < getColumnCount(); ++col) {
-        stringBuilder.append(getStringOfValueAt(row, col));
-        stringBuilder.append(' ');
+    StringBuilder stringBuilder = new StringBuilder(9 * rowCount * colCount + rowCount);
+    Formatter formatter = new Formatter(stringBuilder); // formats straight into stringBuilder
+    for (int row = 0; row < rowCount; ++row) {
+      int offset = row * stride;
+      for (int col = 0; col < colCount; ++col) {
+        double elem = data[offset + col];
+        formatter.format("%8.2g ", basicallyEqual(elem, 0) ? 0 : elem);
       }
       stringBuilder.append('\n');
     }
     return stringBuilder.toString();
   }
 
+  /**
+   * Start a lazy expression from this {@code Matrix}, to chain operations without allocating an
+   * intermediate {@code Matrix} for each.
+   *
+   * @return a {@code MatrixExpression} equal to this {@code Matrix}
+   */
+  public MatrixExpression lazy() {
+    return MatrixExpression.of(this);
+  }
+
+  /**
+   * Get a deep copy of this {@code Matrix}.
+   *
+   * @return a deep copy of this {@code Matrix}
+   */
   public Matrix copy() {
-    return new Matrix(getMatrix());
+    return new Matrix(data.clone(), rowCount, colCount);
   }
 
   /**
-   * Format {@code matrix[row][col]} as {@code %8.2g} for printing.
+   * Copy the elements of this {@code Matrix} into {@code dest} without allocating.
+   *
+   * @param dest {@code Matrix} with the same shape as this {@code Matrix}
+   */
+  public void copyInto(@NotNull Matrix dest) {
+    checkShape(dest, rowCount, colCount);
+    if (dest == this) return;
+    for (int row = 0; row < rowCount; ++row)
+      System.arraycopy(data, row * stride, dest.data, row * dest.stride, colCount);
+  }
+
+  /**
+   * Format the element at {@code (row, col)} as {@code %8.2g} for printing.
    *
    * @param row row index of element to format
    * @param col col index of element to format
-   * @return {@code matrix[row][col]} as {@code %8.2g}
+   * @return the element at {@code (row, col)} as {@code %8.2g}
    */
   public String getStringOfValueAt(int row, int col) {
-    double elem = matrix[row][col];
+    double elem = getValueAt(row, col);
     return "%8.2g".formatted(basicallyEqual(elem, 0) ? 0 : elem);
   }
 
@@ -137,6 +222,18 @@ public class Matrix {
       throw new IllegalArgumentException("column count differs");
   }
 
+  private static void checkShape(@NotNull Matrix dest, int rowCount, int colCount) {
+    if (dest.rowCount != rowCount || dest.colCount != colCount)
+      throw new IllegalArgumentException(
+          "dest must be %d x %d, not %d x %d"
+              .formatted(rowCount, colCount, dest.rowCount, dest.colCount));
+  }
+
+  private void checkInnerDimensionMatches(int otherRowCount) {
+    if (colCount != otherRowCount)
+      throw new IllegalArgumentException("column count differs from other's row count");
+  }
+
   /**
    * Get a copy of the underlying 2D array.
    *
@@ -148,6 +245,16 @@ public class Matrix {
     return output;
   }
 
+  /**
+   * Get the row-major backing store itself (not a copy). Row {@code i} starts at index {@code i *
+   * getColumnCount()}.
+   *
+   * @return the backing store
+   */
+  double @NotNull [] getData() {
+    return data;
+  }
+
   /**
    * Get a copy of the column at index {@code column}.
    *
@@ -155,10 +262,23 @@ public class Matrix {
    * @return a copy of the column at index {@code column}
    */
   public double[] getColumn(int column) {
-    double[] output = new double[getRowCount()];
-    for (int row = 0; row < getRowCount(); ++row) output[row] = matrix[row][column];
-    return output;
+    return getColumn(column, new double[rowCount]);
   }
+
+  /**
+   * Copy the column at index {@code column} into {@code dest}.
+   *
+   * @param column index of column to access
+   * @param dest array of length at least {@link #getRowCount()}
+   * @return {@code dest}
+   */
+  public double[] getColumn(int column, double @NotNull [] dest) {
+    Objects.checkIndex(column, colCount);
+    Objects.checkFromIndexSize(0, rowCount, dest.length);
+    for (int row = 0, i = column; row < rowCount; ++row, i += stride) dest[row] = data[i];
+    return dest;
+  }
+
   /**
    * Get a copy of the row at index {@code row}.
    *
@@ -166,7 +286,20 @@ public class Matrix {
    * @return a copy of the row at index {@code row}
    */
   public double[] getRow(int row) {
-    return matrix[row].clone();
+    int offset = rowOffset(row);
+    return Arrays.copyOfRange(data, offset, offset + colCount);
+  }
+
+  /**
+   * Copy the row at index {@code row} into {@code dest}.
+   *
+   * @param row index of row to access
+   * @param dest array of length at least {@link #getColumnCount()}
+   * @return {@code dest}
+   */
+  public double[] getRow(int row, double @NotNull [] dest) {
+    System.arraycopy(data, rowOffset(row), dest, 0, colCount);
+    return dest;
   }
 
   /**
@@ -175,7 +308,7 @@ public class Matrix {
    * @return the number of rows in this {@code Matrix}
    */
   public int getRowCount() {
-    return matrix.length;
+    return rowCount;
   }
 
   /**
@@ -184,7 +317,7 @@ public class Matrix {
    * @return the number of columns in this {@code Matrix}
    */
   public int getColumnCount() {
-    return matrix[0].length;
+    return colCount;
   }
 
   /**
@@ -195,7 +328,7 @@ public class Matrix {
    * @return the element at row {@code row} and column {@code column}
    */
   public double getValueAt(int row, int column) {
-    return matrix[row][column];
+    return data[indexOf(row, column)];
   }
 
   /**
@@ -206,7 +339,7 @@ public class Matrix {
    * @param value the new value for the element
    */
   public void setEntry(int row, int column, double value) {
-    matrix[row][column] = value;
+    data[indexOf(row, column)] = value;
   }
 
   /**
@@ -221,6 +354,95 @@ public class Matrix {
     return output;
   }
 
+  /**
+   * Add {@code other} to this {@code Matrix}, updating this {@code Matrix}.
+   *
+   * @param other the {@code Matrix} to add
+   */
+  public void plusInPlace(@NotNull Matrix other) {
+    plusInto(other, this);
+  }
+
+  /**
+   * Store the sum of this {@code Matrix} and {@code other} in {@code dest} without allocating.
+   * {@code dest} may be this {@code Matrix} or {@code other}.
+   *
+   * @param other the {@code Matrix} to add
+   * @param dest {@code Matrix} with the same shape as this {@code Matrix} to store the sum in
+   */
+  public void plusInto(@NotNull Matrix other, @NotNull Matrix dest) {
+    checkRowCountMatches(other);
+    checkColumnCountMatches(other);
+    checkShape(dest, rowCount, colCount);
+
+    for (int row = 0; row < rowCount; ++row) {
+      int offset = row * stride;
+      int otherOffset = row * other.stride;
+      int destOffset = row * dest.stride;
+      KERNELS.sum(data, offset, other.data, otherOffset, dest.data, destOffset, colCount);
+    }
+  }
+
+  /**
+   * Multiply this {@code Matrix} by {@code other} (on the right).
+   *
+   * @param other the {@code Matrix} to multiply by; its row count must equal this {@code Matrix}'s
+   *     column count
+   * @return the product as a new {@code Matrix}
+   */
+  public Matrix times(@NotNull Matrix other) {
+    Matrix output = new Matrix(rowCount, other.colCount);
+    timesInto(other, output);
+    return output;
+  }
+
+  /**
+   * Store the product of this {@code Matrix} and {@code other} in {@code dest} without allocating.
+   *
+   * @param other the {@code Matrix} to multiply by
+   * @param dest {@code getRowCount() x other.getColumnCount()} {@code Matrix} to store the product
+   *     in; must not be this {@code Matrix} or {@code other}
+   */
+  public void timesInto(@NotNull Matrix other, @NotNull Matrix dest) {
+    checkInnerDimensionMatches(other.rowCount);
+    checkShape(dest, rowCount, other.colCount);
+    if (dest == this || dest == other)
+      throw new IllegalArgumentException("dest must not be an operand");
+    MatrixMultiplication.multiply(
+        data, stride, other.data, other.stride, dest.data, dest.stride, rowCount, colCount,
+        other.colCount);
+  }
+
+  /**
+   * Multiply this {@code Matrix} by the column vector {@code vector}.
+   *
+   * @param vector the vector to multiply by; its length must equal this {@code Matrix}'s column
+   *     count
+   * @return the product as a new array of length {@link #getRowCount()}
+   */
+  public double[] times(double @NotNull [] vector) {
+    return times(vector, new double[rowCount]);
+  }
+
+  /**
+   * Store the product of this {@code Matrix} and the column vector {@code vector} in {@code dest}
+   * without allocating.
+   *
+   * @param vector the vector to multiply by; its length must equal this {@code Matrix}'s column
+   *     count
+   * @param dest array of length {@link #getRowCount()} to store the product in; must not be
+   *     {@code vector}
+   * @return {@code dest}
+   */
+  public double[] times(double @NotNull [] vector, double @NotNull [] dest) {
+    checkInnerDimensionMatches(vector.length);
+    if (dest.length != rowCount)
+      throw new IllegalArgumentException("dest.length must equal the row count");
+    if (dest == vector) throw new IllegalArgumentException("dest must not be vector");
+    MatrixMultiplication.multiply(data, stride, vector, dest, rowCount, colCount);
+    return dest;
+  }
+
   /**
    * Multiply {@code row} by {@code scalar}.
    *
@@ -230,7 +452,7 @@ public class Matrix {
    */
   public double[] scalarTimesRow(double scalar, int row) {
     double[] output = getRow(row);
-    for (int col = 0; col < getColumnCount(); ++col) output[col] *= scalar;
+    for (int col = 0; col < colCount; ++col) output[col] *= scalar;
     return output;
   }
 
@@ -257,11 +479,23 @@ public class Matrix {
    */
   public Matrix linearCombRows(double scalar, int sourceRow, int destRow) {
     Matrix output = copy();
-    for (int col = 0; col < getColumnCount(); ++col)
-      output.matrix[destRow][col] += scalar * matrix[sourceRow][col];
+    output.linearCombRowsInPlace(scalar, sourceRow, destRow);
     return output;
   }
 
+  /**
+   * Linear combine two rows of this {@code Matrix}, updating {@code destRow} in place.
+   *
+   * @param scalar scalar by which to multiply elements of {@code sourceRow} before adding
+   * @param sourceRow index of row from which to take elements
+   * @param destRow index of row to modify ({@code destRow := destRow + (scalar * sourceRow)})
+   */
+  public void linearCombRowsInPlace(double scalar, int sourceRow, int destRow) {
+    int source = rowOffset(sourceRow);
+    int dest = rowOffset(destRow);
+    KERNELS.axpy(scalar, data, source, data, dest, colCount);
+  }
+
   /**
    * Get a {@code Matrix} that equals the reduced row-echelon form of this {@code Matrix}.
    *
@@ -273,15 +507,39 @@ public class Matrix {
     return output;
   }
 
+  /**
+   * Get a {@code Matrix} that equals the reduced row-echelon form of this {@code Matrix}, computed
+   * with {@code elimination}.
+   *
+   * @param elimination the elimination strategy to use
+   * @return a {@code Matrix} that equals the reduced row-echelon form of this {@code Matrix}
+   */
+  public Matrix rowReduce(@NotNull Elimination elimination) {
+    Matrix output = copy();
+    output.rowReduceInPlace(elimination);
+    return output;
+  }
+
+  /** Strategies for the Gauss-Jordan elimination behind {@link #rowReduceInPlace(Elimination)}. */
+  public enum Elimination {
+    /** Eliminate one pivot at a time on the calling thread. */
+    SEQUENTIAL,
+    /** Eliminate one pivot at a time, splitting the other rows' updates across threads. */
+    PARALLEL,
+    /**
+     * Find pivots a panel of columns at a time, then update every other row once per panel, split
+     * across threads. Makes the best use of the cache on large matrices.
+     */
+    BLOCKED
+  }
+
   /**
    * Augment this {@code Matrix} with an identity matrix with the same row count.
    *
    * @return the result as a new {@code Matrix}
    */
   public Matrix augment() {
-    Matrix output = copy();
-    output.augmentInPlace();
-    return output;
+    return augment(identity(rowCount));
   }
 
   /**
@@ -291,44 +549,66 @@ public class Matrix {
    * @return the result as a new {@code Matrix}
    */
   public Matrix augment(@NotNull Matrix other) {
-    Matrix output = copy();
-    output.augmentInPlace(other);
+    Matrix output = new Matrix(rowCount, colCount + other.colCount);
+    augmentInto(other, output);
     return output;
   }
 
   /**
-   * Get the inverted version of this {@code Matrix}.
+   * Store this {@code Matrix} augmented by {@code other} in {@code dest} without allocating.
    *
-   * @return the inverted version of this {@code Matrix}
+   * @param other {@code Matrix} to put to the right of this {@code Matrix}
+   * @param dest {@code getRowCount() x (getColumnCount() + other.getColumnCount())} {@code Matrix}
+   *     to store the result in
    */
-  public Matrix invert() {
-    Matrix output = copy();
-    output.invertInPlace();
-    return output;
+  public void augmentInto(@NotNull Matrix other, @NotNull Matrix dest) {
+    checkRowCountMatches(other);
+    checkShape(dest, rowCount, colCount + other.colCount);
+    for (int row = 0; row < rowCount; ++row) {
+      System.arraycopy(data, row * stride, dest.data, row * dest.stride, colCount);
+      System.arraycopy(
+          other.data, row * other.stride, dest.data, row * dest.stride + colCount, other.colCount);
+    }
   }
 
-  private void invertInPlace() {
-    augmentInPlace();
-    rowReduceInPlace();
-    Matrix leftHalf = slice(0, getRowCount(), 0, getRowCount());
-    if (!leftHalf.equals(identity(getRowCount())))
-      throw new RuntimeException("matrix is not invertible");
-    sliceInPlace(0, getRowCount(), getColumnCount() / 2, getColumnCount());
+  /**
+   * Solve {@code Ax = b}, where {@code A} is this (square) {@code Matrix}.
+   *
+   * <p>To solve several systems with the same {@code Matrix}, factor it once with {@link
+   * LUDecomposition} instead.
+   *
+   * @param b right-hand side, of length {@link #getRowCount()}
+   * @return the solution {@code x} as a new array
+   */
+  public double[] solve(double @NotNull [] b) {
+    return new LUDecomposition(this).solve(b);
   }
 
-  private void augmentInPlace() {
-    augmentInPlace(identity(getRowCount()));
+  /**
+   * Solve {@code Ax = b}, where {@code A} is this (square) {@code Matrix}, by factoring in {@code
+   * float} and refining the solution to double precision. Falls back to {@link #solve(double[])}
+   * when {@code A} is too ill-conditioned for that to converge.
+   *
+   * <p>To solve several systems with the same {@code Matrix}, reuse a {@link MixedPrecisionSolver}
+   * instead.
+   *
+   * @param b right-hand side, of length {@link #getRowCount()}
+   * @return the solution {@code x} as a new array
+   */
+  public double[] solveMixedPrecision(double @NotNull [] b) {
+    return new MixedPrecisionSolver(this).solve(b);
   }
 
-  private void augmentInPlace(@NotNull Matrix other) {
-    checkRowCountMatches(other);
-    double[][] newMatrix = new double[getRowCount()][getColumnCount() + other.getColumnCount()];
-    for (int row = 0; row < getRowCount(); ++row) {
-      System.arraycopy(matrix[row], 0, newMatrix[row], 0, getColumnCount());
-      System.arraycopy(
-          other.matrix[row], 0, newMatrix[row], getColumnCount(), other.getColumnCount());
-    }
-    matrix = newMatrix;
+  /**
+   * Get the inverted version of this {@code Matrix}.
+   *
+   * <p>To solve several systems with the same {@code Matrix}, factor it once with {@link
+   * LUDecomposition} instead.
+   *
+   * @return the inverted version of this {@code Matrix}
+   */
+  public Matrix invert() {
+    return new LUDecomposition(this).inverse();
   }
 
   /**
@@ -341,17 +621,32 @@ public class Matrix {
    * @return a sliced version of this {@code Matrix}
    */
   public Matrix slice(int rowStart, int rowEnd, int colStart, int colEnd) {
-    Matrix output = copy();
-    output.sliceInPlace(rowStart, rowEnd, colStart, colEnd);
+    Objects.checkFromToIndex(rowStart, rowEnd, rowCount);
+    Objects.checkFromToIndex(colStart, colEnd, colCount);
+    Matrix output = new Matrix(rowEnd - rowStart, colEnd - colStart);
+    sliceInto(rowStart, rowEnd, colStart, colEnd, output);
     return output;
   }
 
-  private void sliceInPlace(int rowStart, int rowEnd, int colStart, int colEnd) {
-    double[][] newMatrix = new double[rowEnd - rowStart][colEnd - colStart];
+  /**
+   * Store a slice of this {@code Matrix} in {@code dest} without allocating.
+   *
+   * @param rowStart index of first row to include
+   * @param rowEnd index of first row to exclude
+   * @param colStart index of first column to include
+   * @param colEnd index of first row to exclude
+   * @param dest {@code (rowEnd - rowStart) x (colEnd - colStart)} {@code Matrix} to store the
+   *     slice in; must not be this {@code Matrix}
+   */
+  public void sliceInto(int rowStart, int rowEnd, int colStart, int colEnd, @NotNull Matrix dest) {
+    Objects.checkFromToIndex(rowStart, rowEnd, rowCount);
+    Objects.checkFromToIndex(colStart, colEnd, colCount);
+    checkShape(dest, rowEnd - rowStart, colEnd - colStart);
+    if (dest == this) throw new IllegalArgumentException("dest must not be this Matrix");
+    int newColCount = colEnd - colStart;
     for (int curRow = rowStart, newRow = 0; curRow < rowEnd; ++curRow, ++newRow)
-      for (int curCol = colStart, newCol = 0; curCol < colEnd; ++curCol, ++newCol)
-        newMatrix[newRow][newCol] = matrix[curRow][curCol];
-    matrix = newMatrix;
+      System.arraycopy(
+          data, curRow * stride + colStart, dest.data, newRow * dest.stride, newColCount);
   }
 
   // ######################################################################################
@@ -361,78 +656,105 @@ public class Matrix {
 
   // ######################################################################################
 
-  private void rowReduceInPlace() {
+  /**
+   * Put this {@code Matrix} in reduced row-echelon form in place. Matrices with fewer than {@code
+   * 2^16} elements use {@link Elimination#SEQUENTIAL}, which allocates nothing; larger ones use
+   * {@link Elimination#BLOCKED}. To choose for a single call, use {@link
+   * #rowReduceInPlace(Elimination)}.
+   */
+  public void rowReduceInPlace() {
+    rowReduceInPlace(
+        (long) rowCount * colCount < PARALLEL_ELEMENTS
+            ? Elimination.SEQUENTIAL
+            : Elimination.BLOCKED);
+  }
+
+  /**
+   * Put this {@code Matrix} in reduced row-echelon form in place, using {@code elimination}.
+   *
+   * @param elimination the elimination strategy to use
+   */
+  public void rowReduceInPlace(@NotNull Elimination elimination) {
+    switch (elimination) {
+      case SEQUENTIAL:
+        rowReduceSequentially();
+        break;
+      case PARALLEL:
+        GaussJordan.reduceParallel(data, rowCount, colCount);
+        break;
+      case BLOCKED:
+        GaussJordan.reduceBlocked(data, rowCount, colCount);
+        break;
+    }
+  }
+
+  private void rowReduceSequentially() {
     int curPivotCol = 0;
 
-    for (int curPivotRow = 0; curPivotRow < getRowCount(); ++curPivotRow) {
-      boolean foundNonZeroPivot = false;
-      for (int col = curPivotCol; col < getColumnCount(); ++col) {
-        for (int row = curPivotRow; row < getRowCount(); ++row) {
-          if (basicallyEqual(matrix[row][col], 0)) continue;
-          switchRowsInPlace(curPivotRow, row);
-          curPivotCol = col;
-          foundNonZeroPivot = true;
-          break;
-        }
-        if (foundNonZeroPivot) break;
+    for (int curPivotRow = 0; curPivotRow < rowCount; ++curPivotRow) {
+      int pivotRow = -1;
+      for (; curPivotCol < colCount; ++curPivotCol) {
+        pivotRow = findLargestInColumn(curPivotCol, curPivotRow);
+        if (!basicallyEqual(data[pivotRow * stride + curPivotCol], 0)) break;
       }
-      if (!foundNonZeroPivot) return; // we're done (no more pivots)
-
-      // matrix[curPivotRow][curPivotCol] is the next pivot, let's zero out the
-      // elements above/below it in its column.
-      for (int row = 0; row < getRowCount(); ++row) {
+      if (curPivotCol == colCount) return; // we're done (no more pivots)
+      switchRowsInPlace(curPivotRow, pivotRow);
+
+      // (curPivotRow, curPivotCol) is the next pivot: make it 1 once, then zero out the elements
+      // above/below it in its column with a single pass over each row. Columns left of the pivot
+      // are already zero in the pivot row, so only the rest of each row is touched.
+      int pivotOffset = curPivotRow * stride;
+      int length = colCount - curPivotCol;
+      KERNELS.divide(data, pivotOffset + curPivotCol, length, data[pivotOffset + curPivotCol]);
+      for (int row = 0; row < rowCount; ++row) {
         if (row == curPivotRow) continue; // don't zero out the pivot
-        makeElemZeroInPlace(row, curPivotCol, curPivotRow);
+        int offset = row * stride;
+        double factor = data[offset + curPivotCol];
+        if (factor == 0) continue;
+        KERNELS.axpy(-factor, data, pivotOffset + curPivotCol, data, offset + curPivotCol, length);
       }
-
-      divideRowInPlace(curPivotRow, matrix[curPivotRow][curPivotCol]); // make pivot 1
       ++curPivotCol;
     }
   }
 
-  // ######################################################################################
-
-  private void switchRowsInPlace(int row1, int row2) {
-    for (int col = 0; col < getColumnCount(); ++col) {
-      double temp = matrix[row1][col];
-      matrix[row1][col] = matrix[row2][col];
-      matrix[row2][col] = temp;
-    }
-  }
-
   /**
-   * Ensure {@code matrix[row][col]} is zero by combining {@code row} with {@code auxiliaryRow} if
-   * not yet zero.
+   * @return the row from {@code startRow} on whose element in {@code col} is largest in magnitude
    */
-  private void makeElemZeroInPlace(int row, int col, int auxiliaryRow) {
-    double elem = matrix[row][col];
-    if (basicallyEqual(elem, 0)) return;
-
-    // make matrix[auxiliaryRow][col] == -elem, then add.
-    multiplyRowInPlace(auxiliaryRow, -elem / matrix[auxiliaryRow][col]);
-    addRowToRowInPlace(auxiliaryRow, row);
-  }
-
-  /** Multiply {@code row} by {@code scalar}. */
-  private void multiplyRowInPlace(int row, double scalar) {
-    for (int col = 0; col < getColumnCount(); col++) matrix[row][col] *= scalar;
+  private int findLargestInColumn(int col, int startRow) {
+    int largest = startRow;
+    for (int row = startRow + 1; row < rowCount; ++row)
+      if (Math.abs(data[row * stride + col]) > Math.abs(data[largest * stride + col]))
+        largest = row;
+    return largest;
   }
 
-  /** Divide {@code row} by {@code scalar}. */
-  private void divideRowInPlace(int row, double scalar) {
-    for (int col = 0; col < getColumnCount(); col++) matrix[row][col] /= scalar;
-  }
+  // ######################################################################################
 
-  /** Add {@code row1} to {@code row2} (updating {@code row2}). */
-  private void addRowToRowInPlace(int row1, int row2) {
-    for (int col = 0; col < getColumnCount(); col++) matrix[row2][col] += matrix[row1][col];
+  /**
+   * Switch rows {@code row1} and {@code row2} of this {@code Matrix} in place.
+   *
+   * @param row1 row index
+   * @param row2 row index
+   */
+  public void switchRowsInPlace(int row1, int row2) {
+    int offset1 = rowOffset(row1);
+    int offset2 = rowOffset(row2);
+    if (offset1 == offset2) return;
+    for (int col = 0; col < colCount; ++col) {
+      double temp = data[offset1 + col];
+      data[offset1 + col] = data[offset2 + col];
+      data[offset2 + col] = temp;
+    }
   }
 
-  private void plusInPlace(@NotNull Matrix other) {
-    checkRowCountMatches(other);
-    checkColumnCountMatches(other);
-
-    for (int row = 0; row < getRowCount(); ++row)
-      for (int col = 0; col < getColumnCount(); ++col) matrix[row][col] += other.matrix[row][col];
+  /**
+   * Multiply {@code row} of this {@code Matrix} by {@code scalar} in place.
+   *
+   * @param row index of row to modify
+   * @param scalar scalar by which to multiply
+   */
+  public void multiplyRowInPlace(int row, double scalar) {
+    int offset = rowOffset(row);
+    KERNELS.scale(data, offset, colCount, scalar);
   }
 }
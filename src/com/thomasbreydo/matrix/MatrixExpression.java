@@ -0,0 +1,386 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * A lazily evaluated matrix expression. Operations such as {@link #plus}, {@link #times(double)},
+ * {@link #slice} and {@link #augment} only record a node; nothing is computed until {@link
+ * #evaluate()} or {@link #evaluateInto}.
+ *
+ * <p>Evaluation is fused: each row of the result is built in a single pass, with every leaf
+ * {@code Matrix} read straight into the output row as {@code out += scale * leaf}, so no
+ * intermediate {@code Matrix} is ever allocated. Slices are pushed down to the leaves, so elements
+ * outside the final slice are never read.
+ *
+ * <p>Leaves refer to their {@code Matrix} without copying it; changing a leaf before evaluating
+ * changes the result.
+ */
+public abstract class MatrixExpression {
+  private static final RowKernels KERNELS = RowKernels.INSTANCE;
+  /** Results with fewer elements than this are evaluated on the calling thread. */
+  private static final int PARALLEL_ELEMENTS = 1 << 16;
+  /** Rows handed to one fork-join task when evaluating in parallel. */
+  private static final int ROWS_PER_TASK = 32;
+
+  final int rowCount;
+  final int colCount;
+
+  MatrixExpression(int rowCount, int colCount) {
+    this.rowCount = rowCount;
+    this.colCount = colCount;
+  }
+
+  /**
+   * Start an expression from {@code matrix}.
+   *
+   * @param matrix the {@code Matrix} to refer to (not copied)
+   * @return an expression equal to {@code matrix}
+   */
+  public static @NotNull MatrixExpression of(@NotNull Matrix matrix) {
+    return new Leaf(matrix);
+  }
+
+  /**
+   * Get the number of rows in the result.
+   *
+   * @return the number of rows in the result
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Get the number of columns in the result.
+   *
+   * @return the number of columns in the result
+   */
+  public int getColumnCount() {
+    return colCount;
+  }
+
+  /**
+   * Add {@code scale * (row, [colStart, colEnd))} of this expression to {@code dest}, starting at
+   * {@code destOffset}.
+   */
+  abstract void accumulateRow(
+      int row, int colStart, int colEnd, double scale, double[] dest, int destOffset);
+
+  /** @return the element at {@code (row, col)} of this expression */
+  abstract double valueAt(int row, int col);
+
+  /** @return {@code true} if {@code matrix} is a leaf of this expression */
+  abstract boolean refersTo(Matrix matrix);
+
+  /**
+   * Record {@code this + other}.
+   *
+   * @param other expression with the same shape as this one
+   * @return the sum, unevaluated
+   */
+  public MatrixExpression plus(@NotNull MatrixExpression other) {
+    if (rowCount != other.rowCount || colCount != other.colCount)
+      throw new IllegalArgumentException("matrix shapes differ");
+    return new Sum(this, other);
+  }
+
+  /**
+   * Record {@code this + other}.
+   *
+   * @param other {@code Matrix} with the same shape as this expression
+   * @return the sum, unevaluated
+   */
+  public MatrixExpression plus(@NotNull Matrix other) {
+    return plus(of(other));
+  }
+
+  /**
+   * Record {@code scalar * this}.
+   *
+   * @param scalar scalar by which to multiply
+   * @return the product, unevaluated
+   */
+  public MatrixExpression times(double scalar) {
+    return new Scaled(this, scalar);
+  }
+
+  /**
+   * Record a slice of this expression.
+   *
+   * @param rowStart index of first row to include
+   * @param rowEnd index of first row to exclude
+   * @param colStart index of first column to include
+   * @param colEnd index of first column to exclude
+   * @return the slice, unevaluated
+   */
+  public MatrixExpression slice(int rowStart, int rowEnd, int colStart, int colEnd) {
+    Objects.checkFromToIndex(rowStart, rowEnd, rowCount);
+    Objects.checkFromToIndex(colStart, colEnd, colCount);
+    if (rowStart == rowEnd || colStart == colEnd)
+      throw new IllegalArgumentException("slice must not be empty");
+    return new Slice(this, rowStart, rowEnd, colStart, colEnd);
+  }
+
+  /**
+   * Record this expression augmented by {@code other}.
+   *
+   * @param other expression with the same row count, to put to the right of this one
+   * @return the augmented expression, unevaluated
+   */
+  public MatrixExpression augment(@NotNull MatrixExpression other) {
+    if (rowCount != other.rowCount) throw new IllegalArgumentException("row count differs");
+    return new Augmented(this, other);
+  }
+
+  /**
+   * Record this expression augmented by {@code other}.
+   *
+   * @param other {@code Matrix} with the same row count, to put to the right of this expression
+   * @return the augmented expression, unevaluated
+   */
+  public MatrixExpression augment(@NotNull Matrix other) {
+    return augment(of(other));
+  }
+
+  /**
+   * Record the transpose of this expression.
+   *
+   * @return the transpose, unevaluated
+   */
+  public MatrixExpression transpose() {
+    return new Transposed(this);
+  }
+
+  /**
+   * Evaluate this expression.
+   *
+   * @return the result as a new {@code Matrix}
+   */
+  public Matrix evaluate() {
+    Matrix output = new Matrix(rowCount, colCount);
+    evaluateRows(output);
+    return output;
+  }
+
+  /**
+   * Evaluate this expression into {@code dest} without allocating.
+   *
+   * @param dest {@code Matrix} with the shape of the result; must not be a leaf of this expression
+   */
+  public void evaluateInto(@NotNull Matrix dest) {
+    if (dest.getRowCount() != rowCount || dest.getColumnCount() != colCount)
+      throw new IllegalArgumentException("dest has the wrong shape");
+    if (refersTo(dest)) throw new IllegalArgumentException("dest must not be part of expression");
+    evaluateRows(dest);
+  }
+
+  private void evaluateRows(Matrix dest) {
+    double[] data = dest.getData();
+    if ((long) rowCount * colCount < PARALLEL_ELEMENTS) {
+      evaluateRows(data, 0, rowCount);
+      return;
+    }
+    int chunks = (rowCount + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+    IntStream.range(0, chunks)
+        .parallel()
+        .forEach(
+            i ->
+                evaluateRows(
+                    data, i * ROWS_PER_TASK, Math.min(rowCount, (i + 1) * ROWS_PER_TASK)));
+  }
+
+  private void evaluateRows(double[] data, int first, int end) {
+    for (int row = first; row < end; ++row) {
+      int offset = row * colCount;
+      Arrays.fill(data, offset, offset + colCount, 0);
+      accumulateRow(row, 0, colCount, 1, data, offset);
+    }
+  }
+
+  private static final class Leaf extends MatrixExpression {
+    private final Matrix matrix;
+
+    Leaf(Matrix matrix) {
+      super(matrix.getRowCount(), matrix.getColumnCount());
+      this.matrix = matrix;
+    }
+
+    @Override
+    void accumulateRow(
+        int row, int colStart, int colEnd, double scale, double[] dest, int destOffset) {
+      int offset = row * colCount + colStart;
+      if (scale == 1) KERNELS.add(matrix.getData(), offset, dest, destOffset, colEnd - colStart);
+      else KERNELS.axpy(scale, matrix.getData(), offset, dest, destOffset, colEnd - colStart);
+    }
+
+    @Override
+    double valueAt(int row, int col) {
+      return matrix.getData()[row * colCount + col];
+    }
+
+    @Override
+    boolean refersTo(Matrix matrix) {
+      return this.matrix == matrix;
+    }
+  }
+
+  private static final class Sum extends MatrixExpression {
+    private final MatrixExpression left;
+    private final MatrixExpression right;
+
+    Sum(MatrixExpression left, MatrixExpression right) {
+      super(left.rowCount, left.colCount);
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    void accumulateRow(
+        int row, int colStart, int colEnd, double scale, double[] dest, int destOffset) {
+      left.accumulateRow(row, colStart, colEnd, scale, dest, destOffset);
+      right.accumulateRow(row, colStart, colEnd, scale, dest, destOffset);
+    }
+
+    @Override
+    double valueAt(int row, int col) {
+      return left.valueAt(row, col) + right.valueAt(row, col);
+    }
+
+    @Override
+    boolean refersTo(Matrix matrix) {
+      return left.refersTo(matrix) || right.refersTo(matrix);
+    }
+  }
+
+  private static final class Scaled extends MatrixExpression {
+    private final MatrixExpression child;
+    private final double scalar;
+
+    Scaled(MatrixExpression child, double scalar) {
+      super(child.rowCount, child.colCount);
+      this.child = child;
+      this.scalar = scalar;
+    }
+
+    @Override
+    void accumulateRow(
+        int row, int colStart, int colEnd, double scale, double[] dest, int destOffset) {
+      child.accumulateRow(row, colStart, colEnd, scale * scalar, dest, destOffset);
+    }
+
+    @Override
+    double valueAt(int row, int col) {
+      return scalar * child.valueAt(row, col);
+    }
+
+    @Override
+    boolean refersTo(Matrix matrix) {
+      return child.refersTo(matrix);
+    }
+  }
+
+  private static final class Slice extends MatrixExpression {
+    private final MatrixExpression child;
+    private final int rowStart;
+    private final int colStart;
+
+    Slice(MatrixExpression child, int rowStart, int rowEnd, int colStart, int colEnd) {
+      super(rowEnd - rowStart, colEnd - colStart);
+      this.child = child;
+      this.rowStart = rowStart;
+      this.colStart = colStart;
+    }
+
+    @Override
+    void accumulateRow(
+        int row, int colStart, int colEnd, double scale, double[] dest, int destOffset) {
+      int offset = this.colStart;
+      child.accumulateRow(
+          rowStart + row, offset + colStart, offset + colEnd, scale, dest, destOffset);
+    }
+
+    @Override
+    double valueAt(int row, int col) {
+      return child.valueAt(rowStart + row, colStart + col);
+    }
+
+    @Override
+    boolean refersTo(Matrix matrix) {
+      return child.refersTo(matrix);
+    }
+  }
+
+  private static final class Augmented extends MatrixExpression {
+    private final MatrixExpression left;
+    private final MatrixExpression right;
+
+    Augmented(MatrixExpression left, MatrixExpression right) {
+      super(left.rowCount, left.colCount + right.colCount);
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    void accumulateRow(
+        int row, int colStart, int colEnd, double scale, double[] dest, int destOffset) {
+      int split = left.colCount;
+      if (colStart < split)
+        left.accumulateRow(row, colStart, Math.min(colEnd, split), scale, dest, destOffset);
+      if (colEnd > split) {
+        int rightStart = Math.max(colStart, split);
+        right.accumulateRow(
+            row,
+            rightStart - split,
+            colEnd - split,
+            scale,
+            dest,
+            destOffset + rightStart - colStart);
+      }
+    }
+
+    @Override
+    double valueAt(int row, int col) {
+      return col < left.colCount ? left.valueAt(row, col) : right.valueAt(row, col - left.colCount);
+    }
+
+    @Override
+    boolean refersTo(Matrix matrix) {
+      return left.refersTo(matrix) || right.refersTo(matrix);
+    }
+  }
+
+  private static final class Transposed extends MatrixExpression {
+    private final MatrixExpression child;
+
+    Transposed(MatrixExpression child) {
+      super(child.colCount, child.rowCount);
+      this.child = child;
+    }
+
+    @Override
+    public MatrixExpression transpose() {
+      return child;
+    }
+
+    @Override
+    void accumulateRow(
+        int row, int colStart, int colEnd, double scale, double[] dest, int destOffset) {
+      // a row of the transpose is a column of the child, which is not contiguous
+      for (int col = colStart; col < colEnd; ++col)
+        dest[destOffset + col - colStart] += scale * child.valueAt(col, row);
+    }
+
+    @Override
+    double valueAt(int row, int col) {
+      return child.valueAt(col, row);
+    }
+
+    @Override
+    boolean refersTo(Matrix matrix) {
+      return child.refersTo(matrix);
+    }
+  }
+}
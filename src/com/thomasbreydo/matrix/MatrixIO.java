@@ -0,0 +1,229 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Read and write {@code Matrix} objects as binary files or as text.
+ *
+ * <p>The binary format is the one used by {@link MappedMatrix}: a {@value
+ * MappedMatrix#HEADER_BYTES}-byte header (magic, version, row count, column count) followed by the
+ * elements in row-major order as little-endian doubles. A file written here can be opened with
+ * {@link MappedMatrix#open} without copying, and vice versa.
+ *
+ * <p>The text format has one row per line, with elements separated by commas and/or whitespace.
+ * Text is written and read one row at a time, so the whole matrix never exists as a string.
+ */
+public final class MatrixIO {
+  /** Bytes copied per read or write when streaming binary data through a channel. */
+  private static final int CHUNK_BYTES = 1 << 16;
+
+  private MatrixIO() {}
+
+  /**
+   * Write {@code matrix} to a new binary file at {@code path}, replacing any existing file.
+   *
+   * @param matrix the {@code Matrix} to write
+   * @param path the file to write
+   * @throws IOException if the file cannot be written
+   */
+  public static void writeBinary(@NotNull Matrix matrix, @NotNull Path path) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      writeBinary(matrix, channel);
+    }
+  }
+
+  /**
+   * Write {@code matrix} in the binary format to {@code channel}, through a small reusable buffer.
+   *
+   * @param matrix the {@code Matrix} to write
+   * @param channel the channel to write to; it is not closed
+   * @throws IOException if the channel cannot be written
+   */
+  public static void writeBinary(@NotNull Matrix matrix, @NotNull WritableByteChannel channel)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    MappedMatrix.writeHeader(buffer, matrix.getRowCount(), matrix.getColumnCount());
+    double[] data = matrix.getData();
+    int position = 0;
+    while (position < data.length) {
+      int count = Math.min(buffer.remaining() / Double.BYTES, data.length - position);
+      buffer.asDoubleBuffer().put(data, position, count);
+      buffer.position(buffer.position() + count * Double.BYTES);
+      position += count;
+      buffer.flip();
+      while (buffer.hasRemaining()) channel.write(buffer);
+      buffer.clear();
+    }
+  }
+
+  /**
+   * Read a binary file written by {@link #writeBinary} or {@link MappedMatrix}. The file is
+   * streamed through a small buffer, so it may be larger than a single mapping (2 GiB); only the
+   * new {@code Matrix} must fit in memory. To work on a file without copying it, use {@link
+   * MappedMatrix#open} instead.
+   *
+   * @param path the file to read
+   * @return a new {@code Matrix} with the contents of the file
+   * @throws IOException if the file cannot be read or is not a matrix file
+   */
+  public static Matrix readBinary(@NotNull Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return readBinary(channel);
+    }
+  }
+
+  /**
+   * Read a {@code Matrix} in the binary format from {@code channel}, through a small reusable
+   * buffer.
+   *
+   * @param channel the channel to read from; it is not closed
+   * @return a new {@code Matrix} with the contents of the channel
+   * @throws IOException if the channel cannot be read or does not hold a complete matrix
+   */
+  public static Matrix readBinary(@NotNull ReadableByteChannel channel) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.limit(MappedMatrix.HEADER_BYTES);
+    if (!fill(channel, buffer)) throw new IOException("missing header");
+    buffer.flip();
+    long[] shape = MappedMatrix.readHeader(buffer);
+    long length = shape[0] * shape[1];
+    if (length > Integer.MAX_VALUE) throw new IOException("matrix is too large for the heap");
+    double[] data = new double[(int) length];
+    int position = 0;
+    while (position < data.length) {
+      buffer.clear();
+      buffer.limit((int) Math.min(CHUNK_BYTES, (long) (data.length - position) * Double.BYTES));
+      if (!fill(channel, buffer)) throw new IOException("truncated data");
+      buffer.flip();
+      int count = buffer.remaining() / Double.BYTES;
+      buffer.asDoubleBuffer().get(data, position, count);
+      position += count;
+    }
+    return new Matrix(data, (int) shape[0], (int) shape[1]);
+  }
+
+  /** @return {@code false} if {@code channel} ends before {@code buffer} is full */
+  private static boolean fill(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) if (channel.read(buffer) < 0) return false;
+    return true;
+  }
+
+  /**
+   * Read a {@code Matrix} in the binary format from {@code buffer}, starting at its position. The
+   * buffer may be a heap, direct or mapped buffer; its elements are bulk-copied without decoding
+   * them one at a time. The buffer's position is advanced past the matrix.
+   *
+   * @param buffer the buffer to read from
+   * @return a new {@code Matrix} with the contents of the buffer
+   * @throws IOException if the buffer does not hold a complete matrix
+   */
+  public static Matrix readBinary(@NotNull ByteBuffer buffer) throws IOException {
+    if (buffer.remaining() < MappedMatrix.HEADER_BYTES) throw new IOException("missing header");
+    ByteOrder order = buffer.order();
+    try {
+      long[] shape = MappedMatrix.readHeader(buffer);
+      long length = shape[0] * shape[1];
+      if (length > Integer.MAX_VALUE) throw new IOException("matrix is too large for the heap");
+      if (buffer.remaining() / Double.BYTES < length) throw new IOException("truncated data");
+      double[] data = new double[(int) length];
+      buffer.asDoubleBuffer().get(data);
+      buffer.position(buffer.position() + data.length * Double.BYTES);
+      return new Matrix(data, (int) shape[0], (int) shape[1]);
+    } finally {
+      buffer.order(order);
+    }
+  }
+
+  /**
+   * Write {@code matrix} as text: one row per line, with elements separated by {@code ","}. Each
+   * element is written with {@link Double#toString(double)}, so reading the text back gives the
+   * same {@code Matrix}.
+   *
+   * @param matrix the {@code Matrix} to write
+   * @param out where to write, one row at a time
+   * @throws IOException if {@code out} cannot be written
+   */
+  public static void writeText(@NotNull Matrix matrix, @NotNull Appendable out)
+      throws IOException {
+    double[] data = matrix.getData();
+    int colCount = matrix.getColumnCount();
+    StringBuilder line = new StringBuilder();
+    for (int row = 0; row < matrix.getRowCount(); ++row) {
+      line.setLength(0);
+      int offset = row * colCount;
+      for (int col = 0; col < colCount; ++col) {
+        if (col > 0) line.append(',');
+        line.append(data[offset + col]);
+      }
+      line.append('\n');
+      out.append(line);
+    }
+  }
+
+  /**
+   * Read a {@code Matrix} from text: one row per line, with elements separated by commas and/or
+   * whitespace. Blank lines are skipped, and every row must have the same number of elements.
+   *
+   * @param in where to read from, one line at a time; it is not closed
+   * @return a new {@code Matrix} with the elements read
+   * @throws IOException if {@code in} cannot be read or does not hold a matrix
+   */
+  public static Matrix readText(@NotNull Reader in) throws IOException {
+    BufferedReader reader =
+        in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+    double[] data = new double[64];
+    int length = 0;
+    int rowCount = 0;
+    int colCount = -1;
+    String line;
+    int lineNumber = 0;
+    while ((line = reader.readLine()) != null) {
+      ++lineNumber;
+      int rowStart = length;
+      int start = 0;
+      while (true) {
+        while (start < line.length() && isSeparator(line.charAt(start))) ++start;
+        if (start == line.length()) break;
+        int end = start;
+        while (end < line.length() && !isSeparator(line.charAt(end))) ++end;
+        if (length == data.length) data = Arrays.copyOf(data, 2 * data.length);
+        try {
+          data[length++] = Double.parseDouble(line.substring(start, end));
+        } catch (NumberFormatException e) {
+          throw new IOException("line " + lineNumber + ": not a number: " + e.getMessage());
+        }
+        start = end;
+      }
+      int rowLength = length - rowStart;
+      if (rowLength == 0) continue; // blank line
+      if (colCount < 0) colCount = rowLength;
+      else if (rowLength != colCount)
+        throw new IOException(
+            "line %d: expected %d elements, found %d".formatted(lineNumber, colCount, rowLength));
+      ++rowCount;
+    }
+    if (rowCount == 0) throw new IOException("no rows");
+    return new Matrix(Arrays.copyOf(data, length), rowCount, colCount);
+  }
+
+  private static boolean isSeparator(char c) {
+    return c == ',' || Character.isWhitespace(c);
+  }
+}
@@ -0,0 +1,202 @@
+package com.thomasbreydo.matrix;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Cache-blocked, multi-threaded kernels for {@code Matrix} products.
+ *
+ * <p>All arrays are row-major with an explicit stride. The product is split into bands of rows
+ * that are handed to the common {@link ForkJoinPool}; inside a band, the {@code k} and {@code j}
+ * dimensions are tiled so that one tile of the right-hand operand ({@code 128 x 512} doubles, 512
+ * KiB) stays in the L2 or L3 cache while four rows of the output are accumulated at once. Those
+ * four 512-element output row segments (16 KiB) stay in L1.
+ */
+final class MatrixMultiplication {
+  /** Rows of the left operand processed together (register blocking). */
+  private static final int MICRO_ROWS = 4;
+  /** Tile size along the shared dimension. */
+  private static final int K_BLOCK = 128;
+  /** Tile size along the columns of the right operand / output. */
+  private static final int J_BLOCK = 512;
+  /** Smallest row band worth forking a task for. */
+  private static final int MIN_ROWS_PER_TASK = 32;
+  /** Products with fewer multiply-adds than this run on the calling thread. */
+  private static final long PARALLEL_FLOPS = 1L << 18;
+
+  private MatrixMultiplication() {}
+
+  /**
+   * Compute {@code c := a * b}, where {@code a} is {@code m x n} and {@code b} is {@code n x p}.
+   * {@code c} is overwritten.
+   */
+  static void multiply(
+      double[] a, int aStride, double[] b, int bStride, double[] c, int cStride, int m, int n,
+      int p) {
+    for (int row = 0; row < m; ++row) Arrays.fill(c, row * cStride, row * cStride + p, 0);
+    MultiplyTask task = new MultiplyTask(a, aStride, b, bStride, c, cStride, 0, m, n, p);
+    if ((long) m * n * p < PARALLEL_FLOPS) task.compute();
+    else ForkJoinPool.commonPool().invoke(task);
+  }
+
+  /**
+   * Compute {@code y := a * x}, where {@code a} is {@code m x n}. {@code y} is overwritten.
+   */
+  static void multiply(double[] a, int aStride, double[] x, double[] y, int m, int n) {
+    VectorTask task = new VectorTask(a, aStride, x, y, 0, m, n);
+    if ((long) m * n < PARALLEL_FLOPS) task.compute();
+    else ForkJoinPool.commonPool().invoke(task);
+  }
+
+  /** Accumulate rows {@code [rowStart, rowEnd)} of {@code c += a * b}. */
+  private static void multiplyBand(
+      double[] a, int aStride, double[] b, int bStride, double[] c, int cStride, int rowStart,
+      int rowEnd, int n, int p) {
+    for (int j0 = 0; j0 < p; j0 += J_BLOCK) {
+      int j1 = Math.min(j0 + J_BLOCK, p);
+      for (int k0 = 0; k0 < n; k0 += K_BLOCK) {
+        int k1 = Math.min(k0 + K_BLOCK, n);
+        int i = rowStart;
+        for (; i + MICRO_ROWS <= rowEnd; i += MICRO_ROWS)
+          microKernel4(a, aStride, b, bStride, c, cStride, i, k0, k1, j0, j1);
+        for (; i < rowEnd; ++i)
+          microKernel1(a, aStride, b, bStride, c, cStride, i, k0, k1, j0, j1);
+      }
+    }
+  }
+
+  /** Update four output rows starting at {@code i} with one {@code k x j} tile of {@code b}. */
+  private static void microKernel4(
+      double[] a, int aStride, double[] b, int bStride, double[] c, int cStride, int i, int k0,
+      int k1, int j0, int j1) {
+    int a0 = i * aStride;
+    int a1 = a0 + aStride;
+    int a2 = a1 + aStride;
+    int a3 = a2 + aStride;
+    int c0 = i * cStride;
+    int c1 = c0 + cStride;
+    int c2 = c1 + cStride;
+    int c3 = c2 + cStride;
+    for (int k = k0; k < k1; ++k) {
+      double s0 = a[a0 + k];
+      double s1 = a[a1 + k];
+      double s2 = a[a2 + k];
+      double s3 = a[a3 + k];
+      int bk = k * bStride;
+      for (int j = j0; j < j1; ++j) {
+        double bkj = b[bk + j];
+        c[c0 + j] += s0 * bkj;
+        c[c1 + j] += s1 * bkj;
+        c[c2 + j] += s2 * bkj;
+        c[c3 + j] += s3 * bkj;
+      }
+    }
+  }
+
+  /** Update the output row {@code i} with one {@code k x j} tile of {@code b}. */
+  private static void microKernel1(
+      double[] a, int aStride, double[] b, int bStride, double[] c, int cStride, int i, int k0,
+      int k1, int j0, int j1) {
+    int ai = i * aStride;
+    int ci = i * cStride;
+    for (int k = k0; k < k1; ++k) {
+      double s = a[ai + k];
+      int bk = k * bStride;
+      for (int j = j0; j < j1; ++j) c[ci + j] += s * b[bk + j];
+    }
+  }
+
+  /** Split the output rows in half until a band is small enough to multiply directly. */
+  private static final class MultiplyTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final double[] a;
+    private final int aStride;
+    private final double[] b;
+    private final int bStride;
+    private final double[] c;
+    private final int cStride;
+    private final int rowStart;
+    private final int rowEnd;
+    private final int n;
+    private final int p;
+
+    MultiplyTask(
+        double[] a, int aStride, double[] b, int bStride, double[] c, int cStride, int rowStart,
+        int rowEnd, int n, int p) {
+      this.a = a;
+      this.aStride = aStride;
+      this.b = b;
+      this.bStride = bStride;
+      this.c = c;
+      this.cStride = cStride;
+      this.rowStart = rowStart;
+      this.rowEnd = rowEnd;
+      this.n = n;
+      this.p = p;
+    }
+
+    @Override
+    protected void compute() {
+      int rows = rowEnd - rowStart;
+      if (rows <= MIN_ROWS_PER_TASK || (long) rows * n * p < PARALLEL_FLOPS) {
+        multiplyBand(a, aStride, b, bStride, c, cStride, rowStart, rowEnd, n, p);
+        return;
+      }
+      // keep the split on a multiple of MICRO_ROWS so only the last band has a remainder
+      int mid = rowStart + (rows / 2 + MICRO_ROWS - 1) / MICRO_ROWS * MICRO_ROWS;
+      invokeAll(
+          new MultiplyTask(a, aStride, b, bStride, c, cStride, rowStart, mid, n, p),
+          new MultiplyTask(a, aStride, b, bStride, c, cStride, mid, rowEnd, n, p));
+    }
+  }
+
+  /** Split the rows of a matrix-vector product in half until a band is small enough. */
+  private static final class VectorTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final double[] a;
+    private final int aStride;
+    private final double[] x;
+    private final double[] y;
+    private final int rowStart;
+    private final int rowEnd;
+    private final int n;
+
+    VectorTask(double[] a, int aStride, double[] x, double[] y, int rowStart, int rowEnd, int n) {
+      this.a = a;
+      this.aStride = aStride;
+      this.x = x;
+      this.y = y;
+      this.rowStart = rowStart;
+      this.rowEnd = rowEnd;
+      this.n = n;
+    }
+
+    @Override
+    protected void compute() {
+      int rows = rowEnd - rowStart;
+      if (rows <= MIN_ROWS_PER_TASK || (long) rows * n < PARALLEL_FLOPS) {
+        for (int i = rowStart; i < rowEnd; ++i) {
+          int offset = i * aStride;
+          // two accumulators break the add dependency chain
+          double sum0 = 0;
+          double sum1 = 0;
+          int j = 0;
+          for (; j + 1 < n; j += 2) {
+            sum0 += a[offset + j] * x[j];
+            sum1 += a[offset + j + 1] * x[j + 1];
+          }
+          if (j < n) sum0 += a[offset + j] * x[j];
+          y[i] = sum0 + sum1;
+        }
+        return;
+      }
+      int mid = rowStart + rows / 2;
+      invokeAll(
+          new VectorTask(a, aStride, x, y, rowStart, mid, n),
+          new VectorTask(a, aStride, x, y, mid, rowEnd, n));
+    }
+  }
+}
@@ -0,0 +1,290 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Store a matrix over GF(p), the integers modulo a prime {@code p < 2^31}, with each element as an
+ * {@code int} in {@code [0, p)}. Arithmetic is exact, so there is no tolerance for deciding what is
+ * zero. The API mirrors {@link BinaryMatrix}.
+ *
+ * <p>Row reduction is Gauss-Jordan: each pivot row is scaled by the inverse of its pivot, and
+ * every other row gets {@code row -= factor * pivotRow}, with one {@code long} product and one
+ * remainder per element. Those row updates are split across the common {@code ForkJoinPool}.
+ */
+public class ModularMatrix {
+  /** Updates touching fewer elements than this run on the calling thread. */
+  private static final int PARALLEL_ELEMENTS = 1 << 16;
+
+  private final int modulus;
+  private final int rowCount;
+  private final int colCount;
+  private final int[] data; // row-major, each in [0, modulus)
+  private long pivotProduct; // product of the pivots of the last reduce, negated per row swap
+
+  /**
+   * Initialize this {@code ModularMatrix} filled with zeros.
+   *
+   * @param rowCount number of rows
+   * @param colCount number of columns
+   * @param modulus a prime {@code p}
+   */
+  public ModularMatrix(int rowCount, int colCount, int modulus) {
+    if (rowCount <= 0 || colCount <= 0)
+      throw new IllegalArgumentException("rowCount and colCount must be positive");
+    if (modulus < 2 || !BigInteger.valueOf(modulus).isProbablePrime(64))
+      throw new IllegalArgumentException("modulus must be prime");
+    this.modulus = modulus;
+    this.rowCount = rowCount;
+    this.colCount = colCount;
+    data = new int[Math.multiplyExact(rowCount, colCount)];
+  }
+
+  /**
+   * Initialize this {@code ModularMatrix} with {@code matrix} reduced modulo {@code modulus}.
+   *
+   * @param matrix initial values, which may be negative
+   * @param modulus a prime {@code p}
+   */
+  public ModularMatrix(long @NotNull [] @NotNull [] matrix, int modulus) {
+    this(matrix.length, matrix.length == 0 ? 0 : matrix[0].length, modulus);
+    for (int row = 0; row < rowCount; ++row) {
+      if (matrix[row].length != colCount)
+        throw new IllegalArgumentException("all rows must have the same length");
+      for (int col = 0; col < colCount; ++col) setEntry(row, col, matrix[row][col]);
+    }
+  }
+
+  /**
+   * Get a deep copy of this {@code ModularMatrix}.
+   *
+   * @return a deep copy of this {@code ModularMatrix}
+   */
+  public ModularMatrix copy() {
+    ModularMatrix output = new ModularMatrix(rowCount, colCount, modulus);
+    System.arraycopy(data, 0, output.data, 0, data.length);
+    return output;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    ModularMatrix other = (ModularMatrix) o;
+    return modulus == other.modulus
+        && rowCount == other.rowCount
+        && colCount == other.colCount
+        && Arrays.equals(data, other.data);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * (31 * modulus + rowCount) + colCount) + Arrays.hashCode(data);
+  }
+
+  /**
+   * Get the string representation of this {@code ModularMatrix}, for printing.
+   *
+   * @return the string representation of this {@code ModularMatrix}
+   */
+  @Override
+  public String toString() {
+    StringBuilder stringBuilder = new StringBuilder();
+    for (int row = 0; row < rowCount; ++row) {
+      for (int col = 0; col < colCount; ++col) {
+        if (col > 0) stringBuilder.append(' ');
+        stringBuilder.append(data[row * colCount + col]);
+      }
+      stringBuilder.append('\n');
+    }
+    return stringBuilder.toString();
+  }
+
+  /**
+   * Get the prime modulus.
+   *
+   * @return the modulus {@code p}
+   */
+  public int getModulus() {
+    return modulus;
+  }
+
+  /**
+   * Get the number of rows in this {@code ModularMatrix}.
+   *
+   * @return the number of rows in this {@code ModularMatrix}
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Get the number of columns in this {@code ModularMatrix}.
+   *
+   * @return the number of columns in this {@code ModularMatrix}
+   */
+  public int getColumnCount() {
+    return colCount;
+  }
+
+  /**
+   * Get the element at {@code (row, column)}.
+   *
+   * @param row row index of the element
+   * @param column column index of the element
+   * @return the element, in {@code [0, p)}
+   */
+  public int getValueAt(int row, int column) {
+    Objects.checkIndex(row, rowCount);
+    Objects.checkIndex(column, colCount);
+    return data[row * colCount + column];
+  }
+
+  /**
+   * Set the element at {@code (row, column)} to {@code value} modulo {@code p}.
+   *
+   * @param row row index of the element
+   * @param column column index of the element
+   * @param value the new value, which may be negative
+   */
+  public void setEntry(int row, int column, long value) {
+    Objects.checkIndex(row, rowCount);
+    Objects.checkIndex(column, colCount);
+    data[row * colCount + column] = (int) Math.floorMod(value, (long) modulus);
+  }
+
+  /**
+   * Return the reduced row-echelon form of this {@code ModularMatrix}.
+   *
+   * @return a new {@code ModularMatrix} in reduced row-echelon form
+   */
+  public ModularMatrix rowReduce() {
+    ModularMatrix output = copy();
+    output.rowReduceInPlace();
+    return output;
+  }
+
+  /** Put this {@code ModularMatrix} in reduced row-echelon form. */
+  public void rowReduceInPlace() {
+    reduce(true);
+  }
+
+  /**
+   * Get the rank of this {@code ModularMatrix}, by forward elimination of a copy.
+   *
+   * @return the number of linearly independent rows
+   */
+  public int rank() {
+    return copy().reduce(false);
+  }
+
+  /**
+   * Get the determinant of this {@code ModularMatrix}, by forward elimination of a copy.
+   *
+   * @return the determinant, in {@code [0, p)}
+   */
+  public int determinant() {
+    if (rowCount != colCount) throw new IllegalArgumentException("matrix must be square");
+    ModularMatrix copy = copy();
+    return copy.reduce(false) < rowCount ? 0 : (int) copy.pivotProduct;
+  }
+
+  /**
+   * Solve {@code Ax = b} over GF(p). If there are many solutions, the one with every free variable
+   * set to zero is returned.
+   *
+   * @param b right-hand side, of length {@link #getRowCount()}; elements may be negative
+   * @return a solution {@code x}, of length {@link #getColumnCount()}, with elements in {@code [0,
+   *     p)}
+   * @throws RuntimeException if the system has no solution
+   */
+  public int[] solve(long @NotNull [] b) {
+    if (b.length != rowCount) throw new IllegalArgumentException("b.length must equal row count");
+    ModularMatrix augmented = new ModularMatrix(rowCount, colCount + 1, modulus);
+    for (int row = 0; row < rowCount; ++row) {
+      System.arraycopy(data, row * colCount, augmented.data, row * (colCount + 1), colCount);
+      augmented.setEntry(row, colCount, b[row]);
+    }
+    int rank = augmented.reduce(true);
+    int[] x = new int[colCount];
+    for (int row = 0; row < rank; ++row) {
+      int offset = row * (colCount + 1);
+      int pivotCol = 0;
+      while (augmented.data[offset + pivotCol] == 0) ++pivotCol;
+      if (pivotCol == colCount) throw new RuntimeException("system has no solution");
+      x[pivotCol] = augmented.data[offset + colCount];
+    }
+    return x;
+  }
+
+  /**
+   * Eliminate one pivot at a time.
+   *
+   * @param full if {@code true}, also clear above each pivot (reduced row-echelon form)
+   * @return the rank
+   */
+  private int reduce(boolean full) {
+    int rank = 0;
+    pivotProduct = 1;
+    for (int col = 0; col < colCount && rank < rowCount; ++col) {
+      int found = rank;
+      while (found < rowCount && data[found * colCount + col] == 0) ++found;
+      if (found == rowCount) continue;
+      if (found != rank) pivotProduct = modulus - pivotProduct;
+      swapRows(found, rank);
+
+      // scale the pivot row so that the pivot is one
+      int pivotOffset = rank * colCount;
+      pivotProduct = pivotProduct * data[pivotOffset + col] % modulus;
+      long inverse = inverse(data[pivotOffset + col]);
+      for (int j = col; j < colCount; ++j)
+        data[pivotOffset + j] = (int) (data[pivotOffset + j] * inverse % modulus);
+
+      int pivotRow = rank;
+      int pivotCol = col;
+      GaussJordan.RowChunk update =
+          (first, end) -> {
+            for (int row = first; row < end; ++row) {
+              if (row == pivotRow || (!full && row < pivotRow)) continue;
+              int offset = row * colCount;
+              int factor = data[offset + pivotCol];
+              if (factor == 0) continue;
+              long negated = modulus - factor; // row += (p - factor) * pivotRow keeps it positive
+              for (int j = pivotCol; j < colCount; ++j) {
+                long value = data[offset + j] + negated * data[pivotOffset + j];
+                data[offset + j] = (int) (value % modulus);
+              }
+            }
+          };
+      if ((long) rowCount * (colCount - col) < PARALLEL_ELEMENTS) update.update(0, rowCount);
+      else GaussJordan.forEachRowChunk(rowCount, update);
+      ++rank;
+    }
+    return rank;
+  }
+
+  /** The inverse of {@code value} modulo the prime {@code p}, by Fermat's little theorem. */
+  private long inverse(long value) {
+    long result = 1;
+    long base = value;
+    for (int exponent = modulus - 2; exponent > 0; exponent >>= 1) {
+      if ((exponent & 1) != 0) result = result * base % modulus;
+      base = base * base % modulus;
+    }
+    return result;
+  }
+
+  private void swapRows(int row1, int row2) {
+    if (row1 == row2) return;
+    int offset1 = row1 * colCount;
+    int offset2 = row2 * colCount;
+    for (int col = 0; col < colCount; ++col) {
+      int temp = data[offset1 + col];
+      data[offset1 + col] = data[offset2 + col];
+      data[offset2 + col] = temp;
+    }
+  }
+}
@@ -12,21 +12,16 @@ public class PolyInterpolationApp {
     int degree = scan.nextInt();
     if (degree < 0) throw new RuntimeException("degree must be non-negative");
 
-    Matrix m = new Matrix(degree + 1, degree + 2);
+    PolynomialInterpolator interpolator = new PolynomialInterpolator();
     for (int i = 0; i < degree + 1; ++i) {
       System.out.printf("Enter point %d/%d (space-separated): ", i + 1, degree + 1);
       double x = scan.nextDouble();
       double y = scan.nextDouble();
-      double term = 1;
-      for (int j = 0; j < degree + 1; ++j) {
-        m.setEntry(i, j, term);
-        term *= x;
-      }
-      m.setEntry(i, degree + 1, y);
+      interpolator.add(x, y);
     }
 
     System.out.print("\nP(X) = ");
-    Polynomial p = new Polynomial(m.rowReduce().getColumn(degree + 1));
+    Polynomial p = interpolator.toPolynomial();
     if (degree == 0) {
       System.out.println(p.getCoefficientAtTerm(0)); // avoid p(x) = 0 bug
     } else {
@@ -0,0 +1,136 @@
+package com.thomasbreydo.matrix;
+
+import org.dalton.polyfun.Polynomial;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Interpolate points with a polynomial that can be refit incrementally.
+ *
+ * <p>The interpolant is kept in two forms at once. The Newton form (divided differences) is used
+ * to export coefficients with {@link #toPolynomial()}. The barycentric form is used by {@link
+ * #evaluate(double)}, which stays accurate at degrees where solving a Vandermonde system does not.
+ * Adding a point updates both forms in {@code O(n)}, so fitting {@code n} points costs {@code
+ * O(n^2)} and evaluating costs {@code O(n)}.
+ */
+public class PolynomialInterpolator {
+  private double[] xs = new double[8];
+  private double[] ys = new double[8];
+  private double[] newton = new double[8]; // newton[k] = f[x_0, ..., x_k]
+  private double[] lastDifferences = new double[8]; // [j] = f[x_j, ..., x_{n - 1}]
+  private double[] weights = new double[8]; // barycentric weights
+  private int n;
+
+  /** Initialize this {@code PolynomialInterpolator} with no points. */
+  public PolynomialInterpolator() {}
+
+  /**
+   * Initialize this {@code PolynomialInterpolator} with the points {@code (xs[i], ys[i])}.
+   *
+   * @param xs distinct x-coordinates
+   * @param ys y-coordinates, of the same length as {@code xs}
+   */
+  public PolynomialInterpolator(double @NotNull [] xs, double @NotNull [] ys) {
+    if (xs.length != ys.length) throw new IllegalArgumentException("xs and ys differ in length");
+    for (int i = 0; i < xs.length; ++i) add(xs[i], ys[i]);
+  }
+
+  /**
+   * Add the point {@code (x, y)}, raising the degree of the interpolant by one. Costs {@code
+   * O(n)}.
+   *
+   * @param x an x-coordinate different from every point added so far
+   * @param y the y-coordinate
+   */
+  public void add(double x, double y) {
+    for (int j = 0; j < n; ++j)
+      if (xs[j] == x) throw new IllegalArgumentException("duplicate x-coordinate " + x);
+    if (n == xs.length) grow();
+
+    // extend the bottom diagonal of the divided-difference table
+    double difference = y;
+    for (int j = n - 1; j >= 0; --j) {
+      double next = (difference - lastDifferences[j]) / (x - xs[j]);
+      lastDifferences[j + 1] = difference;
+      difference = next;
+    }
+    lastDifferences[0] = difference;
+    newton[n] = difference;
+
+    double weight = 1;
+    for (int j = 0; j < n; ++j) {
+      weights[j] /= xs[j] - x;
+      weight /= x - xs[j];
+    }
+    weights[n] = weight;
+    xs[n] = x;
+    ys[n] = y;
+    ++n;
+  }
+
+  private void grow() {
+    int capacity = 2 * xs.length;
+    xs = Arrays.copyOf(xs, capacity);
+    ys = Arrays.copyOf(ys, capacity);
+    newton = Arrays.copyOf(newton, capacity);
+    lastDifferences = Arrays.copyOf(lastDifferences, capacity);
+    weights = Arrays.copyOf(weights, capacity);
+  }
+
+  /**
+   * Get the number of points added so far.
+   *
+   * @return the number of points; the interpolant has degree one less
+   */
+  public int getPointCount() {
+    return n;
+  }
+
+  /**
+   * Evaluate the interpolant at {@code x} in {@code O(n)}, using the barycentric formula.
+   *
+   * @param x where to evaluate
+   * @return the value of the interpolant at {@code x}
+   */
+  public double evaluate(double x) {
+    if (n == 0) throw new IllegalStateException("no points to interpolate");
+    double numerator = 0;
+    double denominator = 0;
+    for (int j = 0; j < n; ++j) {
+      double diff = x - xs[j];
+      if (diff == 0) return ys[j];
+      double term = weights[j] / diff;
+      numerator += term * ys[j];
+      denominator += term;
+    }
+    return numerator / denominator;
+  }
+
+  /**
+   * Get the coefficients of the interpolant, expanded from its Newton form in {@code O(n^2)}.
+   *
+   * @return {@code c} such that the interpolant is {@code c[0] + c[1] x + ... + c[n - 1] x^(n-1)}
+   */
+  public double[] getCoefficients() {
+    if (n == 0) throw new IllegalStateException("no points to interpolate");
+    double[] coefficients = new double[n];
+    // Horner's rule on the Newton form: p = newton[k] + (x - x_k) p
+    coefficients[0] = newton[n - 1];
+    for (int k = n - 2; k >= 0; --k) {
+      for (int i = n - 1 - k; i > 0; --i)
+        coefficients[i] = coefficients[i - 1] - xs[k] * coefficients[i];
+      coefficients[0] = newton[k] - xs[k] * coefficients[0];
+    }
+    return coefficients;
+  }
+
+  /**
+   * Get the interpolant as a {@code Polynomial}.
+   *
+   * @return a new {@code Polynomial} equal to the interpolant
+   */
+  public Polynomial toPolynomial() {
+    return new Polynomial(getCoefficients());
+  }
+}
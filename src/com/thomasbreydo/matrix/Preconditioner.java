@@ -0,0 +1,69 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An approximation {@code M} of a matrix {@code A} that is cheap to invert. Iterative solvers
+ * converge in fewer iterations on {@code M^-1 A}, whose eigenvalues are more tightly clustered.
+ *
+ * @see IncompleteCholesky
+ * @see IncompleteLU
+ */
+@FunctionalInterface
+public interface Preconditioner {
+  /**
+   * Store {@code M^-1 r} in {@code z}.
+   *
+   * @param r the vector to precondition; must not be modified
+   * @param z array of the same length as {@code r} to store the result in; never {@code r}
+   */
+  void apply(double[] r, double[] z);
+
+  /**
+   * Get the preconditioner {@code M = I}, which leaves vectors unchanged.
+   *
+   * @return the identity preconditioner
+   */
+  static @NotNull Preconditioner identity() {
+    return (r, z) -> System.arraycopy(r, 0, z, 0, r.length);
+  }
+
+  /**
+   * Get the Jacobi preconditioner {@code M = diag(A)}.
+   *
+   * @param matrix square {@code Matrix} with no zeros on its diagonal
+   * @return the Jacobi preconditioner of {@code matrix}
+   */
+  static @NotNull Preconditioner jacobi(@NotNull Matrix matrix) {
+    if (matrix.getRowCount() != matrix.getColumnCount())
+      throw new IllegalArgumentException("matrix must be square");
+    double[] diagonal = new double[matrix.getRowCount()];
+    for (int i = 0; i < diagonal.length; ++i) diagonal[i] = matrix.getValueAt(i, i);
+    return jacobi(diagonal);
+  }
+
+  /**
+   * Get the Jacobi preconditioner {@code M = diag(A)}.
+   *
+   * @param matrix square {@code SparseMatrix} with no zeros on its diagonal
+   * @return the Jacobi preconditioner of {@code matrix}
+   */
+  static @NotNull Preconditioner jacobi(@NotNull SparseMatrix matrix) {
+    if (matrix.getRowCount() != matrix.getColumnCount())
+      throw new IllegalArgumentException("matrix must be square");
+    double[] diagonal = new double[matrix.getRowCount()];
+    for (int i = 0; i < diagonal.length; ++i) diagonal[i] = matrix.getValueAt(i, i);
+    return jacobi(diagonal);
+  }
+
+  private static Preconditioner jacobi(double[] diagonal) {
+    double[] inverse = new double[diagonal.length];
+    for (int i = 0; i < diagonal.length; ++i) {
+      if (diagonal[i] == 0) throw new IllegalArgumentException("diagonal has a zero at " + i);
+      inverse[i] = 1 / diagonal[i];
+    }
+    return (r, z) -> {
+      for (int i = 0; i < inverse.length; ++i) z[i] = inverse[i] * r[i];
+    };
+  }
+}
@@ -0,0 +1,48 @@
+package com.thomasbreydo.matrix;
+
+/**
+ * Element-wise kernels over segments of row-major arrays; elimination spends almost all of its
+ * time in these loops.
+ *
+ * <p>{@link #INSTANCE} is chosen once, at class initialization. If the {@code
+ * jdk.incubator.vector} module is available (run with {@code --add-modules
+ * jdk.incubator.vector}), the kernels use explicit SIMD through {@code DoubleVector}. Otherwise, or
+ * if the system property {@code com.thomasbreydo.matrix.simd} is {@code false}, plain scalar loops
+ * are used.
+ */
+interface RowKernels {
+  RowKernels INSTANCE = select();
+
+  /** {@code data[offset + i] *= scalar} for {@code 0 <= i < length}. */
+  void scale(double[] data, int offset, int length, double scalar);
+
+  /** {@code data[offset + i] /= divisor} for {@code 0 <= i < length}. */
+  void divide(double[] data, int offset, int length, double divisor);
+
+  /** {@code dest[destOffset + i] += source[sourceOffset + i]} for {@code 0 <= i < length}. */
+  void add(double[] source, int sourceOffset, double[] dest, int destOffset, int length);
+
+  /** {@code y[yOffset + i] += a * x[xOffset + i]} for {@code 0 <= i < length}. */
+  void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length);
+
+  /** As {@link #axpy(double, double[], int, double[], int, int)}, in single precision. */
+  void axpy(float a, float[] x, int xOffset, float[] y, int yOffset, int length);
+
+  /** {@code dest[destOffset + i] = a[aOffset + i] + b[bOffset + i]} for {@code 0 <= i < length}. */
+  void sum(
+      double[] a, int aOffset, double[] b, int bOffset, double[] dest, int destOffset, int length);
+
+  private static RowKernels select() {
+    if (!Boolean.parseBoolean(System.getProperty("com.thomasbreydo.matrix.simd", "true")))
+      return new ScalarRowKernels();
+    try {
+      // loaded reflectively so that a missing incubator module is a fallback, not an error
+      return (RowKernels)
+          Class.forName("com.thomasbreydo.matrix.VectorRowKernels")
+              .getDeclaredConstructor()
+              .newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return new ScalarRowKernels();
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.thomasbreydo.matrix;
+
+/** Plain-loop {@link RowKernels}; the JIT's auto-vectorizer still applies to most of them. */
+final class ScalarRowKernels implements RowKernels {
+  @Override
+  public void scale(double[] data, int offset, int length, double scalar) {
+    for (int i = offset; i < offset + length; ++i) data[i] *= scalar;
+  }
+
+  @Override
+  public void divide(double[] data, int offset, int length, double divisor) {
+    for (int i = offset; i < offset + length; ++i) data[i] /= divisor;
+  }
+
+  @Override
+  public void add(double[] source, int sourceOffset, double[] dest, int destOffset, int length) {
+    for (int i = 0; i < length; ++i) dest[destOffset + i] += source[sourceOffset + i];
+  }
+
+  @Override
+  public void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length) {
+    for (int i = 0; i < length; ++i) y[yOffset + i] += a * x[xOffset + i];
+  }
+
+  @Override
+  public void axpy(float a, float[] x, int xOffset, float[] y, int yOffset, int length) {
+    for (int i = 0; i < length; ++i) y[yOffset + i] += a * x[xOffset + i];
+  }
+
+  @Override
+  public void sum(
+      double[] a, int aOffset, double[] b, int bOffset, double[] dest, int destOffset, int length) {
+    for (int i = 0; i < length; ++i) dest[destOffset + i] = a[aOffset + i] + b[bOffset + i];
+  }
+}
@@ -0,0 +1,275 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Factor a square {@code SparseMatrix} once and reuse the sparse factors to solve systems.
+ *
+ * <p>Rows and columns are first renumbered with an approximate minimum degree ordering of the
+ * symmetrized pattern, which keeps the fill of each elimination step small: on a 2-D grid the
+ * factors grow like {@code O(n log n)} rather than the {@code O(n^1.5)} envelope of a
+ * bandwidth-reducing ordering. The permuted matrix is then factored row by row ("up-looking" LU).
+ * Each row is scattered into a dense work vector and eliminated only against the earlier rows its
+ * pattern actually touches. The pivot of each row is its diagonal element unless that element is
+ * less than a tenth of the largest candidate, in which case the largest candidate's column is used
+ * instead (threshold partial pivoting by columns). Banded and diagonally dominant systems therefore
+ * keep their sparsity, and general systems stay stable.
+ */
+public class SparseLUDecomposition {
+  /** Keep the diagonal pivot unless it is smaller than this fraction of the largest candidate. */
+  private static final double PIVOT_THRESHOLD = 0.1;
+
+  private final int n;
+  private final int[] order; // row/column i of the permuted matrix is row/column order[i]
+  private final int[] lowerPointers;
+  private final int[] lowerSteps; // L[i][lowerSteps[k]] = lowerValues[k], unit diagonal implied
+  private final double[] lowerValues;
+  private final int[] upperPointers;
+  private final int[] upperColumns; // U[i][upperColumns[k]] = upperValues[k], pivot excluded
+  private final double[] upperValues;
+  private final int[] pivotColumns; // permuted column used as the pivot of step i
+  private final double[] pivots;
+  private final boolean singular;
+
+  /**
+   * Factor {@code matrix}. {@code matrix} itself is not modified.
+   *
+   * @param matrix the square {@code SparseMatrix} to factor
+   */
+  public SparseLUDecomposition(@NotNull SparseMatrix matrix) {
+    if (matrix.getRowCount() != matrix.getColumnCount())
+      throw new IllegalArgumentException("matrix must be square");
+    n = matrix.getRowCount();
+    order = ApproximateMinimumDegree.order(matrix);
+    int[] position = new int[n]; // inverse of order
+    for (int i = 0; i < n; ++i) position[order[i]] = i;
+
+    int[] rowPointers = matrix.getRowPointers();
+    int[] columnIndices = matrix.getColumnIndices();
+    double[] values = matrix.getValues();
+
+    // a pivot is zero if it is within rounding error of the largest element, as in LUDecomposition
+    double largestValue = 0;
+    for (double value : values) largestValue = Math.max(largestValue, Math.abs(value));
+    double tolerance = n * Math.ulp(1.0) * largestValue;
+
+    GrowableRows lower = new GrowableRows(n, values.length);
+    GrowableRows upper = new GrowableRows(n, values.length);
+    pivotColumns = new int[n];
+    pivots = new double[n];
+    int[] stepOfColumn = new int[n]; // step at which a column became a pivot, or -1
+    Arrays.fill(stepOfColumn, -1);
+
+    double[] work = new double[n];
+    int[] marker = new int[n];
+    Arrays.fill(marker, -1);
+    int[] pattern = new int[n];
+    IntMinHeap steps = new IntMinHeap(n);
+
+    boolean foundZeroPivot = false;
+    for (int i = 0; i < n && !foundZeroPivot; ++i) {
+      // scatter row i of the permuted matrix
+      int patternSize = 0;
+      int row = order[i];
+      for (int k = rowPointers[row]; k < rowPointers[row + 1]; ++k) {
+        int col = position[columnIndices[k]];
+        if (marker[col] != i) {
+          marker[col] = i;
+          work[col] = 0;
+          pattern[patternSize++] = col;
+          if (stepOfColumn[col] >= 0) steps.push(stepOfColumn[col]);
+        }
+        work[col] += values[k];
+      }
+
+      // eliminate against earlier pivot rows in step order, following fill as it appears
+      while (!steps.isEmpty()) {
+        int step = steps.pop();
+        int col = pivotColumns[step];
+        double factor = work[col] / pivots[step];
+        work[col] = 0;
+        if (factor == 0) continue;
+        lower.add(step, factor);
+        for (int k = upper.pointers[step]; k < upper.pointers[step + 1]; ++k) {
+          int target = upper.indices[k];
+          if (marker[target] != i) {
+            marker[target] = i;
+            work[target] = 0;
+            pattern[patternSize++] = target;
+            if (stepOfColumn[target] >= 0) steps.push(stepOfColumn[target]);
+          }
+          work[target] -= factor * upper.values[k];
+        }
+      }
+      lower.endRow(i);
+
+      // choose the pivot among the columns that are not pivots yet
+      int pivotColumn = -1;
+      double largest = 0;
+      for (int p = 0; p < patternSize; ++p) {
+        int col = pattern[p];
+        if (stepOfColumn[col] >= 0) continue;
+        if (Math.abs(work[col]) > largest) {
+          largest = Math.abs(work[col]);
+          pivotColumn = col;
+        }
+      }
+      if (largest <= tolerance) {
+        foundZeroPivot = true;
+        break;
+      }
+      boolean diagonalIsCandidate = marker[i] == i && stepOfColumn[i] < 0;
+      if (diagonalIsCandidate && Math.abs(work[i]) >= PIVOT_THRESHOLD * largest) pivotColumn = i;
+      pivotColumns[i] = pivotColumn;
+      pivots[i] = work[pivotColumn];
+      stepOfColumn[pivotColumn] = i;
+
+      Arrays.sort(pattern, 0, patternSize); // keep each row of U in column order
+      for (int p = 0; p < patternSize; ++p) {
+        int col = pattern[p];
+        if (stepOfColumn[col] >= 0 || work[col] == 0) continue;
+        upper.add(col, work[col]);
+      }
+      upper.endRow(i);
+    }
+    singular = foundZeroPivot;
+
+    lowerPointers = lower.pointers;
+    lowerSteps = lower.trimmedIndices();
+    lowerValues = lower.trimmedValues();
+    upperPointers = upper.pointers;
+    upperColumns = upper.trimmedIndices();
+    upperValues = upper.trimmedValues();
+  }
+
+  /**
+   * Check whether the factored {@code SparseMatrix} is singular: for some row, no pivot larger
+   * than {@code n * ulp(1) * max|a_ij|} could be found. The test is relative to the largest
+   * element, so scaling the matrix does not change it.
+   *
+   * @return {@code true} if the factored {@code SparseMatrix} is singular
+   */
+  public boolean isSingular() {
+    return singular;
+  }
+
+  /**
+   * Get the number of stored elements in both factors, which is a measure of fill.
+   *
+   * @return the number of stored elements in {@code L} and {@code U} (pivots included)
+   */
+  public int getFactorNonZeroCount() {
+    return lowerValues.length + upperValues.length + n;
+  }
+
+  /**
+   * Solve {@code Ax = b}.
+   *
+   * @param b right-hand side, of length {@code n}
+   * @return the solution {@code x} as a new array
+   */
+  public double[] solve(double @NotNull [] b) {
+    if (b.length != n) throw new IllegalArgumentException("b.length must equal the row count");
+    if (singular) throw new RuntimeException("matrix is not invertible");
+
+    double[] y = new double[n];
+    for (int i = 0; i < n; ++i) {
+      double sum = b[order[i]];
+      for (int k = lowerPointers[i]; k < lowerPointers[i + 1]; ++k)
+        sum -= lowerValues[k] * y[lowerSteps[k]];
+      y[i] = sum;
+    }
+
+    double[] z = new double[n]; // solution in permuted numbering
+    for (int i = n - 1; i >= 0; --i) {
+      double sum = y[i];
+      for (int k = upperPointers[i]; k < upperPointers[i + 1]; ++k)
+        sum -= upperValues[k] * z[upperColumns[k]];
+      z[pivotColumns[i]] = sum / pivots[i];
+    }
+
+    double[] x = new double[n];
+    for (int i = 0; i < n; ++i) x[order[i]] = z[i];
+    return x;
+  }
+
+  /** Rows of a sparse factor, appended one row at a time. */
+  private static final class GrowableRows {
+    final int[] pointers;
+    int[] indices;
+    double[] values;
+    int size;
+
+    GrowableRows(int rowCount, int initialCapacity) {
+      pointers = new int[rowCount + 1];
+      indices = new int[Math.max(initialCapacity, 16)];
+      values = new double[indices.length];
+    }
+
+    void add(int index, double value) {
+      if (size == indices.length) {
+        int capacity = Math.max(indices.length * 2, 16);
+        indices = Arrays.copyOf(indices, capacity);
+        values = Arrays.copyOf(values, capacity);
+      }
+      indices[size] = index;
+      values[size] = value;
+      ++size;
+    }
+
+    void endRow(int row) {
+      pointers[row + 1] = size;
+    }
+
+    int[] trimmedIndices() {
+      return Arrays.copyOf(indices, size);
+    }
+
+    double[] trimmedValues() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+
+  /** Binary min-heap of ints in {@code [0, capacity)}, each pushed at most once per row. */
+  private static final class IntMinHeap {
+    private final int[] heap;
+    private int size;
+
+    IntMinHeap(int capacity) {
+      heap = new int[capacity];
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void push(int value) {
+      int i = size++;
+      while (i > 0) {
+        int parent = (i - 1) / 2;
+        if (heap[parent] <= value) break;
+        heap[i] = heap[parent];
+        i = parent;
+      }
+      heap[i] = value;
+    }
+
+    int pop() {
+      int top = heap[0];
+      int last = heap[--size];
+      int i = 0;
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= size) break;
+        if (child + 1 < size && heap[child + 1] < heap[child]) ++child;
+        if (heap[child] >= last) break;
+        heap[i] = heap[child];
+        i = child;
+      }
+      heap[i] = last;
+      return top;
+    }
+  }
+}
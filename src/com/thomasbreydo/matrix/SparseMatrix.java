@@ -0,0 +1,239 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Store a sparse matrix in compressed-sparse-row (CSR) form.
+ *
+ * <p>The non-zero elements of row {@code i} are {@code values[k]} at column {@code
+ * columnIndices[k]} for {@code rowPointers[i] <= k < rowPointers[i + 1]}, with column indices
+ * increasing within each row. Memory use is proportional to the number of non-zero elements
+ * rather than to {@code rowCount * colCount}.
+ */
+public class SparseMatrix {
+  private final int rowCount;
+  private final int colCount;
+  private final int[] rowPointers;
+  private final int[] columnIndices;
+  private final double[] values;
+
+  /** Initialize this {@code SparseMatrix} around existing CSR arrays (not copied). */
+  SparseMatrix(
+      int rowCount, int colCount, int[] rowPointers, int[] columnIndices, double[] values) {
+    if (rowCount <= 0 || colCount <= 0)
+      throw new IllegalArgumentException("rowCount and colCount must be positive");
+    if (rowPointers.length != rowCount + 1)
+      throw new IllegalArgumentException("rowPointers.length must equal rowCount + 1");
+    if (columnIndices.length != values.length)
+      throw new IllegalArgumentException("columnIndices.length must equal values.length");
+    this.rowCount = rowCount;
+    this.colCount = colCount;
+    this.rowPointers = rowPointers;
+    this.columnIndices = columnIndices;
+    this.values = values;
+  }
+
+  /**
+   * Create a {@code SparseMatrix} holding the non-zero elements of {@code matrix}.
+   *
+   * @param matrix dense {@code Matrix} to convert
+   * @return a new {@code SparseMatrix} equal to {@code matrix}
+   */
+  public static @NotNull SparseMatrix fromMatrix(@NotNull Matrix matrix) {
+    int rowCount = matrix.getRowCount();
+    int colCount = matrix.getColumnCount();
+    double[] data = matrix.getData();
+    int nonZeroCount = 0;
+    for (double value : data) if (value != 0) ++nonZeroCount;
+
+    int[] rowPointers = new int[rowCount + 1];
+    int[] columnIndices = new int[nonZeroCount];
+    double[] values = new double[nonZeroCount];
+    int k = 0;
+    for (int row = 0; row < rowCount; ++row) {
+      for (int col = 0; col < colCount; ++col) {
+        double value = data[row * colCount + col];
+        if (value == 0) continue;
+        columnIndices[k] = col;
+        values[k] = value;
+        ++k;
+      }
+      rowPointers[row + 1] = k;
+    }
+    return new SparseMatrix(rowCount, colCount, rowPointers, columnIndices, values);
+  }
+
+  /**
+   * Create a {@code SparseMatrix} from coordinate triplets: element {@code (rows[k], cols[k])}
+   * receives {@code values[k]}. Duplicate coordinates are summed, so the triplets of a finite
+   * element or spring system can be passed straight in.
+   *
+   * @param rowCount number of rows
+   * @param colCount number of columns
+   * @param rows row index of each triplet
+   * @param cols column index of each triplet
+   * @param values value of each triplet
+   * @return a new {@code SparseMatrix}
+   */
+  public static @NotNull SparseMatrix fromTriplets(
+      int rowCount,
+      int colCount,
+      int @NotNull [] rows,
+      int @NotNull [] cols,
+      double @NotNull [] values) {
+    if (rows.length != cols.length || rows.length != values.length)
+      throw new IllegalArgumentException("rows, cols and values must have the same length");
+
+    // counting sort by row, then sort each row by column and merge duplicates
+    int[] rowPointers = new int[rowCount + 1];
+    for (int k = 0; k < rows.length; ++k) {
+      Objects.checkIndex(rows[k], rowCount);
+      Objects.checkIndex(cols[k], colCount);
+      ++rowPointers[rows[k] + 1];
+    }
+    for (int row = 0; row < rowCount; ++row) rowPointers[row + 1] += rowPointers[row];
+    int[] next = Arrays.copyOf(rowPointers, rowCount);
+    long[] entries = new long[rows.length]; // (col << 32 | triplet index), sortable per row
+    for (int k = 0; k < rows.length; ++k) entries[next[rows[k]]++] = ((long) cols[k] << 32) | k;
+
+    int[] columnIndices = new int[rows.length];
+    double[] mergedValues = new double[rows.length];
+    int[] mergedPointers = new int[rowCount + 1];
+    int out = 0;
+    for (int row = 0; row < rowCount; ++row) {
+      Arrays.sort(entries, rowPointers[row], rowPointers[row + 1]);
+      int rowStart = out;
+      for (int k = rowPointers[row]; k < rowPointers[row + 1]; ++k) {
+        int col = (int) (entries[k] >>> 32);
+        double value = values[(int) entries[k]];
+        if (out > rowStart && columnIndices[out - 1] == col) mergedValues[out - 1] += value;
+        else {
+          columnIndices[out] = col;
+          mergedValues[out] = value;
+          ++out;
+        }
+      }
+      mergedPointers[row + 1] = out;
+    }
+    return new SparseMatrix(
+        rowCount,
+        colCount,
+        mergedPointers,
+        Arrays.copyOf(columnIndices, out),
+        Arrays.copyOf(mergedValues, out));
+  }
+
+  /**
+   * Convert this {@code SparseMatrix} to a dense {@code Matrix}.
+   *
+   * @return a new {@code Matrix} equal to this {@code SparseMatrix}
+   */
+  public Matrix toMatrix() {
+    double[] data = new double[rowCount * colCount];
+    for (int row = 0; row < rowCount; ++row)
+      for (int k = rowPointers[row]; k < rowPointers[row + 1]; ++k)
+        data[row * colCount + columnIndices[k]] = values[k];
+    return new Matrix(data, rowCount, colCount);
+  }
+
+  /**
+   * Get the number of rows in this {@code SparseMatrix}.
+   *
+   * @return the number of rows in this {@code SparseMatrix}
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Get the number of columns in this {@code SparseMatrix}.
+   *
+   * @return the number of columns in this {@code SparseMatrix}
+   */
+  public int getColumnCount() {
+    return colCount;
+  }
+
+  /**
+   * Get the number of explicitly stored elements in this {@code SparseMatrix}.
+   *
+   * @return the number of stored elements
+   */
+  public int getNonZeroCount() {
+    return values.length;
+  }
+
+  /**
+   * Get the element at row {@code row} and column {@code column}.
+   *
+   * @param row row index of element
+   * @param column column index of element
+   * @return the element at row {@code row} and column {@code column}
+   */
+  public double getValueAt(int row, int column) {
+    Objects.checkIndex(row, rowCount);
+    Objects.checkIndex(column, colCount);
+    int k = Arrays.binarySearch(columnIndices, rowPointers[row], rowPointers[row + 1], column);
+    return k >= 0 ? values[k] : 0;
+  }
+
+  /**
+   * Multiply this {@code SparseMatrix} by the column vector {@code vector}.
+   *
+   * @param vector the vector to multiply by; its length must equal the column count
+   * @return the product as a new array of length {@link #getRowCount()}
+   */
+  public double[] times(double @NotNull [] vector) {
+    return times(vector, new double[rowCount]);
+  }
+
+  /**
+   * Store the product of this {@code SparseMatrix} and the column vector {@code vector} in {@code
+   * dest} without allocating.
+   *
+   * @param vector the vector to multiply by; its length must equal the column count
+   * @param dest array of length {@link #getRowCount()} to store the product in; must not be {@code
+   *     vector}
+   * @return {@code dest}
+   */
+  public double[] times(double @NotNull [] vector, double @NotNull [] dest) {
+    if (vector.length != colCount)
+      throw new IllegalArgumentException("vector.length must equal the column count");
+    if (dest.length != rowCount)
+      throw new IllegalArgumentException("dest.length must equal the row count");
+    if (dest == vector) throw new IllegalArgumentException("dest must not be vector");
+    for (int row = 0; row < rowCount; ++row) {
+      double sum = 0;
+      for (int k = rowPointers[row]; k < rowPointers[row + 1]; ++k)
+        sum += values[k] * vector[columnIndices[k]];
+      dest[row] = sum;
+    }
+    return dest;
+  }
+
+  /**
+   * Solve {@code Ax = b} with a sparse direct factorization. To solve several systems with the
+   * same {@code SparseMatrix}, factor it once with {@link SparseLUDecomposition} instead.
+   *
+   * @param b right-hand side, of length {@link #getRowCount()}
+   * @return the solution {@code x} as a new array
+   */
+  public double[] solve(double @NotNull [] b) {
+    return new SparseLUDecomposition(this).solve(b);
+  }
+
+  int[] getRowPointers() {
+    return rowPointers;
+  }
+
+  int[] getColumnIndices() {
+    return columnIndices;
+  }
+
+  double[] getValues() {
+    return values;
+  }
+}
@@ -0,0 +1,343 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Eigenvalues and eigenvectors of a real symmetric matrix: {@code A = V D V^T} with {@code D}
+ * diagonal and {@code V} orthogonal.
+ *
+ * <p>{@code A} is first reduced to tridiagonal form with Householder reflections ({@code
+ * O(n^3)}), then the tridiagonal matrix is diagonalized with the implicit QL algorithm. The QL
+ * sweeps take {@code O(n^2)} for the eigenvalues, but rotating the eigenvectors along makes them
+ * {@code O(n^3)} as well. A tridiagonal {@code BandedMatrix} skips the reduction, but not that
+ * cost. Eigenvectors are stored one per row, so the rotations of the QL sweeps touch two
+ * contiguous rows at a time.
+ *
+ * <p>Eigenvalues are sorted in ascending order. {@link Lanczos} returns the same type for the few
+ * extreme eigenpairs of a large sparse matrix.
+ */
+public class SymmetricEigenDecomposition {
+  /** QL sweeps allowed per eigenvalue before giving up. */
+  private static final int MAX_SWEEPS = 30;
+  /** Largest {@code |a_ij - a_ji|} accepted as symmetric, as a fraction of {@code max|a_ij|}. */
+  private static final double SYMMETRY_TOLERANCE = 1e-10;
+
+  private final int n; // length of each eigenvector
+  private final double[] eigenvalues; // ascending
+  private final double[] eigenvectors; // eigenvector i is row i
+
+  /**
+   * Decompose a symmetric {@code Matrix}. {@code matrix} is not modified. Elements {@code a_ij}
+   * and {@code a_ji} may differ by rounding, up to {@code 1e-10 * max|a_ij|}.
+   *
+   * @param matrix square symmetric {@code Matrix}
+   */
+  public SymmetricEigenDecomposition(@NotNull Matrix matrix) {
+    if (matrix.getRowCount() != matrix.getColumnCount())
+      throw new IllegalArgumentException("matrix must be square");
+    n = matrix.getRowCount();
+    double[] data = matrix.getData();
+    double largest = 0;
+    for (double value : data) largest = Math.max(largest, Math.abs(value));
+    double tolerance = SYMMETRY_TOLERANCE * largest;
+    for (int row = 0; row < n; ++row)
+      for (int col = row + 1; col < n; ++col)
+        if (!(Math.abs(data[row * n + col] - data[col * n + row]) <= tolerance))
+          throw new IllegalArgumentException("matrix must be symmetric");
+
+    double[] v = data.clone();
+    double[] d = new double[n];
+    double[] e = new double[n];
+    reduceToTridiagonal(n, v, d, e);
+    eigenvalues = d;
+    eigenvectors = transpose(n, v); // columns of V become rows
+    diagonalize(n, eigenvalues, e, eigenvectors);
+  }
+
+  /**
+   * Decompose a symmetric {@code BandedMatrix}. A tridiagonal matrix is diagonalized directly,
+   * without the Householder reduction, though accumulating its eigenvectors still takes {@code
+   * O(n^3)} time and {@code O(n^2)} memory. A wider band is expanded to a dense {@code Matrix}
+   * first.
+   *
+   * @param matrix symmetric {@code BandedMatrix}
+   */
+  public SymmetricEigenDecomposition(@NotNull BandedMatrix matrix) {
+    n = matrix.getRowCount();
+    int bandwidth = matrix.getLowerBandwidth();
+    if (bandwidth != matrix.getUpperBandwidth())
+      throw new IllegalArgumentException("matrix must be symmetric");
+    double largest = 0;
+    for (int row = 0; row < n; ++row)
+      for (int col = Math.max(0, row - bandwidth); col <= Math.min(n - 1, row + bandwidth); ++col)
+        largest = Math.max(largest, Math.abs(matrix.getValueAt(row, col)));
+    double tolerance = SYMMETRY_TOLERANCE * largest;
+    for (int row = 0; row < n; ++row)
+      for (int col = row + 1; col <= Math.min(n - 1, row + bandwidth); ++col)
+        if (!(Math.abs(matrix.getValueAt(row, col) - matrix.getValueAt(col, row)) <= tolerance))
+          throw new IllegalArgumentException("matrix must be symmetric");
+
+    if (bandwidth > 1) {
+      SymmetricEigenDecomposition dense = new SymmetricEigenDecomposition(matrix.toMatrix());
+      eigenvalues = dense.eigenvalues;
+      eigenvectors = dense.eigenvectors;
+      return;
+    }
+    eigenvalues = new double[n];
+    double[] e = new double[n];
+    for (int i = 0; i < n; ++i) {
+      eigenvalues[i] = matrix.getValueAt(i, i);
+      if (i > 0) e[i] = matrix.getValueAt(i, i - 1);
+    }
+    eigenvectors = new double[n * n];
+    for (int i = 0; i < n; ++i) eigenvectors[i * n + i] = 1;
+    diagonalize(n, eigenvalues, e, eigenvectors);
+  }
+
+  /** Wrap eigenpairs that were already computed, such as Ritz pairs from {@link Lanczos}. */
+  SymmetricEigenDecomposition(int n, double[] eigenvalues, double[] eigenvectors) {
+    this.n = n;
+    this.eigenvalues = eigenvalues;
+    this.eigenvectors = eigenvectors;
+  }
+
+  /**
+   * Get the number of eigenpairs held.
+   *
+   * @return the number of eigenvalues; the row count for a full decomposition
+   */
+  public int getEigenvalueCount() {
+    return eigenvalues.length;
+  }
+
+  /**
+   * Get the eigenvalues in ascending order.
+   *
+   * @return a new array of the eigenvalues
+   */
+  public double[] getEigenvalues() {
+    return eigenvalues.clone();
+  }
+
+  /**
+   * Get eigenvalue {@code i}, counting from the smallest.
+   *
+   * @param i index of the eigenvalue
+   * @return the eigenvalue
+   */
+  public double getEigenvalue(int i) {
+    return eigenvalues[Objects.checkIndex(i, eigenvalues.length)];
+  }
+
+  /**
+   * Get the unit eigenvector belonging to {@link #getEigenvalue(int) getEigenvalue(i)}.
+   *
+   * @param i index of the eigenvalue
+   * @return the eigenvector as a new array
+   */
+  public double[] getEigenvector(int i) {
+    Objects.checkIndex(i, eigenvalues.length);
+    double[] output = new double[n];
+    System.arraycopy(eigenvectors, i * n, output, 0, n);
+    return output;
+  }
+
+  /**
+   * Get the eigenvectors as the columns of a {@code Matrix}, in the order of {@link
+   * #getEigenvalues()}.
+   *
+   * @return a new {@code n x k} {@code Matrix}, where {@code k} is {@link #getEigenvalueCount()}
+   */
+  public Matrix getEigenvectors() {
+    int k = eigenvalues.length;
+    double[] data = new double[n * k];
+    for (int i = 0; i < k; ++i)
+      for (int row = 0; row < n; ++row) data[row * k + i] = eigenvectors[i * n + row];
+    return new Matrix(data, n, k);
+  }
+
+  private static double[] transpose(int n, double[] a) {
+    double[] output = new double[n * n];
+    for (int row = 0; row < n; ++row)
+      for (int col = 0; col < n; ++col) output[col * n + row] = a[row * n + col];
+    return output;
+  }
+
+  /**
+   * Householder reduction of the symmetric {@code n x n} matrix in {@code v} to tridiagonal form.
+   * On return {@code d} is the diagonal, {@code e[1..n)} the sub-diagonal, and {@code v} the
+   * orthogonal transformation (row-major, one basis vector per column).
+   */
+  private static void reduceToTridiagonal(int n, double[] v, double[] d, double[] e) {
+    System.arraycopy(v, (n - 1) * n, d, 0, n);
+    for (int i = n - 1; i > 0; --i) {
+      double scale = 0;
+      double h = 0;
+      for (int k = 0; k < i; ++k) scale += Math.abs(d[k]);
+      if (scale == 0) {
+        e[i] = d[i - 1];
+        for (int j = 0; j < i; ++j) {
+          d[j] = v[(i - 1) * n + j];
+          v[i * n + j] = 0;
+          v[j * n + i] = 0;
+        }
+      } else {
+        // generate the Householder vector
+        for (int k = 0; k < i; ++k) {
+          d[k] /= scale;
+          h += d[k] * d[k];
+        }
+        double f = d[i - 1];
+        double g = f > 0 ? -Math.sqrt(h) : Math.sqrt(h);
+        e[i] = scale * g;
+        h -= f * g;
+        d[i - 1] = f - g;
+        for (int j = 0; j < i; ++j) e[j] = 0;
+
+        // apply the similarity transformation to the remaining columns
+        for (int j = 0; j < i; ++j) {
+          f = d[j];
+          v[j * n + i] = f;
+          g = e[j] + v[j * n + j] * f;
+          for (int k = j + 1; k < i; ++k) {
+            g += v[k * n + j] * d[k];
+            e[k] += v[k * n + j] * f;
+          }
+          e[j] = g;
+        }
+        f = 0;
+        for (int j = 0; j < i; ++j) {
+          e[j] /= h;
+          f += e[j] * d[j];
+        }
+        double hh = f / (h + h);
+        for (int j = 0; j < i; ++j) e[j] -= hh * d[j];
+        for (int j = 0; j < i; ++j) {
+          f = d[j];
+          g = e[j];
+          for (int k = j; k < i; ++k) v[k * n + j] -= f * e[k] + g * d[k];
+          d[j] = v[(i - 1) * n + j];
+          v[i * n + j] = 0;
+        }
+      }
+      d[i] = h;
+    }
+
+    // accumulate the transformations
+    for (int i = 0; i < n - 1; ++i) {
+      v[(n - 1) * n + i] = v[i * n + i];
+      v[i * n + i] = 1;
+      double h = d[i + 1];
+      if (h != 0) {
+        for (int k = 0; k <= i; ++k) d[k] = v[k * n + i + 1] / h;
+        for (int j = 0; j <= i; ++j) {
+          double g = 0;
+          for (int k = 0; k <= i; ++k) g += v[k * n + i + 1] * v[k * n + j];
+          for (int k = 0; k <= i; ++k) v[k * n + j] -= g * d[k];
+        }
+      }
+      for (int k = 0; k <= i; ++k) v[k * n + i + 1] = 0;
+    }
+    for (int j = 0; j < n; ++j) {
+      d[j] = v[(n - 1) * n + j];
+      v[(n - 1) * n + j] = 0;
+    }
+    v[(n - 1) * n + n - 1] = 1;
+    e[0] = 0;
+  }
+
+  /**
+   * Implicit QL on the symmetric tridiagonal matrix with diagonal {@code d} and sub-diagonal {@code
+   * e[1..k)}. On return {@code d} holds the eigenvalues in ascending order, and each of the {@code
+   * k} rows of {@code z} (of length {@code n}) has been rotated along, so that starting from the
+   * basis that produced the tridiagonal matrix gives the eigenvectors. {@code e} is destroyed.
+   */
+  static void diagonalize(int n, double[] d, double[] e, double[] z) {
+    int k = d.length;
+    for (int i = 1; i < k; ++i) e[i - 1] = e[i];
+    e[k - 1] = 0;
+
+    double shift = 0;
+    double norm = 0;
+    double epsilon = Math.ulp(1.0);
+    for (int l = 0; l < k; ++l) {
+      norm = Math.max(norm, Math.abs(d[l]) + Math.abs(e[l]));
+      int m = l;
+      while (m < k - 1 && Math.abs(e[m]) > epsilon * norm) ++m;
+      if (m > l) {
+        int sweeps = 0;
+        do {
+          if (++sweeps > MAX_SWEEPS) throw new RuntimeException("eigenvalues did not converge");
+
+          // shift by the eigenvalue of the leading 2x2 block nearer d[l], as EISPACK's tql2 does,
+          // subtracting it from the rest of the block and keeping the total in shift
+          double g = d[l];
+          double p = (d[l + 1] - g) / (2 * e[l]);
+          double r = Math.hypot(p, 1);
+          if (p < 0) r = -r;
+          d[l] = e[l] / (p + r);
+          d[l + 1] = e[l] * (p + r);
+          double dl1 = d[l + 1];
+          double h = g - d[l];
+          for (int i = l + 2; i < k; ++i) d[i] -= h;
+          shift += h;
+
+          // QL sweep from the bottom of the unreduced block
+          p = d[m];
+          double c = 1;
+          double c2 = 1;
+          double c3 = 1;
+          double el1 = e[l + 1];
+          double s = 0;
+          double s2 = 0;
+          for (int i = m - 1; i >= l; --i) {
+            c3 = c2;
+            c2 = c;
+            s2 = s;
+            g = c * e[i];
+            h = c * p;
+            r = Math.hypot(p, e[i]);
+            e[i + 1] = s * r;
+            s = e[i] / r;
+            c = p / r;
+            p = c * d[i] - s * g;
+            d[i + 1] = h + s * (c * g + s * d[i]);
+            rotateRows(z, i * n, (i + 1) * n, n, c, s);
+          }
+          p = -s * s2 * c3 * el1 * e[l] / dl1;
+          e[l] = s * p;
+          d[l] = c * p;
+        } while (Math.abs(e[l]) > epsilon * norm);
+      }
+      d[l] += shift;
+      e[l] = 0;
+    }
+
+    // selection sort, swapping eigenvector rows along with the eigenvalues
+    for (int i = 0; i < k - 1; ++i) {
+      int min = i;
+      for (int j = i + 1; j < k; ++j) if (d[j] < d[min]) min = j;
+      if (min == i) continue;
+      double temp = d[i];
+      d[i] = d[min];
+      d[min] = temp;
+      for (int col = 0; col < n; ++col) {
+        double t = z[i * n + col];
+        z[i * n + col] = z[min * n + col];
+        z[min * n + col] = t;
+      }
+    }
+  }
+
+  /** Rotate the rows of {@code z} at offsets {@code a} and {@code b} by {@code (c, s)}. */
+  private static void rotateRows(double[] z, int a, int b, int length, double c, double s) {
+    for (int col = 0; col < length; ++col) {
+      double x = z[a + col];
+      double y = z[b + col];
+      z[a + col] = c * x - s * y;
+      z[b + col] = s * x + c * y;
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.thomasbreydo.matrix;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.stream.IntStream;
+
+/**
+ * Solve tridiagonal systems with the Thomas algorithm in {@code O(n)}, either one at a time or
+ * many independent systems at once.
+ *
+ * <p>The Thomas algorithm does not pivot. It is stable for diagonally dominant or symmetric
+ * positive-definite systems, which covers spring chains and spline interpolation. For other
+ * tridiagonal systems, use {@link BandedMatrix#tridiagonal} and {@link BandedLUDecomposition}.
+ *
+ * <p>In every method, {@code lower[i]} is the element at {@code (i, i - 1)} ({@code lower[0]} is
+ * ignored), {@code diagonal[i]} the element at {@code (i, i)}, and {@code upper[i]} the element
+ * at {@code (i, i + 1)} ({@code upper[n - 1]} is ignored).
+ */
+public final class TridiagonalSolver {
+  /** Batches with fewer elements than this are solved on the calling thread. */
+  private static final int PARALLEL_ELEMENTS = 1 << 16;
+  /** Systems per parallel task; a multiple of the vector width keeps the inner loops aligned. */
+  private static final int SYSTEMS_PER_TASK = 256;
+
+  private TridiagonalSolver() {}
+
+  /**
+   * Solve one tridiagonal system.
+   *
+   * @param lower sub-diagonal, of length {@code n}
+   * @param diagonal main diagonal, of length {@code n}
+   * @param upper super-diagonal, of length {@code n}
+   * @param rhs right-hand side, of length {@code n}
+   * @return the solution as a new array
+   */
+  public static double[] solve(
+      double @NotNull [] lower,
+      double @NotNull [] diagonal,
+      double @NotNull [] upper,
+      double @NotNull [] rhs) {
+    double[] x = rhs.clone();
+    solveInPlace(lower, diagonal, upper, x, new double[rhs.length]);
+    return x;
+  }
+
+  /**
+   * Solve one tridiagonal system without allocating. Only {@code rhs} and {@code scratch} are
+   * modified.
+   *
+   * @param lower sub-diagonal, of length {@code n}
+   * @param diagonal main diagonal, of length {@code n}
+   * @param upper super-diagonal, of length {@code n}
+   * @param rhs right-hand side, of length {@code n}; receives the solution
+   * @param scratch work array of length {@code n}
+   */
+  public static void solveInPlace(
+      double @NotNull [] lower,
+      double @NotNull [] diagonal,
+      double @NotNull [] upper,
+      double @NotNull [] rhs,
+      double @NotNull [] scratch) {
+    int n = diagonal.length;
+    checkLengths(n, lower, upper, rhs, scratch);
+    // forward sweep: scratch[i] becomes the modified super-diagonal
+    double denominator = checkPivot(diagonal[0]);
+    scratch[0] = upper[0] / denominator;
+    rhs[0] /= denominator;
+    for (int i = 1; i < n; ++i) {
+      denominator = checkPivot(diagonal[i] - lower[i] * scratch[i - 1]);
+      scratch[i] = upper[i] / denominator;
+      rhs[i] = (rhs[i] - lower[i] * rhs[i - 1]) / denominator;
+    }
+    for (int i = n - 2; i >= 0; --i) rhs[i] -= scratch[i] * rhs[i + 1];
+  }
+
+  /**
+   * Solve {@code count} independent {@code n x n} tridiagonal systems in one pass.
+   *
+   * <p>All arrays are interleaved (structure of arrays): element {@code i} of system {@code s} is
+   * at index {@code i * count + s}. The innermost loops then run over systems with unit stride,
+   * which the JIT vectorizes. Large batches are split across the common {@code ForkJoinPool}.
+   *
+   * @param n size of each system
+   * @param count number of systems
+   * @param lower sub-diagonals, of length {@code n * count}
+   * @param diagonal main diagonals, of length {@code n * count}
+   * @param upper super-diagonals, of length {@code n * count}
+   * @param rhs right-hand sides, of length {@code n * count}; receives the solutions
+   * @param scratch work array of length {@code n * count}
+   */
+  public static void solveBatchInPlace(
+      int n,
+      int count,
+      double @NotNull [] lower,
+      double @NotNull [] diagonal,
+      double @NotNull [] upper,
+      double @NotNull [] rhs,
+      double @NotNull [] scratch) {
+    if (n <= 0 || count <= 0) throw new IllegalArgumentException("n and count must be positive");
+    int length = Math.multiplyExact(n, count);
+    if (diagonal.length != length)
+      throw new IllegalArgumentException("arrays must have length n * count");
+    checkLengths(length, lower, upper, rhs, scratch);
+
+    if (length < PARALLEL_ELEMENTS || count <= SYSTEMS_PER_TASK) {
+      solveBatchRange(n, count, 0, count, lower, diagonal, upper, rhs, scratch);
+      return;
+    }
+    int tasks = (count + SYSTEMS_PER_TASK - 1) / SYSTEMS_PER_TASK;
+    IntStream.range(0, tasks)
+        .parallel()
+        .forEach(
+            task -> {
+              int first = task * SYSTEMS_PER_TASK;
+              int end = Math.min(count, first + SYSTEMS_PER_TASK);
+              solveBatchRange(n, count, first, end, lower, diagonal, upper, rhs, scratch);
+            });
+  }
+
+  /** Solve systems {@code [first, end)} of an interleaved batch. */
+  private static void solveBatchRange(
+      int n,
+      int count,
+      int first,
+      int end,
+      double[] lower,
+      double[] diagonal,
+      double[] upper,
+      double[] rhs,
+      double[] scratch) {
+    for (int s = first; s < end; ++s) {
+      double denominator = checkPivot(diagonal[s]);
+      scratch[s] = upper[s] / denominator;
+      rhs[s] /= denominator;
+    }
+    for (int i = 1; i < n; ++i) {
+      int row = i * count;
+      int previous = row - count;
+      for (int s = first; s < end; ++s) {
+        double denominator = diagonal[row + s] - lower[row + s] * scratch[previous + s];
+        scratch[row + s] = upper[row + s] / denominator;
+        rhs[row + s] = (rhs[row + s] - lower[row + s] * rhs[previous + s]) / denominator;
+      }
+      // a zero pivot shows up as a non-finite value; checking afterwards keeps the loop above
+      // branch-free
+      for (int s = first; s < end; ++s)
+        if (!Double.isFinite(rhs[row + s]) || !Double.isFinite(scratch[row + s]))
+          throw new RuntimeException("zero pivot in system " + s + ": singular or needs pivoting");
+    }
+    for (int i = n - 2; i >= 0; --i) {
+      int row = i * count;
+      int next = row + count;
+      for (int s = first; s < end; ++s) rhs[row + s] -= scratch[row + s] * rhs[next + s];
+    }
+  }
+
+  private static double checkPivot(double pivot) {
+    if (pivot == 0 || !Double.isFinite(pivot))
+      throw new RuntimeException("zero pivot: system is singular or needs pivoting");
+    return pivot;
+  }
+
+  private static void checkLengths(int length, double[]... arrays) {
+    for (double[] array : arrays)
+      if (array.length != length) throw new IllegalArgumentException("array lengths differ");
+  }
+}
@@ -0,0 +1,79 @@
+package com.thomasbreydo.matrix;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link RowKernels} written against the incubating Vector API, so that each loop iteration
+ * handles a full SIMD register (4 doubles with AVX2, 8 with AVX-512). Only loaded when {@code
+ * jdk.incubator.vector} is present; see {@link RowKernels}. Every lane rounds exactly like the
+ * scalar loop (multiply-adds are not fused), so results do not depend on the backend.
+ */
+final class VectorRowKernels implements RowKernels {
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+
+  @Override
+  public void scale(double[] data, int offset, int length, double scalar) {
+    int i = 0;
+    for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length())
+      DoubleVector.fromArray(SPECIES, data, offset + i).mul(scalar).intoArray(data, offset + i);
+    for (; i < length; ++i) data[offset + i] *= scalar;
+  }
+
+  @Override
+  public void divide(double[] data, int offset, int length, double divisor) {
+    int i = 0;
+    for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length())
+      DoubleVector.fromArray(SPECIES, data, offset + i).div(divisor).intoArray(data, offset + i);
+    for (; i < length; ++i) data[offset + i] /= divisor;
+  }
+
+  @Override
+  public void add(double[] source, int sourceOffset, double[] dest, int destOffset, int length) {
+    int i = 0;
+    for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+      DoubleVector s = DoubleVector.fromArray(SPECIES, source, sourceOffset + i);
+      DoubleVector d = DoubleVector.fromArray(SPECIES, dest, destOffset + i);
+      d.add(s).intoArray(dest, destOffset + i);
+    }
+    for (; i < length; ++i) dest[destOffset + i] += source[sourceOffset + i];
+  }
+
+  @Override
+  public void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length) {
+    DoubleVector av = DoubleVector.broadcast(SPECIES, a);
+    int i = 0;
+    for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+      DoubleVector xv = DoubleVector.fromArray(SPECIES, x, xOffset + i);
+      DoubleVector yv = DoubleVector.fromArray(SPECIES, y, yOffset + i);
+      yv.add(xv.mul(av)).intoArray(y, yOffset + i);
+    }
+    for (; i < length; ++i) y[yOffset + i] += a * x[xOffset + i];
+  }
+
+  @Override
+  public void axpy(float a, float[] x, int xOffset, float[] y, int yOffset, int length) {
+    FloatVector av = FloatVector.broadcast(FLOAT_SPECIES, a);
+    int i = 0;
+    for (int bound = FLOAT_SPECIES.loopBound(length); i < bound; i += FLOAT_SPECIES.length()) {
+      FloatVector xv = FloatVector.fromArray(FLOAT_SPECIES, x, xOffset + i);
+      FloatVector yv = FloatVector.fromArray(FLOAT_SPECIES, y, yOffset + i);
+      yv.add(xv.mul(av)).intoArray(y, yOffset + i);
+    }
+    for (; i < length; ++i) y[yOffset + i] += a * x[xOffset + i];
+  }
+
+  @Override
+  public void sum(
+      double[] a, int aOffset, double[] b, int bOffset, double[] dest, int destOffset, int length) {
+    int i = 0;
+    for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+      DoubleVector av = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+      DoubleVector bv = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+      av.add(bv).intoArray(dest, destOffset + i);
+    }
+    for (; i < length; ++i) dest[destOffset + i] = a[aOffset + i] + b[bOffset + i];
+  }
+}
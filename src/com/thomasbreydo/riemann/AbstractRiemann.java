@@ -6,21 +6,21 @@ import org.opensourcephysics.frames.PlotFrame;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.geom.Path2D;
-import java.util.Iterator;
 
 public abstract class AbstractRiemann {
   public Function func;
   public PlotFrame plotFrame;
   public double xLower;
   public double xUpper;
-  public int subintervals; // number of subintervals
+  public long subintervals; // number of subintervals
   final Trail polyTrail = new Trail();
   final Trail accTrail = new Trail();
   static final double YMIN = -25;
   static final double YMAX = 25;
+  private SampleGrid sampleGrid;
 
   public AbstractRiemann(
-      Function func, PlotFrame plotFrame, double xLower, double xUpper, int subintervals) {
+      Function func, PlotFrame plotFrame, double xLower, double xUpper, long subintervals) {
     this.func = func;
     this.plotFrame = plotFrame;
     this.xLower = xLower;
@@ -32,14 +32,96 @@ public abstract class AbstractRiemann {
     return (xUpper - xLower) / subintervals;
   }
 
+  /**
+   * Get the {@code i}-th border, {@code xLower + i * dx}. Each border is computed from its index
+   * rather than by adding {@code dx} repeatedly, so rounding errors do not accumulate, and the last
+   * border is exactly {@code xUpper}.
+   *
+   * @param i index of the border, from {@code 0} to {@code subintervals}
+   * @param dx width of each subinterval, from {@link #calculateDeltaX()}
+   * @return the {@code i}-th border
+   */
+  double border(long i, double dx) {
+    return i == subintervals ? xUpper : xLower + i * dx;
+  }
+
+  /**
+   * Get the samples of {@code func} at every border. They are cached, so {@code func} is only
+   * evaluated again if it, the interval or the number of subintervals has changed since the last
+   * call. If only the number of subintervals has doubled, the cached samples are refined, so {@code
+   * func} is evaluated only at the new midpoints.
+   *
+   * @return the samples at every border
+   */
+  public SampleGrid getSampleGrid() {
+    if (sampleGrid != null && sampleGrid.matches(func, xLower, xUpper, subintervals))
+      return sampleGrid;
+    if (sampleGrid != null
+        && subintervals % 2 == 0
+        && sampleGrid.matches(func, xLower, xUpper, subintervals / 2))
+      sampleGrid = sampleGrid.refine();
+    else sampleGrid = new SampleGrid(func, xLower, xUpper, Math.toIntExact(subintervals));
+    return sampleGrid;
+  }
+
+  /**
+   * Get the sum of every subinterval area, adding them one at a time, left to right. If the
+   * borders have already been sampled by {@link #getSampleGrid()}, those samples are reused;
+   * otherwise {@code func} is evaluated on the fly, once per border, with nothing stored.
+   *
+   * @return the estimated area over {@code [xLower, xUpper]}
+   */
   public double getIntervalArea() {
     double area = 0;
-    for (BorderPair bp : borderPairs()) area += getSubintervalArea(bp.L, bp.R);
+    if (sampleGrid != null && sampleGrid.matches(func, xLower, xUpper, subintervals)) {
+      for (int i = 0; i < subintervals; ++i) area += getSubintervalArea(sampleGrid, i);
+      return area;
+    }
+    double dx = calculateDeltaX();
+    double left = xLower;
+    double leftValue = func.eval(left);
+    for (long i = 1; i <= subintervals; ++i) {
+      double right = border(i, dx);
+      double rightValue = func.eval(right); // becomes the next subinterval's leftValue
+      area += getSubintervalArea(left, right, leftValue, rightValue);
+      left = right;
+      leftValue = rightValue;
+    }
     return area;
   }
 
+  /**
+   * Get the sum of every subinterval area, computed with {@code summation}.
+   *
+   * @param summation the summation strategy to use
+   * @return the estimated area over {@code [xLower, xUpper]}
+   */
+  public double getIntervalArea(Summation summation) {
+    switch (summation) {
+      case SEQUENTIAL:
+        return getIntervalArea();
+      case PARALLEL:
+        return RiemannSum.sum(this);
+      default:
+        throw new IllegalArgumentException("unknown summation: " + summation);
+    }
+  }
+
+  /** Strategies for adding up the subinterval areas in {@link #getIntervalArea(Summation)}. */
+  public enum Summation {
+    /** Add the areas one at a time, left to right, on the calling thread. */
+    SEQUENTIAL,
+    /**
+     * Split the subintervals across threads and combine their areas with Kahan-compensated leaves
+     * and a fixed pairwise tree. More accurate than {@link #SEQUENTIAL}, and bit-identical for any
+     * number of threads. {@link #getSubintervalArea} must be safe to call from several threads.
+     */
+    PARALLEL
+  }
+
   public void drawRiemannSlices() {
-    for (BorderPair bp : borderPairs()) drawSlice(bp.L, bp.R);
+    SampleGrid grid = getSampleGrid();
+    for (int i = 0; i < subintervals; ++i) drawSlice(grid, i);
   }
 
   public void configPlotFrame() {
@@ -63,23 +145,58 @@ public abstract class AbstractRiemann {
 
   public void plotPolynomial(int nPoints) {
     double dx = (xUpper - xLower) / (nPoints - 1);
-    for (double x = xLower; x <= xUpper; x += dx) {
+    for (int i = 0; i < nPoints; ++i) {
+      double x = i == nPoints - 1 ? xUpper : xLower + i * dx;
       polyTrail.addPoint(x, func.eval(x));
     }
   }
 
   public void plotAccFunc() {
     accTrail.addPoint(xLower, 0);
+    SampleGrid grid = getSampleGrid();
     double area = 0;
-    for (BorderPair bp : borderPairs()) {
-      area += getSubintervalArea(bp.L, bp.R);
-      accTrail.addPoint(bp.R, area);
+    for (int i = 0; i < subintervals; ++i) {
+      area += getSubintervalArea(grid, i);
+      accTrail.addPoint(grid.getNode(i + 1), area);
     }
   }
 
   public abstract double getSubintervalArea(double leftBorder, double rightBorder);
 
-  public abstract void drawSlice(double leftBorder, double rightBorder);
+  /**
+   * Get the area of the subinterval {@code [leftBorder, rightBorder]} from the values of {@code
+   * func} at its borders, without evaluating {@code func}. Must equal {@code
+   * getSubintervalArea(leftBorder, rightBorder)} when the values are {@code func}'s.
+   *
+   * @param leftBorder left end of the subinterval
+   * @param rightBorder right end of the subinterval
+   * @param leftValue {@code func.eval(leftBorder)}
+   * @param rightValue {@code func.eval(rightBorder)}
+   * @return the area of the subinterval
+   */
+  public abstract double getSubintervalArea(
+      double leftBorder, double rightBorder, double leftValue, double rightValue);
+
+  /**
+   * Get the area of subinterval {@code i} from the samples in {@code grid}, without evaluating
+   * {@code func}.
+   *
+   * @param grid samples at every border
+   * @param i index of the subinterval
+   * @return the area of subinterval {@code i}
+   */
+  public double getSubintervalArea(SampleGrid grid, int i) {
+    return getSubintervalArea(
+        grid.getNode(i), grid.getNode(i + 1), grid.getSample(i), grid.getSample(i + 1));
+  }
+
+  /**
+   * Draw subinterval {@code i} from the samples in {@code grid}, without evaluating {@code func}.
+   *
+   * @param grid samples at every border
+   * @param i index of the subinterval
+   */
+  public abstract void drawSlice(SampleGrid grid, int i);
 
   void drawPath(double[] xCoords, double[] yCoords) {
     if (xCoords.length != yCoords.length) {
@@ -93,69 +210,4 @@ public abstract class AbstractRiemann {
     path.closePath(); // draw back to start
     plotFrame.addDrawable(new DrawableShape(path, 0, 0));
   }
-
-  Iterable<BorderPair> borderPairs() {
-    return new BorderPairIterable(this);
-  }
-
-  static class BorderPair {
-    public double L;
-    public double R;
-  }
-
-  static class BorderPairIterable implements Iterable<BorderPair> {
-    final AbstractRiemann RIEMANN;
-
-    public BorderPairIterable(AbstractRiemann riemann) {
-      this.RIEMANN = riemann;
-    }
-
-    /**
-     * Returns an iterator over elements of type {@code T}.
-     *
-     * @return an Iterator.
-     */
-    @Override
-    public Iterator<BorderPair> iterator() {
-      return new BorderPairIterator(RIEMANN);
-    }
-
-    static class BorderPairIterator implements Iterator<BorderPair> {
-      final double X_LOWER;
-      final double DX;
-      final int SUBINTERVALS;
-      int i = 0;
-
-      public BorderPairIterator(AbstractRiemann riemann) {
-        X_LOWER = riemann.xLower;
-        DX = riemann.calculateDeltaX();
-        SUBINTERVALS = riemann.subintervals;
-      }
-
-      /**
-       * Returns {@code true} if the iteration has more elements. (In other words, returns {@code
-       * true} if {@link #next} would return an element rather than throwing an exception.)
-       *
-       * @return {@code true} if the iteration has more elements
-       */
-      @Override
-      public boolean hasNext() {
-        return i < SUBINTERVALS;
-      }
-
-      /**
-       * Returns the next element in the iteration.
-       *
-       * @return the next element in the iteration
-       */
-      @Override
-      public BorderPair next() {
-        BorderPair bp = new BorderPair();
-        bp.L = X_LOWER + DX * i;
-        bp.R = bp.L + DX;
-        ++i;
-        return bp;
-      }
-    }
-  }
 }
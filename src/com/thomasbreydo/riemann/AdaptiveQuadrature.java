@@ -0,0 +1,136 @@
+package com.thomasbreydo.riemann;
+
+import java.util.PriorityQueue;
+
+/**
+ * Base class for globally adaptive integrators. Instead of cutting {@code [xLower, xUpper]} into
+ * equal subintervals, the interval is kept as a set of segments, each with its own area and error
+ * estimate, and the segment with the largest error is bisected until the total error is within
+ * tolerance. Evaluations are spent only where the function is hard to integrate, such as near a
+ * singular derivative, so a smooth function needs far fewer of them than a uniform rule.
+ *
+ * <p>Iteration stops when the estimated error is at most {@code max(absoluteTolerance,
+ * relativeTolerance * |area|)}, or before a bisection would exceed the evaluation budget.
+ */
+public abstract class AdaptiveQuadrature {
+  double absoluteTolerance = 1e-10;
+  double relativeTolerance = 1e-10;
+  int maxEvaluations = 100_000;
+
+  AdaptiveQuadrature() {}
+
+  /**
+   * Set the absolute error at which integration stops. The default is {@code 1e-10}.
+   *
+   * @param tolerance non-negative tolerance
+   * @return this integrator
+   */
+  public AdaptiveQuadrature setAbsoluteTolerance(double tolerance) {
+    if (!(tolerance >= 0)) throw new IllegalArgumentException("tolerance must be non-negative");
+    absoluteTolerance = tolerance;
+    return this;
+  }
+
+  /**
+   * Set the error, relative to the area, at which integration stops. The default is {@code
+   * 1e-10}.
+   *
+   * @param tolerance non-negative tolerance
+   * @return this integrator
+   */
+  public AdaptiveQuadrature setRelativeTolerance(double tolerance) {
+    if (!(tolerance >= 0)) throw new IllegalArgumentException("tolerance must be non-negative");
+    relativeTolerance = tolerance;
+    return this;
+  }
+
+  /**
+   * Set the maximum number of function evaluations. The default is {@code 100000}.
+   *
+   * @param maxEvaluations evaluation budget, at least enough for the first estimate
+   * @return this integrator
+   */
+  public AdaptiveQuadrature setMaxEvaluations(int maxEvaluations) {
+    if (maxEvaluations < initialEvaluations())
+      throw new IllegalArgumentException(
+          "maxEvaluations must be at least " + initialEvaluations());
+    this.maxEvaluations = maxEvaluations;
+    return this;
+  }
+
+  /**
+   * Integrate {@code func} over {@code [xLower, xUpper]}.
+   *
+   * @param func the function to integrate
+   * @param xLower left end of the interval
+   * @param xUpper right end of the interval
+   * @return the estimated area, with its error and cost
+   */
+  public QuadratureResult integrate(Function func, double xLower, double xUpper) {
+    if (!(Double.isFinite(xLower) && Double.isFinite(xUpper)))
+      throw new IllegalArgumentException("xLower and xUpper must be finite");
+    PriorityQueue<Segment> segments = // largest error first
+        new PriorityQueue<>((s, t) -> Double.compare(t.error, s.error));
+    Segment whole = estimate(func, xLower, xUpper);
+    segments.add(whole);
+    double area = whole.area;
+    double error = whole.error;
+    int evaluationCount = initialEvaluations();
+    boolean converged = error <= tolerance(area);
+    while (!converged && evaluationCount + splitEvaluations() <= maxEvaluations) {
+      Segment worst = segments.peek();
+      double mid = 0.5 * (worst.left + worst.right);
+      if (mid == worst.left || mid == worst.right) break; // too narrow to bisect
+      segments.poll();
+      Segment[] halves = split(func, worst, mid);
+      evaluationCount += splitEvaluations();
+      area += halves[0].area + halves[1].area - worst.area;
+      error += halves[0].error + halves[1].error - worst.error;
+      segments.add(halves[0]);
+      segments.add(halves[1]);
+      converged = error <= tolerance(area);
+      if (converged) {
+        // the running sums may have drifted, so confirm with fresh ones
+        area = 0;
+        error = 0;
+        for (Segment segment : segments) {
+          area += segment.area;
+          error += segment.error;
+        }
+        converged = error <= tolerance(area);
+      }
+    }
+    return new QuadratureResult(converged, area, error, evaluationCount, segments.size());
+  }
+
+  private double tolerance(double area) {
+    return Math.max(absoluteTolerance, relativeTolerance * Math.abs(area));
+  }
+
+  /** Number of evaluations made by {@link #estimate}. */
+  abstract int initialEvaluations();
+
+  /** Number of evaluations made by {@link #split}. */
+  abstract int splitEvaluations();
+
+  /** Estimate the area of {@code [left, right]} from scratch. */
+  abstract Segment estimate(Function func, double left, double right);
+
+  /** Estimate the areas of the two halves of {@code segment}, which meet at {@code mid}. */
+  abstract Segment[] split(Function func, Segment segment, double mid);
+
+  /** A piece of the interval, with its area and error estimates. */
+  static class Segment {
+    final double left;
+    final double right;
+    final double area;
+    final double error;
+
+    Segment(double left, double right, double area, double error) {
+      this.left = left;
+      this.right = right;
+      this.area = area;
+      this.error = error;
+    }
+  }
+}
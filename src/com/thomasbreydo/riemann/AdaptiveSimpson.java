@@ -0,0 +1,58 @@
+package com.thomasbreydo.riemann;
+
+/**
+ * Adaptive Simpson integration. Each segment is estimated with Simpson's rule on the whole segment
+ * and on its two halves (five samples); their difference estimates the error, and one Richardson
+ * step improves the area to {@code O(h^6)}. The five samples are kept, so bisecting a segment
+ * reuses them and evaluates only four new quarter points.
+ */
+public class AdaptiveSimpson extends AdaptiveQuadrature {
+  @Override
+  int initialEvaluations() {
+    return 5;
+  }
+
+  @Override
+  int splitEvaluations() {
+    return 4;
+  }
+
+  @Override
+  Segment estimate(Function func, double left, double right) {
+    double mid = 0.5 * (left + right);
+    return segment(func, left, right, func.eval(left), func.eval(mid), func.eval(right));
+  }
+
+  @Override
+  Segment[] split(Function func, Segment segment, double mid) {
+    SimpsonSegment s = (SimpsonSegment) segment;
+    return new Segment[] {
+      segment(func, s.left, mid, s.samples[0], s.samples[1], s.samples[2]),
+      segment(func, mid, s.right, s.samples[2], s.samples[3], s.samples[4])
+    };
+  }
+
+  /** Estimate {@code [left, right]} from its end and middle samples plus two new quarter points. */
+  private static SimpsonSegment segment(
+      Function func, double left, double right, double fLeft, double fMid, double fRight) {
+    double mid = 0.5 * (left + right);
+    double[] samples = {
+      fLeft, func.eval(0.5 * (left + mid)), fMid, func.eval(0.5 * (mid + right)), fRight
+    };
+    double width = right - left;
+    double coarse = width / 6 * (fLeft + 4 * fMid + fRight);
+    double fine = width / 12 * (fLeft + 4 * samples[1] + 2 * fMid + 4 * samples[3] + fRight);
+    double correction = (fine - coarse) / 15;
+    return new SimpsonSegment(left, right, fine + correction, Math.abs(correction), samples);
+  }
+
+  /** A segment with its samples at the ends, the middle and the two quarter points. */
+  private static final class SimpsonSegment extends Segment {
+    final double[] samples;
+
+    SimpsonSegment(double left, double right, double area, double error, double[] samples) {
+      super(left, right, area, error);
+      this.samples = samples;
+    }
+  }
+}
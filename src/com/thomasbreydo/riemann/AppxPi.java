@@ -20,8 +20,11 @@ public class AppxPi {
     System.out.println("Function: sqrt(1 - X^2)");
     System.out.println("Interval: " + L + " to " + R);
     System.out.println("Subintervals: " + subintervals);
-    double appx = trapPlot.getIntervalArea();
+    double appx = trapPlot.getIntervalArea(AbstractRiemann.Summation.PARALLEL);
     System.out.println("Trapezoid rule est. area: " + String.format("%.2f", appx));
     System.out.println("Approximation of π: " + 2 * appx);
+    QuadratureResult adaptive = new GaussKronrod().integrate(func, L, R);
+    System.out.println("Gauss-Kronrod: " + adaptive);
+    System.out.println("Approximation of π: " + 2 * adaptive.getArea());
   }
 }
@@ -1,34 +1,99 @@
 package com.thomasbreydo.riemann;
 
+import org.dalton.polyfun.Coef;
 import org.dalton.polyfun.Polynomial;
 
 import java.util.function.DoubleUnaryOperator;
 
+/**
+ * A real function of one variable, specialized when it is constructed so that {@link #eval} is a
+ * single call with no branching. A {@code Polynomial} with numeric coefficients is lowered to an
+ * array of {@code double}s and evaluated by Horner's method, instead of walking polyfun's {@code
+ * Coef} and {@code Term} objects on every call.
+ */
 public class Function {
-  Polynomial p;
-  DoubleUnaryOperator o;
+  private final DoubleUnaryOperator evaluator;
+  private final Object source; // the Polynomial or DoubleUnaryOperator, for toString
 
   Function(Polynomial polynomial) {
-    p = polynomial;
+    this(polynomial, false);
+  }
+
+  /**
+   * Initialize this {@code Function} from {@code polynomial}. Numeric coefficients are copied now,
+   * so later changes to {@code polynomial} are not seen.
+   *
+   * @param polynomial the polynomial to evaluate
+   * @param fused if {@code true}, evaluate each Horner step with one correctly rounded {@link
+   *     Math#fma}, which is more accurate; it is only fast where the JVM uses the CPU's FMA
+   *     instruction, and otherwise falls back to a software path hundreds of times slower
+   */
+  Function(Polynomial polynomial, boolean fused) {
+    double[] coefficients = coefficients(polynomial);
+    if (coefficients == null) evaluator = polynomial::eval;
+    else if (fused) evaluator = new FusedHorner(coefficients);
+    else evaluator = new Horner(coefficients);
+    source = polynomial;
   }
 
   Function(DoubleUnaryOperator operator) {
-    o = operator;
+    evaluator = operator;
+    source = operator;
   }
 
   public double eval(double x) {
-    if ((o != null) == (p != null)) throw new RuntimeException();
-    if (o != null) {
-      return o.applyAsDouble(x);
-    }
-    return p.eval(x);
+    return evaluator.applyAsDouble(x);
   }
 
   public String toString() {
-    if ((o != null) == (p != null)) throw new RuntimeException();
-    if (o != null) {
-      return o.toString();
+    return source.toString();
+  }
+
+  /**
+   * Get the coefficients of {@code polynomial}, constant first, or {@code null} if any of them is
+   * symbolic.
+   */
+  private static double[] coefficients(Polynomial polynomial) {
+    Coef[] coefs = polynomial.getCoefs();
+    if (coefs == null || coefs.length == 0) return null;
+    double[] coefficients = new double[coefs.length];
+    for (int i = 0; i < coefs.length; ++i) {
+      // the cases getConstantAt0Term accepts; a zero Coef may have no terms at all
+      if (!coefs[i].isZero() && !coefs[i].isConstantCoef()) return null;
+      coefficients[i] = coefs[i].getConstantAt0Term();
+    }
+    return coefficients;
+  }
+
+  /** {@code c[0] + x (c[1] + x (c[2] + ...))}, one multiply and one add per coefficient. */
+  private static final class Horner implements DoubleUnaryOperator {
+    private final double[] coefficients;
+
+    Horner(double[] coefficients) {
+      this.coefficients = coefficients;
+    }
+
+    @Override
+    public double applyAsDouble(double x) {
+      double y = coefficients[coefficients.length - 1];
+      for (int i = coefficients.length - 2; i >= 0; --i) y = y * x + coefficients[i];
+      return y;
+    }
+  }
+
+  /** {@link Horner} with each multiply-add fused into one rounding. */
+  private static final class FusedHorner implements DoubleUnaryOperator {
+    private final double[] coefficients;
+
+    FusedHorner(double[] coefficients) {
+      this.coefficients = coefficients;
+    }
+
+    @Override
+    public double applyAsDouble(double x) {
+      double y = coefficients[coefficients.length - 1];
+      for (int i = coefficients.length - 2; i >= 0; --i) y = Math.fma(y, x, coefficients[i]);
+      return y;
     }
-    return p.toString();
   }
 }
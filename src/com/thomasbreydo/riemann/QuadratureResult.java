@@ -0,0 +1,71 @@
+package com.thomasbreydo.riemann;
+
+/** The outcome of one run of an {@link AdaptiveQuadrature}. */
+public class QuadratureResult {
+  private final boolean converged;
+  private final double area;
+  private final double errorEstimate;
+  private final int evaluationCount;
+  private final int segmentCount;
+
+  QuadratureResult(
+      boolean converged, double area, double errorEstimate, int evaluationCount, int segmentCount) {
+    this.converged = converged;
+    this.area = area;
+    this.errorEstimate = errorEstimate;
+    this.evaluationCount = evaluationCount;
+    this.segmentCount = segmentCount;
+  }
+
+  /**
+   * Check whether the estimated error reached the integrator's tolerance.
+   *
+   * @return {@code true} if the integrator converged
+   */
+  public boolean isConverged() {
+    return converged;
+  }
+
+  /**
+   * Get the estimated area.
+   *
+   * @return the estimated area
+   */
+  public double getArea() {
+    return area;
+  }
+
+  /**
+   * Get the estimated absolute error of {@link #getArea()}.
+   *
+   * @return the estimated absolute error
+   */
+  public double getErrorEstimate() {
+    return errorEstimate;
+  }
+
+  /**
+   * Get the number of times the function was evaluated.
+   *
+   * @return the number of evaluations
+   */
+  public int getEvaluationCount() {
+    return evaluationCount;
+  }
+
+  /**
+   * Get the number of segments the interval was split into.
+   *
+   * @return the number of segments
+   */
+  public int getSegmentCount() {
+    return segmentCount;
+  }
+
+  @Override
+  public String toString() {
+    return "%s after %d evaluations (area %.15g, estimated error %.3g)"
+        .formatted(
+            converged ? "converged" : "did not converge", evaluationCount, area, errorEstimate);
+  }
+}
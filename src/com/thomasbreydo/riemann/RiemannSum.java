@@ -0,0 +1,92 @@
+package com.thomasbreydo.riemann;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Multi-threaded, deterministic summation of the subinterval areas of an {@link AbstractRiemann}.
+ *
+ * <p>The subintervals are cut into leaves of {@value #LEAF_SIZE} consecutive subintervals, each
+ * summed with Kahan compensation. The leaf sums are then added pairwise along a binary tree that
+ * always splits a range of leaves at its midpoint. The shape of that tree depends only on the
+ * number of subintervals, so the threads of the common {@link ForkJoinPool} only decide who adds
+ * what, not in which order: the result is bit-identical for any number of threads. The rounding
+ * error grows like {@code O(log n)} rather than {@code O(n)} for a running sum.
+ */
+final class RiemannSum {
+  /** Subintervals summed with Kahan compensation before entering the pairwise tree. */
+  static final int LEAF_SIZE = 1 << 12;
+  /** Smallest range of leaves worth forking a task for. */
+  private static final long LEAVES_PER_TASK = 16;
+
+  private RiemannSum() {}
+
+  /** Sum every subinterval area of {@code riemann}. */
+  static double sum(AbstractRiemann riemann) {
+    long leafCount = (riemann.subintervals + LEAF_SIZE - 1) / LEAF_SIZE;
+    if (leafCount == 0) return 0;
+    SumTask task = new SumTask(riemann, riemann.calculateDeltaX(), 0, leafCount);
+    if (leafCount <= LEAVES_PER_TASK) return task.compute();
+    return ForkJoinPool.commonPool().invoke(task);
+  }
+
+  /** Sum leaves {@code [first, end)} pairwise, on the calling thread. */
+  private static double pairwise(AbstractRiemann riemann, double dx, long first, long end) {
+    if (end - first == 1) return leaf(riemann, dx, first);
+    long mid = (first + end) >>> 1;
+    return pairwise(riemann, dx, first, mid) + pairwise(riemann, dx, mid, end);
+  }
+
+  /**
+   * Sum the subintervals of one leaf with Kahan compensation. Each border inside the leaf is
+   * evaluated once; a border between two leaves is evaluated by both.
+   */
+  private static double leaf(AbstractRiemann riemann, double dx, long leaf) {
+    long first = leaf * LEAF_SIZE;
+    long end = Math.min(first + LEAF_SIZE, riemann.subintervals);
+    double sum = 0;
+    double compensation = 0;
+    double left = riemann.border(first, dx);
+    double leftValue = riemann.func.eval(left);
+    for (long i = first + 1; i <= end; ++i) {
+      double right = riemann.border(i, dx);
+      double rightValue = riemann.func.eval(right);
+      double term = riemann.getSubintervalArea(left, right, leftValue, rightValue) - compensation;
+      double next = sum + term;
+      compensation = (next - sum) - term;
+      sum = next;
+      left = right;
+      leftValue = rightValue;
+    }
+    return sum;
+  }
+
+  /** Split a range of leaves at its midpoint until it is small enough to sum directly. */
+  private static final class SumTask extends RecursiveTask<Double> {
+    private static final long serialVersionUID = 1L;
+
+    private final AbstractRiemann riemann;
+    private final double dx;
+    private final long first;
+    private final long end;
+
+    SumTask(AbstractRiemann riemann, double dx, long first, long end) {
+      this.riemann = riemann;
+      this.dx = dx;
+      this.first = first;
+      this.end = end;
+    }
+
+    @Override
+    protected Double compute() {
+      if (end - first <= LEAVES_PER_TASK) return pairwise(riemann, dx, first, end);
+      // the same split as pairwise, so the tree has the same shape however it is scheduled
+      long mid = (first + end) >>> 1;
+      SumTask left = new SumTask(riemann, dx, first, mid);
+      SumTask right = new SumTask(riemann, dx, mid, end);
+      right.fork();
+      double leftSum = left.compute();
+      return leftSum + right.join();
+    }
+  }
+}
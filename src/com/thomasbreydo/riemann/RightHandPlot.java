@@ -5,7 +5,7 @@ import org.opensourcephysics.frames.PlotFrame;
 
 public class RightHandPlot extends AbstractRiemann {
   public RightHandPlot(
-      Function func, PlotFrame plotFrame, double xLower, double xUpper, int subintervals) {
+      Function func, PlotFrame plotFrame, double xLower, double xUpper, long subintervals) {
     super(func, plotFrame, xLower, xUpper, subintervals);
   }
 
@@ -15,10 +15,16 @@ public class RightHandPlot extends AbstractRiemann {
   }
 
   @Override
-  public void drawSlice(double leftBorder, double rightBorder) {
-    double height = func.eval(rightBorder);
-    drawPath(
-        new double[] {leftBorder, leftBorder, rightBorder, rightBorder},
-        new double[] {0, height, height, 0});
+  public double getSubintervalArea(
+      double leftBorder, double rightBorder, double leftValue, double rightValue) {
+    return (rightBorder - leftBorder) * rightValue;
+  }
+
+  @Override
+  public void drawSlice(SampleGrid grid, int i) {
+    double left = grid.getNode(i);
+    double right = grid.getNode(i + 1);
+    double height = grid.getSample(i + 1);
+    drawPath(new double[] {left, left, right, right}, new double[] {0, height, height, 0});
   }
 }
@@ -0,0 +1,222 @@
+package com.thomasbreydo.riemann;
+
+/**
+ * Samples of a {@link Function} at the borders of {@code n} equal subintervals of {@code [xLower,
+ * xUpper]}, each evaluated exactly once. Every rule is computed from the same samples: left-hand,
+ * right-hand, trapezoid, composite Simpson and Romberg extrapolation.
+ *
+ * <p>Nodes are computed as {@code xLower + i * dx} (the last one is exactly {@code xUpper}), like
+ * the borders of {@link AbstractRiemann}, so a rule here gives bit-for-bit the same area as the
+ * matching plot. {@link #refine()} halves {@code dx}: every old node is also a node of the finer
+ * grid, so its sample is copied, and only the {@code n} new midpoints are evaluated.
+ */
+public class SampleGrid {
+  private final Function func;
+  private final double xLower;
+  private final double xUpper;
+  private final int subintervals;
+  private final double dx;
+  private final double[] samples; // samples[i] = func.eval(getNode(i))
+
+  /**
+   * Initialize this {@code SampleGrid}, evaluating {@code func} at all {@code subintervals + 1}
+   * nodes.
+   *
+   * @param func the function to sample
+   * @param xLower left end of the interval
+   * @param xUpper right end of the interval
+   * @param subintervals number of subintervals, at least one
+   */
+  public SampleGrid(Function func, double xLower, double xUpper, int subintervals) {
+    this(func, xLower, xUpper, subintervals, new double[checkCount(subintervals) + 1]);
+    for (int i = 0; i <= subintervals; ++i) samples[i] = func.eval(getNode(i));
+  }
+
+  private SampleGrid(
+      Function func, double xLower, double xUpper, int subintervals, double[] samples) {
+    this.func = func;
+    this.xLower = xLower;
+    this.xUpper = xUpper;
+    this.subintervals = subintervals;
+    this.samples = samples;
+    dx = (xUpper - xLower) / subintervals;
+  }
+
+  private static int checkCount(int subintervals) {
+    if (subintervals <= 0 || subintervals == Integer.MAX_VALUE)
+      throw new IllegalArgumentException("subintervals must be in [1, 2^31 - 2]");
+    return subintervals;
+  }
+
+  /**
+   * Check whether this {@code SampleGrid} was built for the given function, interval and
+   * subinterval count.
+   */
+  boolean matches(Function func, double xLower, double xUpper, long subintervals) {
+    return this.func == func
+        && this.xLower == xLower
+        && this.xUpper == xUpper
+        && this.subintervals == subintervals;
+  }
+
+  /**
+   * Get the number of subintervals.
+   *
+   * @return the number of subintervals
+   */
+  public int getSubintervalCount() {
+    return subintervals;
+  }
+
+  /**
+   * Get the {@code i}-th node, {@code xLower + i * dx}.
+   *
+   * @param i index of the node, from {@code 0} to {@link #getSubintervalCount()}
+   * @return the {@code i}-th node
+   */
+  public double getNode(int i) {
+    if (i == subintervals) return xUpper;
+    return xLower + i * dx;
+  }
+
+  /**
+   * Get the function's value at the {@code i}-th node.
+   *
+   * @param i index of the node, from {@code 0} to {@link #getSubintervalCount()}
+   * @return the function's value at {@link #getNode(int) getNode(i)}
+   */
+  public double getSample(int i) {
+    return samples[i];
+  }
+
+  /**
+   * Get a {@code SampleGrid} with twice as many subintervals, evaluating the function only at the
+   * new midpoints.
+   *
+   * @return the refined {@code SampleGrid}
+   */
+  public SampleGrid refine() {
+    SampleGrid fine =
+        new SampleGrid(
+            func,
+            xLower,
+            xUpper,
+            checkCount(Math.multiplyExact(subintervals, 2)),
+            new double[2 * subintervals + 1]);
+    for (int i = 0; i <= subintervals; ++i) fine.samples[2 * i] = samples[i];
+    for (int i = 0; i < subintervals; ++i)
+      fine.samples[2 * i + 1] = func.eval(fine.getNode(2 * i + 1));
+    return fine;
+  }
+
+  /**
+   * Get the area of subinterval {@code i} by the left-hand rule.
+   *
+   * @param i index of the subinterval
+   * @return the area of subinterval {@code i}
+   */
+  public double leftHandArea(int i) {
+    return (getNode(i + 1) - getNode(i)) * samples[i];
+  }
+
+  /**
+   * Get the area of subinterval {@code i} by the right-hand rule.
+   *
+   * @param i index of the subinterval
+   * @return the area of subinterval {@code i}
+   */
+  public double rightHandArea(int i) {
+    return (getNode(i + 1) - getNode(i)) * samples[i + 1];
+  }
+
+  /**
+   * Get the area of subinterval {@code i} by the trapezoid rule.
+   *
+   * @param i index of the subinterval
+   * @return the area of subinterval {@code i}
+   */
+  public double trapezoidArea(int i) {
+    return (getNode(i + 1) - getNode(i)) * (samples[i] + samples[i + 1]) / 2;
+  }
+
+  /**
+   * Estimate the area over the whole interval by the left-hand rule.
+   *
+   * @return the estimated area
+   */
+  public double leftHand() {
+    double area = 0;
+    for (int i = 0; i < subintervals; ++i) area += leftHandArea(i);
+    return area;
+  }
+
+  /**
+   * Estimate the area over the whole interval by the right-hand rule.
+   *
+   * @return the estimated area
+   */
+  public double rightHand() {
+    double area = 0;
+    for (int i = 0; i < subintervals; ++i) area += rightHandArea(i);
+    return area;
+  }
+
+  /**
+   * Estimate the area over the whole interval by the trapezoid rule.
+   *
+   * @return the estimated area
+   */
+  public double trapezoid() {
+    double area = 0;
+    for (int i = 0; i < subintervals; ++i) area += trapezoidArea(i);
+    return area;
+  }
+
+  /**
+   * Estimate the area over the whole interval by composite Simpson's rule, fitting a parabola to
+   * each pair of subintervals. The error is {@code O(dx^4)} for smooth functions.
+   *
+   * @return the estimated area
+   * @throws IllegalStateException if the number of subintervals is odd
+   */
+  public double simpson() {
+    if (subintervals % 2 != 0)
+      throw new IllegalStateException("Simpson's rule needs an even number of subintervals");
+    double area = 0;
+    for (int i = 0; i < subintervals; i += 2) {
+      double width = getNode(i + 2) - getNode(i);
+      area += width * (samples[i] + 4 * samples[i + 1] + samples[i + 2]) / 6;
+    }
+    return area;
+  }
+
+  /**
+   * Estimate the area over the whole interval by Romberg integration: the trapezoid rule on this
+   * grid and on {@code levels} successive refinements, combined by Richardson extrapolation. The
+   * error is {@code O(dx^(2 levels + 2))} for smooth functions, and the function is evaluated only
+   * at the new midpoints of each refinement.
+   *
+   * @param levels number of refinements, at least zero
+   * @return the estimated area
+   */
+  public double romberg(int levels) {
+    if (levels < 0) throw new IllegalArgumentException("levels must be non-negative");
+    double[] previous = new double[levels + 1];
+    double[] current = new double[levels + 1];
+    previous[0] = trapezoid();
+    SampleGrid grid = this;
+    for (int k = 1; k <= levels; ++k) {
+      grid = grid.refine();
+      current[0] = grid.trapezoid();
+      double factor = 1;
+      for (int j = 1; j <= k; ++j) {
+        factor *= 4;
+        current[j] = current[j - 1] + (current[j - 1] - previous[j - 1]) / (factor - 1);
+      }
+      double[] temp = previous;
+      previous = current;
+      current = temp;
+    }
+    return previous[levels];
+  }
+}
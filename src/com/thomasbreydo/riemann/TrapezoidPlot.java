@@ -4,7 +4,7 @@ import org.opensourcephysics.frames.PlotFrame;
 
 public class TrapezoidPlot extends AbstractRiemann {
   public TrapezoidPlot(
-      Function func, PlotFrame plotFrame, double xLower, double xUpper, int subintervals) {
+      Function func, PlotFrame plotFrame, double xLower, double xUpper, long subintervals) {
     super(func, plotFrame, xLower, xUpper, subintervals);
   }
 
@@ -14,9 +14,17 @@ public class TrapezoidPlot extends AbstractRiemann {
   }
 
   @Override
-  public void drawSlice(double leftBorder, double rightBorder) {
+  public double getSubintervalArea(
+      double leftBorder, double rightBorder, double leftValue, double rightValue) {
+    return (rightBorder - leftBorder) * (leftValue + rightValue) / 2;
+  }
+
+  @Override
+  public void drawSlice(SampleGrid grid, int i) {
+    double left = grid.getNode(i);
+    double right = grid.getNode(i + 1);
     drawPath(
-        new double[] {leftBorder, leftBorder, rightBorder, rightBorder},
-        new double[] {0, func.eval(leftBorder), func.eval(rightBorder), 0});
+        new double[] {left, left, right, right},
+        new double[] {0, grid.getSample(i), grid.getSample(i + 1), 0});
   }
 }
@@ -0,0 +1,103 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import static com.thomasbreydo.matrix.MatrixTest.assertMatrixEquals;
+import static org.junit.Assert.*;
+
+public class BandedMatrixTest {
+  static final double DELTA = 1e-8; // tolerance for float checks
+
+  @Test
+  public void testConversion() {
+    Matrix dense =
+        new Matrix(
+            new double[][] {
+              {4, 1, 0, 0},
+              {2, 5, 1, 0},
+              {7, 2, 6, 1},
+              {0, 3, 2, 7},
+            });
+    BandedMatrix banded = BandedMatrix.fromMatrix(dense, 2, 1);
+    assertEquals(2, banded.getLowerBandwidth());
+    assertEquals(1, banded.getUpperBandwidth());
+    assertEquals(7, banded.getValueAt(2, 0), DELTA);
+    assertEquals(0, banded.getValueAt(0, 3), DELTA);
+    assertMatrixEquals(dense, banded.toMatrix());
+    assertThrows(IllegalArgumentException.class, () -> BandedMatrix.fromMatrix(dense, 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> banded.setEntry(0, 2, 1));
+  }
+
+  @Test
+  public void testTimes() {
+    Matrix dense =
+        new Matrix(
+            new double[][] {
+              {4, 1, 0, 0},
+              {2, 5, 1, 0},
+              {7, 2, 6, 1},
+              {0, 3, 2, 7},
+            });
+    double[] x = {1, -2, 0.5, 3};
+    assertArrayEquals(dense.times(x), BandedMatrix.fromMatrix(dense, 2, 1).times(x), DELTA);
+  }
+
+  @Test
+  public void testSolve() {
+    Matrix dense =
+        new Matrix(
+            new double[][] {
+              {4, 1, 0, 0},
+              {2, 5, 1, 0},
+              {7, 2, 6, 1},
+              {0, 3, 2, 7},
+            });
+    double[] b = {1, 2, 3, 4};
+    double[] expected = new LUDecomposition(dense).solve(b);
+    assertArrayEquals(expected, BandedMatrix.fromMatrix(dense, 2, 1).solve(b), DELTA);
+  }
+
+  @Test
+  public void testSolveNeedsPivoting() {
+    BandedMatrix banded =
+        BandedMatrix.tridiagonal(
+            new double[] {0, 1, 1}, new double[] {0, 0, 1}, new double[] {1, 1, 0});
+    double[] b = {2, 4, 5};
+    double[] expected = new LUDecomposition(banded.toMatrix()).solve(b);
+    assertArrayEquals(expected, banded.solve(b), DELTA);
+  }
+
+  @Test
+  public void testSingular() {
+    BandedMatrix banded =
+        BandedMatrix.tridiagonal(
+            new double[] {0, 2, 0}, new double[] {1, 2, 1}, new double[] {1, 0, 0});
+    BandedLUDecomposition lu = new BandedLUDecomposition(banded);
+    assertTrue(lu.isSingular());
+    assertThrows(RuntimeException.class, () -> lu.solve(new double[] {1, 2, 3}));
+  }
+
+  @Test
+  public void testSmallScaleIsNotSingular() {
+    // 1e-9 times a well-conditioned tridiagonal matrix, far below any fixed threshold
+    int n = 50;
+    double[] lower = new double[n];
+    double[] diagonal = new double[n];
+    double[] upper = new double[n];
+    for (int i = 0; i < n; ++i) {
+      lower[i] = -1e-9;
+      diagonal[i] = 4e-9;
+      upper[i] = -1e-9;
+    }
+    BandedMatrix banded = BandedMatrix.tridiagonal(lower, diagonal, upper);
+    BandedLUDecomposition lu = new BandedLUDecomposition(banded);
+    assertFalse(lu.isSingular());
+    double[] expected = new double[n];
+    for (int i = 0; i < n; ++i) expected[i] = Math.sin(i);
+    assertArrayEquals(expected, lu.solve(banded.times(expected)), DELTA);
+
+    BandedMatrix identity =
+        BandedMatrix.tridiagonal(new double[3], new double[] {1e-9, 1e-9, 1e-9}, new double[3]);
+    assertFalse(new BandedLUDecomposition(identity).isSingular());
+  }
+}
@@ -0,0 +1,72 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BatchSolverTest {
+  /** Solve random interleaved systems of size {@code n}; compare with {@code LUDecomposition}. */
+  private static void checkAgainstLU(int n, int count) {
+    double[] a = new double[n * n * count];
+    double[] b = new double[n * count];
+    Random random = new Random(n);
+    for (int i = 0; i < a.length; ++i) a[i] = random.nextDouble() - 0.5;
+    for (int i = 0; i < b.length; ++i) b[i] = random.nextDouble() - 0.5;
+    double[] x = b.clone();
+    boolean[] singular = new boolean[count];
+    assertEquals(0, BatchSolver.solveBatchInPlace(n, count, a, x, singular));
+
+    for (int s = 0; s < count; s += Math.max(1, count / 50)) {
+      Matrix m = new Matrix(n, n);
+      double[] rhs = new double[n];
+      for (int i = 0; i < n; ++i) {
+        rhs[i] = b[i * count + s];
+        for (int j = 0; j < n; ++j) m.setEntry(i, j, a[(i * n + j) * count + s]);
+      }
+      double[] expected = new LUDecomposition(m).solve(rhs);
+      for (int i = 0; i < n; ++i) assertEquals(expected[i], x[i * count + s], 1e-6);
+    }
+  }
+
+  @Test
+  public void testSolveBatch() {
+    for (int n = 1; n <= 6; ++n) checkAgainstLU(n, 37);
+  }
+
+  @Test
+  public void testSolveBatchParallel() {
+    checkAgainstLU(4, 5000);
+  }
+
+  @Test
+  public void testSingularSystems() {
+    // two 2x2 systems: [[1, 2], [2, 4]] is singular, [[2, 0], [0, 4]] is not
+    double[] a = {1, 2, 2, 0, 2, 0, 4, 4};
+    double[] b = {1, 2, 1, 8};
+    boolean[] singular = new boolean[2];
+    assertEquals(1, BatchSolver.solveBatchInPlace(2, 2, a, b, singular));
+    assertTrue(singular[0]);
+    assertFalse(singular[1]);
+    assertTrue(Double.isNaN(b[0]));
+    assertEquals(1, b[1], MatrixTest.DELTA);
+    assertEquals(2, b[3], MatrixTest.DELTA);
+  }
+
+  @Test
+  public void testSmallScaleIsNotSingular() {
+    // 0.005 I has determinant 0.005^n, far below any fixed threshold, but is well conditioned
+    for (int n = 1; n <= 6; ++n) {
+      double[] a = new double[n * n];
+      double[] b = new double[n];
+      for (int i = 0; i < n; ++i) {
+        a[i * n + i] = 0.005;
+        b[i] = i + 1;
+      }
+      boolean[] singular = new boolean[1];
+      assertEquals(0, BatchSolver.solveBatchInPlace(n, 1, a, b, singular));
+      for (int i = 0; i < n; ++i) assertEquals(200 * (i + 1), b[i], 1e-9);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BinaryMatrixTest {
+  static BinaryMatrix random(int rowCount, int colCount, long seed) {
+    Random random = new Random(seed);
+    BinaryMatrix output = new BinaryMatrix(rowCount, colCount);
+    for (int row = 0; row < rowCount; ++row)
+      for (int col = 0; col < colCount; ++col) output.setEntry(row, col, random.nextBoolean());
+    return output;
+  }
+
+  /** The same matrix as a {@code ModularMatrix} over GF(2), which reduces one pivot at a time. */
+  static ModularMatrix toModular(BinaryMatrix matrix) {
+    ModularMatrix output = new ModularMatrix(matrix.getRowCount(), matrix.getColumnCount(), 2);
+    for (int row = 0; row < matrix.getRowCount(); ++row)
+      for (int col = 0; col < matrix.getColumnCount(); ++col)
+        output.setEntry(row, col, matrix.getValueAt(row, col) ? 1 : 0);
+    return output;
+  }
+
+  static void assertSameElements(ModularMatrix expected, BinaryMatrix actual) {
+    for (int row = 0; row < expected.getRowCount(); ++row)
+      for (int col = 0; col < expected.getColumnCount(); ++col)
+        assertEquals(expected.getValueAt(row, col) == 1, actual.getValueAt(row, col));
+  }
+
+  @Test
+  public void testRowReduce() {
+    BinaryMatrix matrix =
+        new BinaryMatrix(
+            new boolean[][] {
+              {false, true, true},
+              {true, true, false},
+              {true, false, true},
+            });
+    BinaryMatrix expected =
+        new BinaryMatrix(
+            new boolean[][] {
+              {true, false, true},
+              {false, true, true},
+              {false, false, false},
+            });
+    assertEquals(expected, matrix.rowReduce());
+    assertEquals(2, matrix.rank());
+  }
+
+  @Test
+  public void testMatchesPivotByPivotElimination() {
+    // wide and tall shapes, with column counts that are not multiples of 64
+    int[][] shapes = {{70, 200}, {300, 130}, {129, 129}};
+    for (int[] shape : shapes) {
+      BinaryMatrix matrix = random(shape[0], shape[1], shape[0]);
+      // make some rows dependent
+      for (int col = 0; col < shape[1]; ++col)
+        matrix.setEntry(3, col, matrix.getValueAt(1, col) ^ matrix.getValueAt(2, col));
+      ModularMatrix modular = toModular(matrix);
+      assertEquals(modular.rank(), matrix.rank());
+      assertSameElements(modular.rowReduce(), matrix.rowReduce());
+    }
+  }
+
+  @Test
+  public void testParallelRank() {
+    // 1100 rows of 64 words is 70,400 words, so the first pivots update rows in parallel; a
+    // pivot-by-pivot reference would take too long, but a random binary matrix this wide has full
+    // row rank except with probability about 2^-2996, so only the dependent row is lost
+    BinaryMatrix matrix = random(1100, 4096, 1100);
+    for (int col = 0; col < 4096; ++col)
+      matrix.setEntry(3, col, matrix.getValueAt(1, col) ^ matrix.getValueAt(2, col));
+    assertEquals(1099, matrix.rank());
+    assertEquals(1099, matrix.rowReduce().rank());
+  }
+
+  @Test
+  public void testSolve() {
+    BinaryMatrix matrix = random(150, 200, 7);
+    boolean[] x = new boolean[200];
+    Random random = new Random(8);
+    for (int i = 0; i < x.length; ++i) x[i] = random.nextBoolean();
+    boolean[] b = new boolean[150];
+    for (int row = 0; row < 150; ++row)
+      for (int col = 0; col < 200; ++col) b[row] ^= matrix.getValueAt(row, col) && x[col];
+
+    boolean[] solution = matrix.solve(b);
+    for (int row = 0; row < 150; ++row) {
+      boolean sum = false;
+      for (int col = 0; col < 200; ++col) sum ^= matrix.getValueAt(row, col) && solution[col];
+      assertEquals(b[row], sum);
+    }
+  }
+
+  @Test
+  public void testNoSolution() {
+    BinaryMatrix matrix = new BinaryMatrix(new boolean[][] {{true, true}, {true, true}});
+    assertThrows(RuntimeException.class, () -> matrix.solve(new boolean[] {true, false}));
+  }
+}
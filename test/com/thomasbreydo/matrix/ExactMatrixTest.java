@@ -0,0 +1,158 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static com.thomasbreydo.matrix.MatrixTest.assertMatrixEquals;
+import static org.junit.Assert.*;
+
+public class ExactMatrixTest {
+  @Test
+  public void testDeterminantAndRank() {
+    ExactMatrix matrix = new ExactMatrix(new long[][] {{2, -1, 0}, {-1, 2, -1}, {0, -1, 2}});
+    assertEquals(BigInteger.valueOf(4), matrix.determinant());
+    assertEquals(3, matrix.rank());
+    assertTrue(matrix.isInvertible());
+
+    // the third row is the sum of the first two
+    ExactMatrix singular = new ExactMatrix(new long[][] {{1, 2, 3}, {4, 5, 6}, {5, 7, 9}});
+    assertEquals(BigInteger.ZERO, singular.determinant());
+    assertEquals(2, singular.rank());
+    assertFalse(singular.isInvertible());
+
+    // a row swap is needed, which flips the sign
+    assertEquals(
+        BigInteger.valueOf(-1), new ExactMatrix(new long[][] {{0, 1}, {1, 0}}).determinant());
+  }
+
+  @Test
+  public void testUnluckyPrime() {
+    // singular modulo the first prime tried, 2^31 - 1, but not over the integers
+    long p = Integer.MAX_VALUE;
+    ExactMatrix matrix = new ExactMatrix(new long[][] {{p, 0}, {0, 1}});
+    assertEquals(2, matrix.rank());
+    assertEquals(BigInteger.valueOf(p), matrix.determinant());
+    matrix = new ExactMatrix(new long[][] {{p, 2 * p}, {3 * p, 5 * p}});
+    assertEquals(2, matrix.rank());
+    assertEquals(BigInteger.valueOf(-p * p), matrix.determinant());
+  }
+
+  @Test
+  public void testRankDeficient() {
+    // the product of 60 x 25 and 25 x 60 random matrices has rank 25
+    Random random = new Random(7);
+    long[][] left = new long[60][25];
+    long[][] right = new long[25][60];
+    for (long[] row : left) for (int j = 0; j < 25; ++j) row[j] = random.nextInt(201) - 100;
+    for (long[] row : right) for (int j = 0; j < 60; ++j) row[j] = random.nextInt(201) - 100;
+    long[][] values = new long[60][60];
+    for (int i = 0; i < 60; ++i)
+      for (int j = 0; j < 60; ++j)
+        for (int k = 0; k < 25; ++k) values[i][j] += left[i][k] * right[k][j];
+    ExactMatrix matrix = new ExactMatrix(values);
+    assertEquals(25, matrix.rank());
+    assertEquals(BigInteger.ZERO, matrix.determinant());
+    ExactMatrix reduced = new ExactMatrix(values);
+    reduced.rowReduce(); // later calls to rank() read the Bareiss elimination
+    assertEquals(25, reduced.rank());
+  }
+
+  @Test
+  public void testNearlySingular() {
+    // nearly singular inputs are decided exactly
+    Matrix matrix = new Matrix(new double[][] {{9, -1.001, 3}, {0, 0, 0}, {5, 0, 3}});
+    assertFalse(ExactMatrix.fromMatrix(matrix).isInvertible());
+    matrix = new Matrix(new double[][] {{9, 0, 3}, {0, 0, 1.5333}, {2, 0, 1.0 / 7.0}});
+    assertFalse(ExactMatrix.fromMatrix(matrix).isInvertible());
+    matrix = new Matrix(new double[][] {{1, 1}, {1, 1 + 1e-12}});
+    assertTrue(ExactMatrix.fromMatrix(matrix).isInvertible());
+    assertEquals(2, ExactMatrix.fromMatrix(matrix).rank());
+  }
+
+  @Test
+  public void testRowReduce() {
+    ExactMatrix matrix = new ExactMatrix(new long[][] {{1, 2, 1, 4}, {2, 4, 0, 6}, {3, 6, 1, 10}});
+    Matrix expected = new Matrix(new double[][] {{1, 2, 0, 3}, {0, 0, 1, 1}, {0, 0, 0, 0}});
+    assertMatrixEquals(expected, matrix.rowReduce());
+    ExactMatrix scaled = matrix.rowReduceFractionFree();
+    BigInteger d = scaled.getValueAt(0, 0);
+    assertTrue(d.signum() > 0);
+    assertEquals(d, scaled.getValueAt(1, 2));
+    assertEquals(d.multiply(BigInteger.valueOf(3)), scaled.getValueAt(0, 3));
+
+    ExactMatrix thirds = new ExactMatrix(new long[][] {{3, 0, 1}, {0, 3, 2}});
+    assertEquals(1.0 / 3, thirds.rowReduce().getValueAt(0, 2), 0);
+    assertEquals(2.0 / 3, thirds.rowReduce().getValueAt(1, 2), 0);
+  }
+
+  @Test
+  public void testPromotesToBigInteger() {
+    // elimination of a random 30 x 30 matrix overflows a long partway through
+    int n = 30;
+    Random random = new Random(19);
+    long[][] values = new long[n][n];
+    BigInteger[][] bigValues = new BigInteger[n][n];
+    for (int row = 0; row < n; ++row) {
+      for (int col = 0; col < n; ++col) {
+        values[row][col] = random.nextInt(2_000_001) - 1_000_000;
+        bigValues[row][col] = BigInteger.valueOf(values[row][col]);
+      }
+    }
+    ExactMatrix matrix = new ExactMatrix(values);
+    BigInteger determinant = matrix.determinant();
+    assertTrue(determinant.bitLength() > 500);
+    assertEquals(determinant, new ExactMatrix(bigValues).determinant());
+    assertEquals(determinant, cofactorCheck(values));
+    assertEquals(n, matrix.rank());
+    assertMatrixEquals(Matrix.identity(n), matrix.rowReduce());
+  }
+
+  /** The determinant by exact rational elimination, kept as numerator and denominator. */
+  private static BigInteger cofactorCheck(long[][] values) {
+    int n = values.length;
+    BigInteger[][] num = new BigInteger[n][n];
+    BigInteger[][] den = new BigInteger[n][n];
+    for (int i = 0; i < n; ++i) {
+      for (int j = 0; j < n; ++j) {
+        num[i][j] = BigInteger.valueOf(values[i][j]);
+        den[i][j] = BigInteger.ONE;
+      }
+    }
+    BigInteger detNum = BigInteger.ONE;
+    BigInteger detDen = BigInteger.ONE;
+    for (int k = 0; k < n; ++k) {
+      int p = k;
+      while (num[p][k].signum() == 0) ++p;
+      if (p != k) {
+        BigInteger[] t = num[p];
+        num[p] = num[k];
+        num[k] = t;
+        t = den[p];
+        den[p] = den[k];
+        den[k] = t;
+        detNum = detNum.negate();
+      }
+      detNum = detNum.multiply(num[k][k]);
+      detDen = detDen.multiply(den[k][k]);
+      for (int i = k + 1; i < n; ++i) {
+        // row_i -= (a_ik / a_kk) row_k
+        BigInteger fNum = num[i][k].multiply(den[k][k]);
+        BigInteger fDen = den[i][k].multiply(num[k][k]);
+        for (int j = k; j < n; ++j) {
+          BigInteger a = num[i][j].multiply(fDen).multiply(den[k][j]);
+          BigInteger b = fNum.multiply(num[k][j]).multiply(den[i][j]);
+          BigInteger d = den[i][j].multiply(fDen).multiply(den[k][j]);
+          BigInteger g = a.subtract(b).gcd(d);
+          num[i][j] = a.subtract(b).divide(g);
+          den[i][j] = d.divide(g);
+        }
+      }
+      BigInteger g = detNum.gcd(detDen);
+      detNum = detNum.divide(g);
+      detDen = detDen.divide(g);
+    }
+    return detNum.divide(detDen);
+  }
+}
@@ -0,0 +1,143 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class IterativeSolverTest {
+  /**
+   * The 5-point finite-difference operator on an {@code m x m} grid, plus {@code convection} times
+   * an upwind difference in x (which makes it non-symmetric).
+   */
+  private static SparseMatrix grid(int m, double convection) {
+    int n = m * m;
+    int[] rows = new int[5 * n];
+    int[] cols = new int[5 * n];
+    double[] values = new double[5 * n];
+    int k = 0;
+    for (int i = 0; i < m; ++i) {
+      for (int j = 0; j < m; ++j) {
+        int row = i * m + j;
+        rows[k] = row;
+        cols[k] = row;
+        values[k++] = 4 + convection;
+        int[][] neighbors = {{i - 1, j}, {i + 1, j}, {i, j - 1}, {i, j + 1}};
+        for (int[] neighbor : neighbors) {
+          if (neighbor[0] < 0 || neighbor[0] >= m || neighbor[1] < 0 || neighbor[1] >= m) continue;
+          rows[k] = row;
+          cols[k] = neighbor[0] * m + neighbor[1];
+          values[k++] = neighbor[1] == j - 1 ? -1 - convection : -1;
+        }
+      }
+    }
+    return SparseMatrix.fromTriplets(
+        n, n, Arrays.copyOf(rows, k), Arrays.copyOf(cols, k), Arrays.copyOf(values, k));
+  }
+
+  private static double[] rhs(int n) {
+    double[] b = new double[n];
+    for (int i = 0; i < n; ++i) b[i] = Math.sin(0.1 * i) + 1;
+    return b;
+  }
+
+  private static void assertSolves(SparseMatrix a, double[] b, double[] x) {
+    double[] ax = a.times(x);
+    for (int i = 0; i < b.length; ++i) assertEquals(b[i], ax[i], 1e-7);
+  }
+
+  @Test
+  public void testConjugateGradient() {
+    SparseMatrix a = grid(20, 0);
+    double[] b = rhs(400);
+    LinearOperator operator = LinearOperator.of(a);
+
+    double[] plain = new double[400];
+    IterativeResult plainResult = new ConjugateGradient(operator).solveInPlace(b, plain);
+    assertTrue(plainResult.isConverged());
+    assertSolves(a, b, plain);
+
+    double[] jacobi = new ConjugateGradient(operator, Preconditioner.jacobi(a)).solve(b);
+    assertSolves(a, b, jacobi);
+
+    double[] ic = new double[400];
+    IterativeResult icResult =
+        new ConjugateGradient(operator, new IncompleteCholesky(a)).solveInPlace(b, ic);
+    assertTrue(icResult.isConverged());
+    assertTrue(icResult.getIterationCount() < plainResult.getIterationCount());
+    assertSolves(a, b, ic);
+  }
+
+  @Test
+  public void testIncompleteCholeskyExactForTridiagonal() {
+    // no fill-in is dropped for a tridiagonal matrix, so IC(0) is the exact Cholesky factor
+    SparseMatrix a = SparseMatrixTest.laplacian(50);
+    double[] b = rhs(50);
+    double[] x = new double[50];
+    IterativeResult result =
+        new ConjugateGradient(LinearOperator.of(a), new IncompleteCholesky(a)).solveInPlace(b, x);
+    assertEquals(1, result.getIterationCount());
+    assertSolves(a, b, x);
+  }
+
+  @Test
+  public void testBiCGStab() {
+    SparseMatrix a = grid(20, 2);
+    double[] b = rhs(400);
+    LinearOperator operator = LinearOperator.of(a);
+
+    double[] plain = new double[400];
+    IterativeResult plainResult = new BiCGStab(operator).solveInPlace(b, plain);
+    assertTrue(plainResult.isConverged());
+    assertSolves(a, b, plain);
+
+    double[] ilu = new double[400];
+    IterativeResult iluResult = new BiCGStab(operator, new IncompleteLU(a)).solveInPlace(b, ilu);
+    assertTrue(iluResult.isConverged());
+    assertTrue(iluResult.getIterationCount() < plainResult.getIterationCount());
+    assertArrayEquals(a.solve(b), ilu, 1e-7);
+  }
+
+  @Test
+  public void testWarmStart() {
+    SparseMatrix a = grid(10, 0);
+    double[] b = rhs(100);
+    ConjugateGradient solver = new ConjugateGradient(LinearOperator.of(a));
+    double[] x = solver.solve(b);
+    assertEquals(0, solver.solveInPlace(b, x).getIterationCount());
+
+    b[0] += 1e-3; // a small change converges quickly from the previous solution
+    IterativeResult result = solver.solveInPlace(b, x);
+    assertTrue(result.isConverged());
+    assertSolves(a, b, x);
+  }
+
+  @Test
+  public void testDenseAndMatrixFree() {
+    Matrix dense = grid(6, 1).toMatrix();
+    double[] b = rhs(36);
+    double[] expected = dense.solve(b);
+    assertArrayEquals(expected, new BiCGStab(LinearOperator.of(dense)).solve(b), 1e-7);
+
+    // the 1D Laplacian, applied as a stencil without storing it
+    LinearOperator matrixFree =
+        (x, y) -> {
+          for (int i = 0; i < x.length; ++i)
+            y[i] = 2 * x[i] - (i > 0 ? x[i - 1] : 0) - (i + 1 < x.length ? x[i + 1] : 0);
+        };
+    IterativeSolver solver =
+        new ConjugateGradient(matrixFree).setTolerance(1e-12).setMaxIterations(200);
+    assertArrayEquals(SparseMatrixTest.laplacian(36).solve(b), solver.solve(b), 1e-9);
+  }
+
+  @Test
+  public void testIterationCap() {
+    SparseMatrix a = grid(20, 0);
+    double[] x = new double[400];
+    IterativeResult result =
+        new ConjugateGradient(LinearOperator.of(a)).setMaxIterations(3).solveInPlace(rhs(400), x);
+    assertFalse(result.isConverged());
+    assertEquals(3, result.getIterationCount());
+  }
+}
@@ -0,0 +1,82 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import static com.thomasbreydo.matrix.MatrixTest.assertMatrixEquals;
+import static org.junit.Assert.*;
+
+public class LUDecompositionTest {
+  static final double DELTA = 1e-8; // tolerance for float checks
+
+  @Test
+  public void testSolve() {
+    Matrix m1 = new Matrix(new double[][] {{0, 9, -3}, {1, 1, 2}, {3, 0, 8}});
+    LUDecomposition lu = new LUDecomposition(m1);
+    assertFalse(lu.isSingular());
+
+    double[] x = lu.solve(new double[] {6, 4, 11});
+    assertArrayEquals(new double[] {1, 1, 1}, x, DELTA);
+    assertArrayEquals(new double[] {-3, 2, 8}, m1.times(lu.solve(new double[] {-3, 2, 8})), DELTA);
+    assertThrows(IllegalArgumentException.class, () -> lu.solve(new double[] {1, 2}));
+  }
+
+  @Test
+  public void testSolveMatrix() {
+    Matrix m1 = new Matrix(new double[][] {{2, 1}, {4, -6}});
+    Matrix b = new Matrix(new double[][] {{3, 1, 0}, {-2, 0, 1}});
+    Matrix x = new LUDecomposition(m1).solve(b);
+    assertMatrixEquals(b, m1.times(x));
+  }
+
+  @Test
+  public void testDeterminant() {
+    Matrix diagonal = new Matrix(new double[][] {{1, 0}, {0, 6}});
+    Matrix swapped = new Matrix(new double[][] {{0, 1}, {2, 5}});
+    assertEquals(6, new LUDecomposition(diagonal).determinant(), DELTA);
+    assertEquals(-2, new LUDecomposition(swapped).determinant(), DELTA);
+    assertEquals(
+        -9,
+        new LUDecomposition(new Matrix(new double[][] {{0, 9, -3}, {1, 1, 2}, {3, 0, 8}}))
+            .determinant(),
+        DELTA);
+    assertEquals(
+        0,
+        new LUDecomposition(new Matrix(new double[][] {{0, 9, -3}, {1, 1, 2}, {3, 0, 7}}))
+            .determinant(),
+        DELTA);
+  }
+
+  @Test
+  public void testInverse() {
+    Matrix m1 = new Matrix(new double[][] {{4, 7}, {2, 6}});
+    Matrix expected = new Matrix(new double[][] {{0.6, -0.7}, {-0.2, 0.4}});
+    assertMatrixEquals(expected, new LUDecomposition(m1).inverse());
+  }
+
+  @Test
+  public void testSingular() {
+    LUDecomposition lu = new LUDecomposition(new Matrix(new double[][] {{1, 2}, {2, 4}}));
+    assertTrue(lu.isSingular());
+    assertThrows(RuntimeException.class, () -> lu.solve(new double[] {1, 2}));
+    assertThrows(RuntimeException.class, lu::inverse);
+    assertThrows(IllegalArgumentException.class, () -> new LUDecomposition(new Matrix(2, 3)));
+  }
+
+  @Test
+  public void testSmallScaleIsNotSingular() {
+    Matrix tiny = new Matrix(3, 3);
+    for (int i = 0; i < 3; ++i) tiny.setEntry(i, i, 1e-9);
+    LUDecomposition lu = new LUDecomposition(tiny);
+    assertFalse(lu.isSingular());
+    assertArrayEquals(new double[] {1e9, 2e9, 3e9}, lu.solve(new double[] {1, 2, 3}), 1e-6);
+
+    int n = 8;
+    Matrix hilbert = new Matrix(n, n);
+    for (int row = 0; row < n; ++row)
+      for (int col = 0; col < n; ++col) hilbert.setEntry(row, col, 1.0 / (row + col + 1));
+    double[] b = new double[n];
+    b[0] = 1;
+    double[] residual = hilbert.times(hilbert.solve(b));
+    assertArrayEquals(b, residual, 1e-6);
+  }
+}
@@ -0,0 +1,60 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static com.thomasbreydo.matrix.SymmetricEigenDecompositionTest.assertEigenpairs;
+import static org.junit.Assert.*;
+
+public class LanczosTest {
+  @Test
+  public void testExtremeEigenvaluesOfDenseMatrix() {
+    Matrix matrix = SymmetricEigenDecompositionTest.randomSymmetric(300, 11);
+    double[] expected = new SymmetricEigenDecomposition(matrix).getEigenvalues();
+    Lanczos lanczos = new Lanczos(matrix);
+
+    SymmetricEigenDecomposition largest = lanczos.largest(3);
+    assertArrayEquals(Arrays.copyOfRange(expected, 297, 300), largest.getEigenvalues(), 1e-9);
+    assertTrue(lanczos.getLastIterationCount() < 300);
+    assertEigenpairs(LinearOperator.of(matrix), largest, 1e-8);
+
+    SymmetricEigenDecomposition smallest = lanczos.smallest(2);
+    assertArrayEquals(Arrays.copyOfRange(expected, 0, 2), smallest.getEigenvalues(), 1e-9);
+    assertEigenpairs(LinearOperator.of(matrix), smallest, 1e-8);
+  }
+
+  @Test
+  public void testLargestStableTimestep() {
+    // the explicit step limit of a spring chain is 2 / sqrt(largest eigenvalue of K / m)
+    int n = 400;
+    double[] lower = new double[n];
+    double[] diagonal = new double[n];
+    double[] upper = new double[n];
+    Arrays.fill(lower, -1);
+    Arrays.fill(diagonal, 2);
+    Arrays.fill(upper, -1);
+    BandedMatrix stiffness = BandedMatrix.tridiagonal(lower, diagonal, upper);
+    double largest = new Lanczos(stiffness).largest(1).getEigenvalue(0);
+    assertEquals(2 - 2 * Math.cos(n * Math.PI / (n + 1)), largest, 1e-10);
+  }
+
+  @Test
+  public void testRepeatedEigenvalues() {
+    // the Krylov space is invariant after three steps, so Lanczos must restart to find both 3s
+    Matrix matrix = new Matrix(6, 6);
+    double[] diagonal = {1, 3, 2, 1, 3, 2};
+    for (int i = 0; i < 6; ++i) matrix.setEntry(i, i, diagonal[i]);
+    SymmetricEigenDecomposition largest = new Lanczos(matrix).largest(2);
+    assertArrayEquals(new double[] {3, 3}, largest.getEigenvalues(), 1e-12);
+    assertEigenpairs(LinearOperator.of(matrix), largest, 1e-12);
+  }
+
+  @Test
+  public void testNotConverged() {
+    Matrix matrix = SymmetricEigenDecompositionTest.randomSymmetric(100, 2);
+    Lanczos lanczos = new Lanczos(matrix).setMaxIterations(5);
+    assertThrows(RuntimeException.class, () -> lanczos.largest(2));
+    assertThrows(IllegalArgumentException.class, () -> lanczos.largest(6));
+  }
+}
@@ -0,0 +1,81 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.thomasbreydo.matrix.MatrixTest.DELTA;
+import static org.junit.Assert.*;
+
+public class LeastSquaresFitterTest {
+  @Test
+  public void testExactFit() {
+    // p(x) = 2 - 3x + x^3, sampled at more points than coefficients
+    LeastSquaresFitter fitter = new LeastSquaresFitter(3);
+    for (int i = -5; i <= 5; ++i) fitter.add(i, 2 - 3 * i + i * i * i);
+    assertArrayEquals(new double[] {2, -3, 0, 1}, fitter.getCoefficients(), DELTA);
+    assertEquals(0, fitter.getResidualSumOfSquares(), DELTA);
+    assertEquals(11, fitter.getSampleCount());
+    assertEquals(2 - 3 * 1.5 + 1.5 * 1.5 * 1.5, fitter.toPolynomial().eval(1.5), DELTA);
+  }
+
+  @Test
+  public void testLine() {
+    // best line through (0, 0), (1, 1), (2, 1) is y = 1/6 + x/2
+    LeastSquaresFitter fitter = new LeastSquaresFitter(1);
+    fitter.add(new double[] {0, 1, 2}, new double[] {0, 1, 1});
+    assertArrayEquals(new double[] {1.0 / 6, 0.5}, fitter.getCoefficients(), DELTA);
+    double residual = 0;
+    for (double[] point : new double[][] {{0, 0}, {1, 1}, {2, 1}}) {
+      double error = 1.0 / 6 + point[0] / 2 - point[1];
+      residual += error * error;
+    }
+    assertEquals(residual, fitter.getResidualSumOfSquares(), DELTA);
+  }
+
+  @Test
+  public void testNoisyStreamWithRange() {
+    // samples far from zero are fit in a scaled variable, then converted back
+    Random random = new Random(17);
+    LeastSquaresFitter fitter = new LeastSquaresFitter(2, 1000, 1010);
+    for (int i = 0; i < 200_000; ++i) {
+      double x = 1000 + 10 * random.nextDouble();
+      double t = x - 1005;
+      fitter.add(x, 3 + 2 * t - 0.5 * t * t + 0.01 * random.nextGaussian());
+    }
+    double[] c = fitter.getCoefficients();
+    for (double x = 1000; x <= 1010; x += 0.5) {
+      double t = x - 1005;
+      assertEquals(3 + 2 * t - 0.5 * t * t, c[0] + c[1] * x + c[2] * x * x, 1e-3);
+    }
+  }
+
+  @Test
+  public void testMerge() {
+    Random random = new Random(3);
+    LeastSquaresFitter whole = new LeastSquaresFitter(3, -1, 1);
+    LeastSquaresFitter first = new LeastSquaresFitter(3, -1, 1);
+    LeastSquaresFitter second = new LeastSquaresFitter(3, -1, 1);
+    for (int i = 0; i < 1000; ++i) {
+      double x = 2 * random.nextDouble() - 1;
+      double y = Math.cos(3 * x);
+      whole.add(x, y);
+      (i % 2 == 0 ? first : second).add(x, y);
+    }
+    first.merge(second);
+    assertArrayEquals(whole.getCoefficients(), first.getCoefficients(), 1e-9);
+    assertEquals(whole.getResidualSumOfSquares(), first.getResidualSumOfSquares(), 1e-9);
+    assertEquals(1000, first.getSampleCount());
+  }
+
+  @Test
+  public void testTooFewPoints() {
+    LeastSquaresFitter fitter = new LeastSquaresFitter(2);
+    fitter.add(1, 2);
+    fitter.add(1, 3);
+    fitter.add(4, 5);
+    assertThrows(IllegalStateException.class, fitter::getCoefficients);
+    fitter.add(5, 0);
+    assertEquals(3, fitter.getCoefficients().length);
+  }
+}
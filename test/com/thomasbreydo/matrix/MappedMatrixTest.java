@@ -0,0 +1,95 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.thomasbreydo.matrix.MatrixTest.DELTA;
+import static com.thomasbreydo.matrix.MatrixTest.assertMatrixEquals;
+import static org.junit.Assert.*;
+
+public class MappedMatrixTest {
+  private static Matrix sample(int rows, int cols) {
+    Matrix output = new Matrix(rows, cols);
+    for (int row = 0; row < rows; ++row)
+      for (int col = 0; col < cols; ++col)
+        output.setEntry(row, col, row % 4 == 3 ? (row + col) % 3 : Math.sin(row * 1.3 + col * 0.7));
+    return output;
+  }
+
+  @Test
+  public void testReopen() throws IOException {
+    Path path = Files.createTempFile("matrix", ".bin");
+    try {
+      Matrix m1 = sample(5, 7);
+      try (MappedMatrix mapped = MappedMatrix.fromMatrix(path, m1)) {
+        mapped.setEntry(2, 3, 42);
+      }
+      m1.setEntry(2, 3, 42);
+      try (MappedMatrix reopened = MappedMatrix.open(path)) {
+        assertEquals(5, reopened.getRowCount());
+        assertEquals(7, reopened.getColumnCount());
+        assertEquals(42, reopened.getValueAt(2, 3), DELTA);
+        assertMatrixEquals(m1, reopened.toMatrix());
+      }
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void testOpenRejectsOtherFiles() throws IOException {
+    Path path = Files.createTempFile("matrix", ".bin");
+    try {
+      Files.write(path, new byte[64]);
+      assertThrows(IOException.class, () -> MappedMatrix.open(path));
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void testRowReduceInPlace() throws IOException {
+    Path path = Files.createTempFile("matrix", ".bin");
+    try {
+      Matrix m1 = sample(50, 2 * GaussJordan.PANEL_WIDTH + 9);
+      try (MappedMatrix mapped = MappedMatrix.fromMatrix(path, m1)) {
+        mapped.rowReduceInPlace();
+        assertMatrixEquals(m1.rowReduce(Matrix.Elimination.SEQUENTIAL), mapped.toMatrix());
+      }
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void testPlusAndTimes() throws IOException {
+    Path path1 = Files.createTempFile("matrix", ".bin");
+    Path path2 = Files.createTempFile("matrix", ".bin");
+    Path path3 = Files.createTempFile("matrix", ".bin");
+    try {
+      Matrix m1 = sample(40, 30);
+      Matrix m2 = m1.plus(m1);
+      Matrix m3 = sample(30, 12);
+      try (MappedMatrix mapped1 = MappedMatrix.fromMatrix(path1, m1);
+          MappedMatrix mapped2 = MappedMatrix.fromMatrix(path2, m2);
+          MappedMatrix product = MappedMatrix.create(path3, 40, 12)) {
+        mapped1.plusInPlace(mapped2);
+        Matrix sum = m1.plus(m2);
+        assertMatrixEquals(sum, mapped1.toMatrix());
+
+        mapped1.timesInto(m3, product);
+        assertMatrixEquals(sum.times(m3), product.toMatrix());
+
+        double[] vector = m3.getColumn(0);
+        assertArrayEquals(sum.times(vector), mapped1.times(vector), DELTA);
+      }
+    } finally {
+      Files.delete(path1);
+      Files.delete(path2);
+      Files.delete(path3);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import static com.thomasbreydo.matrix.MatrixTest.assertMatrixEquals;
+import static org.junit.Assert.*;
+
+public class MatrixExpressionTest {
+  private static Matrix sample(int rows, int cols, double phase) {
+    Matrix output = new Matrix(rows, cols);
+    for (int row = 0; row < rows; ++row)
+      for (int col = 0; col < cols; ++col) output.setEntry(row, col, Math.sin(phase + row - col));
+    return output;
+  }
+
+  private static Matrix transpose(Matrix matrix) {
+    Matrix output = new Matrix(matrix.getColumnCount(), matrix.getRowCount());
+    for (int row = 0; row < matrix.getRowCount(); ++row)
+      for (int col = 0; col < matrix.getColumnCount(); ++col)
+        output.setEntry(col, row, matrix.getValueAt(row, col));
+    return output;
+  }
+
+  @Test
+  public void testFusedPipeline() {
+    Matrix a = sample(6, 5, 0);
+    Matrix b = sample(6, 5, 1);
+    Matrix c = sample(6, 5, 2);
+
+    Matrix expected = a.plus(b).plus(c).slice(1, 4, 2, 5);
+    assertMatrixEquals(expected, a.lazy().plus(b).plus(c).slice(1, 4, 2, 5).evaluate());
+
+    Matrix scaled = b.copy();
+    for (int row = 0; row < 6; ++row) scaled.multiplyRowInPlace(row, -2);
+    assertMatrixEquals(a.plus(scaled), a.lazy().plus(b.lazy().times(-2)).evaluate());
+  }
+
+  @Test
+  public void testAugmentAndTranspose() {
+    Matrix a = sample(4, 3, 0);
+    Matrix b = sample(4, 2, 1);
+
+    Matrix augmented = a.augment(b);
+    assertMatrixEquals(augmented, a.lazy().augment(b).evaluate());
+    // a slice straddling the boundary between the two halves
+    assertMatrixEquals(
+        augmented.slice(1, 3, 2, 4), a.lazy().augment(b).slice(1, 3, 2, 4).evaluate());
+
+    assertMatrixEquals(transpose(augmented), a.lazy().augment(b).transpose().evaluate());
+    assertMatrixEquals(a, a.lazy().transpose().transpose().evaluate());
+    Matrix square = sample(4, 4, 3);
+    assertMatrixEquals(
+        square.plus(transpose(square)), square.lazy().plus(square.lazy().transpose()).evaluate());
+  }
+
+  @Test
+  public void testEvaluateInto() {
+    Matrix a = sample(300, 300, 0); // large enough to evaluate in parallel
+    Matrix b = sample(300, 300, 1);
+    Matrix dest = new Matrix(300, 300);
+    a.lazy().plus(b).evaluateInto(dest);
+    assertMatrixEquals(a.plus(b), dest);
+
+    assertThrows(IllegalArgumentException.class, () -> a.lazy().plus(b).evaluateInto(a));
+    assertThrows(IllegalArgumentException.class, () -> a.lazy().plus(sample(3, 3, 0)));
+  }
+}
@@ -0,0 +1,82 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.thomasbreydo.matrix.MatrixTest.assertMatrixEquals;
+import static org.junit.Assert.*;
+
+public class MatrixIOTest {
+  private static Matrix sample() {
+    Matrix output = new Matrix(300, 7); // several binary chunks' worth
+    for (int row = 0; row < output.getRowCount(); ++row)
+      for (int col = 0; col < output.getColumnCount(); ++col)
+        output.setEntry(row, col, Math.sin(row + 0.1 * col) * Math.pow(10, col - 3));
+    return output;
+  }
+
+  @Test
+  public void testBinaryRoundTrip() throws IOException {
+    Path path = Files.createTempFile("matrix", ".bin");
+    try {
+      Matrix m1 = sample();
+      MatrixIO.writeBinary(m1, path);
+      assertMatrixEquals(m1, MatrixIO.readBinary(path));
+      assertMatrixEquals(m1, MatrixIO.readBinary(ByteBuffer.wrap(Files.readAllBytes(path))));
+      try (MappedMatrix mapped = MappedMatrix.open(path)) {
+        assertMatrixEquals(m1, mapped.toMatrix());
+      }
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void testBinaryRejectsTruncated() {
+    ByteBuffer buffer = ByteBuffer.allocate(MappedMatrix.HEADER_BYTES + 8);
+    MappedMatrix.writeHeader(buffer, 2, 2);
+    buffer.flip();
+    assertThrows(IOException.class, () -> MatrixIO.readBinary(buffer));
+  }
+
+  @Test
+  public void testBinaryStreamsManyChunks() throws IOException {
+    // 300 x 300 doubles is 720,000 bytes, read through many small chunks
+    Matrix m1 = new Matrix(300, 300);
+    for (int row = 0; row < 300; ++row)
+      for (int col = 0; col < 300; ++col) m1.setEntry(row, col, Math.sin(row * 300 + col));
+    Path path = Files.createTempFile("matrix", ".bin");
+    try {
+      MatrixIO.writeBinary(m1, path);
+      assertMatrixEquals(m1, MatrixIO.readBinary(path));
+      Files.write(path, Arrays.copyOf(Files.readAllBytes(path), 700_000));
+      assertThrows(IOException.class, () -> MatrixIO.readBinary(path));
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void testTextRoundTrip() throws IOException {
+    Matrix m1 = sample();
+    StringBuilder text = new StringBuilder();
+    MatrixIO.writeText(m1, text);
+    Matrix actual = MatrixIO.readText(new StringReader(text.toString()));
+    for (int row = 0; row < m1.getRowCount(); ++row)
+      assertArrayEquals(m1.getRow(row), actual.getRow(row), 0);
+  }
+
+  @Test
+  public void testReadText() throws IOException {
+    Matrix expected = new Matrix(new double[][] {{1, 2.5, -3}, {4e3, 0, 6}});
+    assertMatrixEquals(expected, MatrixIO.readText(new StringReader("1, 2.5, -3\n\n4e3\t0 6\n")));
+    assertThrows(IOException.class, () -> MatrixIO.readText(new StringReader("1,2\n3\n")));
+    assertThrows(IOException.class, () -> MatrixIO.readText(new StringReader("1,x\n")));
+  }
+}
@@ -193,4 +193,160 @@ public class MatrixTest {
     assertThrows(RuntimeException.class, () -> m1.augment(new Matrix(3, 2)));
     assertThrows(RuntimeException.class, () -> m1.augment(new Matrix(3, 3)));
   }
+
+  @Test
+  public void testTimes() {
+    Matrix expected =
+        new Matrix(
+            new double[][] {
+              {4, 0.3, 2},
+              {-8, 1.4, -2},
+            });
+    Matrix m1 =
+        new Matrix(
+            new double[][] {
+              {0, 1},
+              {2, -2},
+            });
+    Matrix m2 =
+        new Matrix(
+            new double[][] {
+              {0, 1, 1},
+              {4, 0.3, 2},
+            });
+    Matrix m1copy = m1.copy();
+
+    assertMatrixEquals(expected, m1.times(m2));
+    assertMatrixEquals(m1, m1.times(Matrix.identity(2)));
+    assertMatrixEquals(m1copy, m1);
+    assertThrows(IllegalArgumentException.class, () -> m2.times(m1));
+  }
+
+  @Test
+  public void testTimesLarge() {
+    int n = 150; // large enough to cross tile boundaries and fork tasks
+    Matrix m1 = new Matrix(n, n + 3);
+    Matrix m2 = new Matrix(n + 3, n - 5);
+    for (int row = 0; row < m1.getRowCount(); ++row)
+      for (int col = 0; col < m1.getColumnCount(); ++col)
+        m1.setEntry(row, col, Math.sin(row + 2.0 * col));
+    for (int row = 0; row < m2.getRowCount(); ++row)
+      for (int col = 0; col < m2.getColumnCount(); ++col)
+        m2.setEntry(row, col, Math.cos(3.0 * row - col));
+
+    Matrix actual = m1.times(m2);
+    for (int row = 0; row < n; ++row) {
+      for (int col = 0; col < n - 5; ++col) {
+        double expected = 0;
+        for (int k = 0; k < n + 3; ++k) expected += m1.getValueAt(row, k) * m2.getValueAt(k, col);
+        assertEquals(expected, actual.getValueAt(row, col), DELTA);
+      }
+    }
+  }
+
+  @Test
+  public void testRowReduceLargeSystem() {
+    // solve Ax = b through the RREF of [A | b]; needs partial pivoting to stay accurate
+    int n = 120;
+    Matrix a = new Matrix(n, n);
+    double[] b = new double[n];
+    for (int row = 0; row < n; ++row) {
+      b[row] = Math.cos(row);
+      for (int col = 0; col < n; ++col)
+        a.setEntry(row, col, Math.sin(0.37 * (row + 1) * (col + 2) + row));
+    }
+    Matrix bColumn = new Matrix(n, 1);
+    for (int row = 0; row < n; ++row) bColumn.setEntry(row, 0, b[row]);
+
+    Matrix reduced = a.augment(bColumn).rowReduce(Matrix.Elimination.SEQUENTIAL);
+    assertMatrixEquals(Matrix.identity(n), reduced.slice(0, n, 0, n));
+    double[] residual = a.times(reduced.getColumn(n));
+    for (int row = 0; row < n; ++row) assertEquals(b[row], residual[row], 1e-6);
+  }
+
+  @Test
+  public void testRowReduceEliminations() {
+    // wider than several panels, and rank-deficient: every third row repeats an earlier pattern
+    int rows = 70;
+    int cols = 3 * GaussJordan.PANEL_WIDTH + 5;
+    Matrix m1 = new Matrix(rows, cols);
+    for (int row = 0; row < rows; ++row)
+      for (int col = 0; col < cols; ++col)
+        m1.setEntry(row, col, row % 3 == 2 ? (row + col) % 4 : Math.sin(row * 1.3 + col * 0.7));
+    Matrix m1copy = m1.copy();
+
+    Matrix expected = m1.rowReduce(Matrix.Elimination.SEQUENTIAL);
+    assertMatrixEquals(expected, m1.rowReduce(Matrix.Elimination.PARALLEL));
+    assertMatrixEquals(expected, m1.rowReduce(Matrix.Elimination.BLOCKED));
+    assertMatrixEquals(m1copy, m1);
+
+    Matrix small = new Matrix(new double[][] {{0, 9, -3}, {1, 1, 2}, {3, 0, 7}});
+    Matrix smallExpected = small.rowReduce(Matrix.Elimination.SEQUENTIAL);
+    assertMatrixEquals(smallExpected, small.rowReduce(Matrix.Elimination.PARALLEL));
+    assertMatrixEquals(smallExpected, small.rowReduce(Matrix.Elimination.BLOCKED));
+  }
+
+  @Test
+  public void testTimesVector() {
+    Matrix m1 =
+        new Matrix(
+            new double[][] {
+              {0, 1, 3},
+              {2, -2, 0.5},
+            });
+    assertArrayEquals(new double[] {7, 1}, m1.times(new double[] {1, 1, 2}), DELTA);
+    assertThrows(IllegalArgumentException.class, () -> m1.times(new double[] {1, 1}));
+  }
+
+  @Test
+  public void testInPlaceOperations() {
+    Matrix m1 =
+        new Matrix(
+            new double[][] {
+              {0, -1},
+              {4, 0.3},
+            });
+    m1.switchRowsInPlace(0, 1);
+    assertMatrixEquals(new Matrix(new double[][] {{4, 0.3}, {0, -1}}), m1);
+    m1.linearCombRowsInPlace(2, 1, 0);
+    assertMatrixEquals(new Matrix(new double[][] {{4, -1.7}, {0, -1}}), m1);
+    m1.multiplyRowInPlace(1, -3);
+    assertMatrixEquals(new Matrix(new double[][] {{4, -1.7}, {0, 3}}), m1);
+    m1.plusInPlace(Matrix.identity(2));
+    assertMatrixEquals(new Matrix(new double[][] {{5, -1.7}, {0, 4}}), m1);
+    m1.rowReduceInPlace();
+    assertMatrixEquals(Matrix.identity(2), m1);
+    assertThrows(IndexOutOfBoundsException.class, () -> m1.switchRowsInPlace(0, 2));
+  }
+
+  @Test
+  public void testIntoOperations() {
+    Matrix m1 =
+        new Matrix(
+            new double[][] {
+              {0, -1, 2},
+              {4, 0.3, 1},
+            });
+    Matrix dest = new Matrix(2, 3);
+    m1.plusInto(m1, dest);
+    assertMatrixEquals(new Matrix(new double[][] {{0, -2, 4}, {8, 0.6, 2}}), dest);
+    m1.copyInto(dest);
+    assertMatrixEquals(m1, dest);
+
+    Matrix slice = new Matrix(2, 2);
+    m1.sliceInto(0, 2, 1, 3, slice);
+    assertMatrixEquals(new Matrix(new double[][] {{-1, 2}, {0.3, 1}}), slice);
+
+    Matrix augmented = new Matrix(2, 5);
+    m1.augmentInto(slice, augmented);
+    assertMatrixEquals(m1.augment(slice), augmented);
+
+    Matrix product = new Matrix(2, 2);
+    m1.timesInto(new Matrix(new double[][] {{1, 0}, {0, 1}, {0, 0}}), product);
+    assertMatrixEquals(new Matrix(new double[][] {{0, -1}, {4, 0.3}}), product);
+
+    assertThrows(IllegalArgumentException.class, () -> m1.plusInto(m1, slice));
+    assertThrows(IllegalArgumentException.class, () -> m1.sliceInto(0, 1, 0, 1, slice));
+    assertThrows(IllegalArgumentException.class, () -> slice.timesInto(slice, slice));
+  }
 }
@@ -0,0 +1,57 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MixedPrecisionSolverTest {
+  private static Matrix random(int n, long seed) {
+    Random random = new Random(seed);
+    Matrix output = new Matrix(n, n);
+    for (int row = 0; row < n; ++row)
+      for (int col = 0; col < n; ++col) output.setEntry(row, col, random.nextDouble() - 0.5);
+    return output;
+  }
+
+  @Test
+  public void testRefinesToDoublePrecision() {
+    int n = 100;
+    Matrix m = random(n, 1);
+    double[] b = new double[n];
+    for (int i = 0; i < n; ++i) b[i] = Math.sin(i);
+
+    MixedPrecisionSolver solver = new MixedPrecisionSolver(m);
+    double[] x = solver.solve(b);
+    assertFalse(solver.lastUsedFallback());
+    assertTrue(solver.getLastIterationCount() > 1);
+    assertArrayEquals(m.solve(b), x, 1e-10);
+    assertArrayEquals(b, m.times(x), 1e-12);
+    assertArrayEquals(x, m.solveMixedPrecision(b), 0);
+  }
+
+  @Test
+  public void testFallsBackWhenIllConditioned() {
+    // a Hilbert matrix of order 8 has condition number ~3e10, so kappa * ulp(1f) is far above 1
+    // and the fallback is decided up front, whatever the rounding of the float factorization
+    int n = 8;
+    Matrix hilbert = new Matrix(n, n);
+    for (int row = 0; row < n; ++row)
+      for (int col = 0; col < n; ++col) hilbert.setEntry(row, col, 1.0 / (row + col + 1));
+    double[] b = new double[n];
+    b[0] = 1;
+
+    MixedPrecisionSolver solver = new MixedPrecisionSolver(hilbert);
+    double[] x = solver.solve(b);
+    assertTrue(solver.lastUsedFallback());
+    assertEquals(0, solver.getLastIterationCount());
+    assertArrayEquals(b, hilbert.times(x), 1e-8);
+  }
+
+  @Test
+  public void testSingular() {
+    Matrix m = new Matrix(new double[][] {{1, 2}, {2, 4}});
+    assertThrows(RuntimeException.class, () -> new MixedPrecisionSolver(m).solve(new double[2]));
+  }
+}
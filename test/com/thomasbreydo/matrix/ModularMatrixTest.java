@@ -0,0 +1,60 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ModularMatrixTest {
+  private static final int P = 1_000_000_007;
+
+  @Test
+  public void testRowReduce() {
+    ModularMatrix matrix = new ModularMatrix(new long[][] {{2, 1}, {1, 3}}, 7);
+    // 2x + y and x + 3y: the determinant 5 is non-zero mod 7
+    assertEquals(new ModularMatrix(new long[][] {{1, 0}, {0, 1}}, 7), matrix.rowReduce());
+    assertEquals(2, matrix.rank());
+    // but 5 = 0 mod 5, where the rows are dependent
+    assertEquals(1, new ModularMatrix(new long[][] {{2, 1}, {1, 3}}, 5).rank());
+    assertEquals(4, new ModularMatrix(new long[][] {{-1}}, 5).getValueAt(0, 0));
+  }
+
+  @Test
+  public void testSolve() {
+    int n = 300;
+    Random random = new Random(5);
+    ModularMatrix matrix = new ModularMatrix(n, n, P);
+    long[] x = new long[n];
+    for (int row = 0; row < n; ++row) {
+      x[row] = random.nextInt(P);
+      for (int col = 0; col < n; ++col) matrix.setEntry(row, col, random.nextInt(P));
+    }
+    long[] b = new long[n];
+    for (int row = 0; row < n; ++row)
+      for (int col = 0; col < n; ++col)
+        b[row] = (b[row] + (long) matrix.getValueAt(row, col) * x[col]) % P;
+    int[] solution = matrix.solve(b);
+    for (int i = 0; i < n; ++i) assertEquals(x[i], solution[i]);
+  }
+
+  @Test
+  public void testNoSolution() {
+    ModularMatrix matrix = new ModularMatrix(new long[][] {{1, 2}, {2, 4}}, 11);
+    assertThrows(RuntimeException.class, () -> matrix.solve(new long[] {1, 1}));
+    assertArrayEquals(new int[] {3, 0}, matrix.solve(new long[] {3, 6}));
+  }
+
+  @Test
+  public void testDeterminant() {
+    // det = 2 * 3 - 1 * 1 = 5, and a row swap is needed for the second
+    assertEquals(5, new ModularMatrix(new long[][] {{2, 1}, {1, 3}}, 7).determinant());
+    assertEquals(10, new ModularMatrix(new long[][] {{0, 1}, {1, 0}}, 11).determinant());
+    assertEquals(0, new ModularMatrix(new long[][] {{2, 1}, {1, 3}}, 5).determinant());
+  }
+
+  @Test
+  public void testModulusMustBePrime() {
+    assertThrows(IllegalArgumentException.class, () -> new ModularMatrix(2, 2, 9));
+  }
+}
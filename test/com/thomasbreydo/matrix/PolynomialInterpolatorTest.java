@@ -0,0 +1,50 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import static com.thomasbreydo.matrix.MatrixTest.DELTA;
+import static org.junit.Assert.*;
+
+public class PolynomialInterpolatorTest {
+  @Test
+  public void testCoefficients() {
+    // p(x) = 2 - 3x + x^3
+    PolynomialInterpolator interpolator =
+        new PolynomialInterpolator(new double[] {-1, 0, 2, 3}, new double[] {4, 2, 4, 20});
+    assertArrayEquals(new double[] {2, -3, 0, 1}, interpolator.getCoefficients(), DELTA);
+    assertEquals(2 - 3 * 1.5 + 1.5 * 1.5 * 1.5, interpolator.toPolynomial().eval(1.5), DELTA);
+  }
+
+  @Test
+  public void testAddRefitsIncrementally() {
+    PolynomialInterpolator interpolator = new PolynomialInterpolator();
+    interpolator.add(1, 5);
+    assertEquals(5, interpolator.evaluate(-7), DELTA);
+    interpolator.add(3, 9); // line 2x + 3
+    assertEquals(3, interpolator.evaluate(0), DELTA);
+    interpolator.add(0, 0); // parabola -x^2 + 6x
+    assertEquals(2, interpolator.getCoefficients().length - 1);
+    assertEquals(-4 + 12, interpolator.evaluate(2), DELTA);
+    assertEquals(9, interpolator.evaluate(3), DELTA);
+  }
+
+  @Test
+  public void testHighDegree() {
+    // Chebyshev points keep a degree-40 interpolant of a smooth function accurate
+    int n = 41;
+    PolynomialInterpolator interpolator = new PolynomialInterpolator();
+    for (int i = 0; i < n; ++i) {
+      double x = Math.cos(Math.PI * (i + 0.5) / n);
+      interpolator.add(x, Math.exp(x));
+    }
+    for (double x = -1; x <= 1; x += 0.125)
+      assertEquals(Math.exp(x), interpolator.evaluate(x), 1e-12);
+  }
+
+  @Test
+  public void testDuplicateX() {
+    PolynomialInterpolator interpolator = new PolynomialInterpolator();
+    interpolator.add(1, 2);
+    assertThrows(IllegalArgumentException.class, () -> interpolator.add(1, 3));
+  }
+}
@@ -0,0 +1,166 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.thomasbreydo.matrix.MatrixTest.assertMatrixEquals;
+import static org.junit.Assert.*;
+
+public class SparseMatrixTest {
+  static final double DELTA = 1e-8; // tolerance for float checks
+
+  /** @return the {@code n x n} 1D Laplacian (2 on the diagonal, -1 beside it). */
+  static SparseMatrix laplacian(int n) {
+    int[] rows = new int[3 * n - 2];
+    int[] cols = new int[3 * n - 2];
+    double[] values = new double[3 * n - 2];
+    int k = 0;
+    for (int i = 0; i < n; ++i) {
+      rows[k] = i;
+      cols[k] = i;
+      values[k++] = 2;
+      if (i + 1 < n) {
+        rows[k] = i;
+        cols[k] = i + 1;
+        values[k++] = -1;
+        rows[k] = i + 1;
+        cols[k] = i;
+        values[k++] = -1;
+      }
+    }
+    return SparseMatrix.fromTriplets(n, n, rows, cols, values);
+  }
+
+  @Test
+  public void testConversion() {
+    Matrix dense = new Matrix(new double[][] {{0, 9, 0}, {1, 0, 2}, {0, 0, 0}, {3, 0, 7}});
+    SparseMatrix sparse = SparseMatrix.fromMatrix(dense);
+    assertEquals(5, sparse.getNonZeroCount());
+    assertEquals(4, sparse.getRowCount());
+    assertEquals(3, sparse.getColumnCount());
+    assertEquals(2, sparse.getValueAt(1, 2), DELTA);
+    assertEquals(0, sparse.getValueAt(2, 1), DELTA);
+    assertMatrixEquals(dense, sparse.toMatrix());
+    assertThrows(IndexOutOfBoundsException.class, () -> sparse.getValueAt(4, 0));
+  }
+
+  @Test
+  public void testFromTriplets() {
+    SparseMatrix sparse =
+        SparseMatrix.fromTriplets(
+            2, 3, new int[] {1, 0, 1, 1}, new int[] {2, 1, 0, 2}, new double[] {1, 5, -2, 3});
+    assertEquals(3, sparse.getNonZeroCount());
+    assertMatrixEquals(new Matrix(new double[][] {{0, 5, 0}, {-2, 0, 4}}), sparse.toMatrix());
+    assertThrows(
+        IndexOutOfBoundsException.class,
+        () -> SparseMatrix.fromTriplets(2, 2, new int[] {2}, new int[] {0}, new double[] {1}));
+  }
+
+  @Test
+  public void testTimes() {
+    Matrix dense = new Matrix(new double[][] {{0, 9, -3}, {1, 1, 2}, {3, 0, 8}});
+    SparseMatrix sparse = SparseMatrix.fromMatrix(dense);
+    double[] x = {1, -2, 0.5};
+    assertArrayEquals(dense.times(x), sparse.times(x), DELTA);
+    assertThrows(IllegalArgumentException.class, () -> sparse.times(new double[] {1, 2}));
+  }
+
+  @Test
+  public void testSolve() {
+    Matrix dense = new Matrix(new double[][] {{0, 9, -3}, {1, 1, 2}, {3, 0, 8}});
+    double[] b = {6, 4, 11};
+    assertArrayEquals(new double[] {1, 1, 1}, SparseMatrix.fromMatrix(dense).solve(b), DELTA);
+
+    // needs a non-diagonal pivot
+    SparseMatrix swap = SparseMatrix.fromMatrix(new Matrix(new double[][] {{0, 2}, {3, 0}}));
+    assertArrayEquals(new double[] {1, 2}, swap.solve(new double[] {4, 3}), DELTA);
+  }
+
+  @Test
+  public void testSolveLaplacian() {
+    int n = 2000;
+    SparseMatrix a = laplacian(n);
+    double[] expected = new double[n];
+    for (int i = 0; i < n; ++i) expected[i] = Math.sin(i);
+    SparseLUDecomposition lu = new SparseLUDecomposition(a);
+    assertArrayEquals(expected, lu.solve(a.times(expected)), 1e-6);
+    assertTrue(lu.getFactorNonZeroCount() <= 3 * n); // a tridiagonal system factors without fill
+  }
+
+  @Test
+  public void testSolveScrambledGrid() {
+    // 5-point Laplacian on a 40 x 40 grid, numbered in a random order
+    int m = 40;
+    int n = m * m;
+    int[] label = new int[n];
+    for (int i = 0; i < n; ++i) label[i] = i;
+    Random random = new Random(7);
+    for (int i = n - 1; i > 0; --i) {
+      int j = random.nextInt(i + 1);
+      int temp = label[i];
+      label[i] = label[j];
+      label[j] = temp;
+    }
+    int[] rows = new int[5 * n];
+    int[] cols = new int[5 * n];
+    double[] values = new double[5 * n];
+    int k = 0;
+    for (int x = 0; x < m; ++x) {
+      for (int y = 0; y < m; ++y) {
+        int node = label[x * m + y];
+        rows[k] = node;
+        cols[k] = node;
+        values[k++] = 4;
+        int[][] neighbors = {{x - 1, y}, {x + 1, y}, {x, y - 1}, {x, y + 1}};
+        for (int[] neighbor : neighbors) {
+          if (neighbor[0] < 0 || neighbor[0] >= m || neighbor[1] < 0 || neighbor[1] >= m) continue;
+          rows[k] = node;
+          cols[k] = label[neighbor[0] * m + neighbor[1]];
+          values[k++] = -1;
+        }
+      }
+    }
+    SparseMatrix a =
+        SparseMatrix.fromTriplets(
+            n,
+            n,
+            Arrays.copyOf(rows, k),
+            Arrays.copyOf(cols, k),
+            Arrays.copyOf(values, k));
+    double[] expected = new double[n];
+    for (int i = 0; i < n; ++i) expected[i] = Math.cos(i);
+    SparseLUDecomposition lu = new SparseLUDecomposition(a);
+    assertArrayEquals(expected, lu.solve(a.times(expected)), 1e-9);
+    assertTrue(lu.getFactorNonZeroCount() <= 8 * k); // a bandwidth-reducing order gives ~20x
+  }
+
+  @Test
+  public void testSingular() {
+    SparseMatrix sparse = SparseMatrix.fromMatrix(new Matrix(new double[][] {{1, 2}, {2, 4}}));
+    SparseLUDecomposition lu = new SparseLUDecomposition(sparse);
+    assertTrue(lu.isSingular());
+    assertThrows(RuntimeException.class, () -> lu.solve(new double[] {1, 2}));
+  }
+
+  @Test
+  public void testSmallScaleIsNotSingular() {
+    // every element is far below any fixed threshold, but the matrices are well conditioned
+    Matrix identity = new Matrix(5, 5);
+    for (int i = 0; i < 5; ++i) identity.setEntry(i, i, 1e-9);
+    assertFalse(new SparseLUDecomposition(SparseMatrix.fromMatrix(identity)).isSingular());
+
+    int n = 100;
+    Matrix dense = laplacian(n).toMatrix();
+    for (int row = 0; row < n; ++row)
+      for (int col = 0; col < n; ++col)
+        dense.setEntry(row, col, 1e-12 * dense.getValueAt(row, col));
+    SparseMatrix a = SparseMatrix.fromMatrix(dense);
+    double[] expected = new double[n];
+    for (int i = 0; i < n; ++i) expected[i] = Math.cos(i);
+    SparseLUDecomposition lu = new SparseLUDecomposition(a);
+    assertFalse(lu.isSingular());
+    assertArrayEquals(expected, lu.solve(a.times(expected)), 1e-6);
+  }
+}
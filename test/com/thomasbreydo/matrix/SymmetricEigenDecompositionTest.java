@@ -0,0 +1,121 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SymmetricEigenDecompositionTest {
+  static Matrix randomSymmetric(int n, long seed) {
+    Random random = new Random(seed);
+    Matrix output = new Matrix(n, n);
+    for (int row = 0; row < n; ++row) {
+      for (int col = row; col < n; ++col) {
+        double value = random.nextDouble() - 0.5;
+        output.setEntry(row, col, value);
+        output.setEntry(col, row, value);
+      }
+    }
+    return output;
+  }
+
+  /** Check that each pair satisfies {@code Av = λv} and that the eigenvectors are orthonormal. */
+  static void assertEigenpairs(
+      LinearOperator operator, SymmetricEigenDecomposition eigen, double delta) {
+    int k = eigen.getEigenvalueCount();
+    for (int i = 0; i < k; ++i) {
+      double[] v = eigen.getEigenvector(i);
+      double[] av = new double[v.length];
+      operator.apply(v, av);
+      for (int row = 0; row < v.length; ++row)
+        assertEquals(eigen.getEigenvalue(i) * v[row], av[row], delta);
+      for (int j = 0; j <= i; ++j)
+        assertEquals(i == j ? 1 : 0, IterativeSolver.dot(v, eigen.getEigenvector(j)), delta);
+    }
+  }
+
+  @Test
+  public void testSmallMatrix() {
+    Matrix matrix = new Matrix(new double[][] {{2, 1, 0}, {1, 2, 1}, {0, 1, 2}});
+    SymmetricEigenDecomposition eigen = new SymmetricEigenDecomposition(matrix);
+    double root2 = Math.sqrt(2);
+    assertArrayEquals(new double[] {2 - root2, 2, 2 + root2}, eigen.getEigenvalues(), 1e-12);
+    assertEigenpairs(LinearOperator.of(matrix), eigen, 1e-12);
+    // A = V D V^T
+    Matrix v = eigen.getEigenvectors();
+    Matrix d = new Matrix(3, 3);
+    for (int i = 0; i < 3; ++i) d.setEntry(i, i, eigen.getEigenvalue(i));
+    MatrixTest.assertMatrixEquals(matrix, v.times(d).times(v.lazy().transpose().evaluate()));
+  }
+
+  @Test
+  public void testRandomMatrix() {
+    Matrix matrix = randomSymmetric(60, 5);
+    SymmetricEigenDecomposition eigen = new SymmetricEigenDecomposition(matrix);
+    double[] eigenvalues = eigen.getEigenvalues();
+    for (int i = 1; i < eigenvalues.length; ++i) assertTrue(eigenvalues[i - 1] <= eigenvalues[i]);
+    double trace = 0;
+    for (int i = 0; i < 60; ++i) trace += matrix.getValueAt(i, i);
+    double sum = 0;
+    for (double value : eigenvalues) sum += value;
+    assertEquals(trace, sum, 1e-10);
+    assertEigenpairs(LinearOperator.of(matrix), eigen, 1e-10);
+  }
+
+  @Test
+  public void testSpringChain() {
+    // stiffness matrix of a chain of n equal springs between fixed walls
+    int n = 200;
+    double[] lower = new double[n];
+    double[] diagonal = new double[n];
+    double[] upper = new double[n];
+    for (int i = 0; i < n; ++i) {
+      lower[i] = -1;
+      diagonal[i] = 2;
+      upper[i] = -1;
+    }
+    BandedMatrix matrix = BandedMatrix.tridiagonal(lower, diagonal, upper);
+    SymmetricEigenDecomposition eigen = new SymmetricEigenDecomposition(matrix);
+    for (int k = 1; k <= n; ++k)
+      assertEquals(2 - 2 * Math.cos(k * Math.PI / (n + 1)), eigen.getEigenvalue(k - 1), 1e-12);
+    assertEigenpairs(LinearOperator.of(matrix), eigen, 1e-12);
+  }
+
+  @Test
+  public void testWideBand() {
+    Matrix dense = new Matrix(8, 8);
+    for (int row = 0; row < 8; ++row)
+      for (int col = Math.max(0, row - 2); col <= Math.min(7, row + 2); ++col)
+        dense.setEntry(row, col, row == col ? 6 : 1.0 / (1 + row + col));
+    SymmetricEigenDecomposition banded =
+        new SymmetricEigenDecomposition(BandedMatrix.fromMatrix(dense, 2, 2));
+    assertArrayEquals(
+        new SymmetricEigenDecomposition(dense).getEigenvalues(), banded.getEigenvalues(), 1e-12);
+  }
+
+  @Test
+  public void testNotSymmetric() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SymmetricEigenDecomposition(new Matrix(new double[][] {{1, 2}, {3, 4}})));
+    // asymmetric, although every element is far below an absolute tolerance
+    Matrix tiny = new Matrix(new double[][] {{1e-9, 2e-9}, {3e-9, 4e-9}});
+    assertThrows(IllegalArgumentException.class, () -> new SymmetricEigenDecomposition(tiny));
+    BandedMatrix tinyBanded =
+        BandedMatrix.tridiagonal(
+            new double[] {0, 3e-9, 3e-9}, new double[] {1e-9, 1e-9, 1e-9}, new double[3]);
+    assertThrows(IllegalArgumentException.class, () -> new SymmetricEigenDecomposition(tinyBanded));
+  }
+
+  @Test
+  public void testLargeScaleRoundingIsSymmetric() {
+    // a stiffness-like matrix whose off-diagonal copies differ by rounding at the 1e8 scale
+    double k = 1e8 / 3;
+    Matrix matrix = new Matrix(new double[][] {{2e8, -k}, {-k * (1 + 1e-15), 2e8}});
+    assertTrue(matrix.getValueAt(0, 1) != matrix.getValueAt(1, 0));
+    SymmetricEigenDecomposition eigen = new SymmetricEigenDecomposition(matrix);
+    assertEquals(2e8 - k, eigen.getEigenvalue(0), 1e-6 * k);
+    assertEquals(2e8 + k, eigen.getEigenvalue(1), 1e-6 * k);
+  }
+}
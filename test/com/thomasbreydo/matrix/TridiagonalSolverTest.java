@@ -0,0 +1,58 @@
+package com.thomasbreydo.matrix;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TridiagonalSolverTest {
+  static final double DELTA = 1e-8; // tolerance for float checks
+
+  @Test
+  public void testSolve() {
+    double[] lower = {0, -1, -1, -1};
+    double[] diagonal = {2, 2, 2, 2};
+    double[] upper = {-1, -1, -1, 0};
+    double[] expected = {1, -2, 0.5, 3};
+    double[] rhs = BandedMatrix.tridiagonal(lower, diagonal, upper).times(expected);
+    assertArrayEquals(expected, TridiagonalSolver.solve(lower, diagonal, upper, rhs), DELTA);
+    assertThrows(
+        RuntimeException.class,
+        () -> TridiagonalSolver.solve(new double[2], new double[2], new double[2], new double[2]));
+  }
+
+  @Test
+  public void testSolveBatch() {
+    int n = 50;
+    int count = 1400; // 70,000 elements reaches the parallel path: 5 full tasks and a partial one
+    double[] lower = new double[n * count];
+    double[] diagonal = new double[n * count];
+    double[] upper = new double[n * count];
+    double[] rhs = new double[n * count];
+    double[][] expected = new double[count][];
+    for (int s = 0; s < count; ++s) {
+      double[] l = new double[n];
+      double[] d = new double[n];
+      double[] u = new double[n];
+      double[] x = new double[n];
+      for (int i = 0; i < n; ++i) {
+        l[i] = -1 - Math.sin(s + i) / 2;
+        u[i] = -1 + Math.cos(s * i) / 2;
+        d[i] = 4 + s % 3;
+        x[i] = Math.sin(s * 0.1 + i);
+      }
+      double[] b = BandedMatrix.tridiagonal(l, d, u).times(x);
+      for (int i = 0; i < n; ++i) {
+        lower[i * count + s] = l[i];
+        diagonal[i * count + s] = d[i];
+        upper[i * count + s] = u[i];
+        rhs[i * count + s] = b[i];
+      }
+      expected[s] = x;
+    }
+
+    double[] scratch = new double[n * count];
+    TridiagonalSolver.solveBatchInPlace(n, count, lower, diagonal, upper, rhs, scratch);
+    for (int s = 0; s < count; ++s)
+      for (int i = 0; i < n; ++i) assertEquals(expected[s][i], rhs[i * count + s], DELTA);
+  }
+}
@@ -0,0 +1,74 @@
+package com.thomasbreydo.riemann;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveQuadratureTest {
+  static final Function SEMICIRCLE = new Function(x -> Math.sqrt(Math.max(0, 1 - x * x)));
+
+  static void assertIntegrates(AdaptiveQuadrature quadrature, double tolerance) {
+    QuadratureResult result =
+        quadrature
+            .setAbsoluteTolerance(tolerance)
+            .setRelativeTolerance(0)
+            .integrate(SEMICIRCLE, -1, 1);
+    assertTrue(result.toString(), result.isConverged());
+    assertTrue(result.getErrorEstimate() <= tolerance);
+    assertEquals(Math.PI / 2, result.getArea(), tolerance);
+  }
+
+  @Test
+  public void semicircle() {
+    assertIntegrates(new AdaptiveSimpson(), 1e-8);
+    assertIntegrates(new GaussKronrod(), 1e-10);
+  }
+
+  @Test
+  public void fewerEvaluationsThanUniform() {
+    int[] evaluations = new int[1];
+    Function func =
+        new Function(
+            x -> {
+              ++evaluations[0];
+              return Math.exp(-x * x);
+            });
+    double exact = 1.4936482656248540; // integral of exp(-x^2) over [-1, 1], to 17 digits
+    QuadratureResult result = new GaussKronrod().integrate(func, -1, 1);
+    assertEquals(evaluations[0], result.getEvaluationCount());
+    assertTrue(result.getEvaluationCount() < 100);
+    assertEquals(exact, result.getArea(), 1e-14);
+
+    evaluations[0] = 0;
+    result = new AdaptiveSimpson().integrate(func, -1, 1);
+    assertEquals(evaluations[0], result.getEvaluationCount());
+    assertTrue(result.getEvaluationCount() < 1000);
+    assertEquals(exact, result.getArea(), 1e-9);
+  }
+
+  @Test
+  public void evaluationBudget() {
+    QuadratureResult result =
+        new GaussKronrod()
+            .setAbsoluteTolerance(0)
+            .setRelativeTolerance(0)
+            .setMaxEvaluations(100)
+            .integrate(SEMICIRCLE, -1, 1);
+    assertFalse(result.isConverged());
+    assertTrue(result.getEvaluationCount() <= 100);
+    assertEquals(Math.PI / 2, result.getArea(), 1e-3);
+    assertThrows(IllegalArgumentException.class, () -> new GaussKronrod().setMaxEvaluations(14));
+  }
+
+  @Test
+  public void reversedInterval() {
+    QuadratureResult result = new AdaptiveSimpson().integrate(new Function(x -> x * x), 2, 0);
+    assertEquals(-8.0 / 3, result.getArea(), 1e-12);
+    result = new GaussKronrod().integrate(SEMICIRCLE, 1, -1);
+    assertTrue(result.isConverged());
+    assertEquals(-Math.PI / 2, result.getArea(), 1e-9);
+  }
+}
@@ -0,0 +1,37 @@
+package com.thomasbreydo.riemann;
+
+import org.dalton.polyfun.Polynomial;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FunctionTest {
+  static final double DELTA = 1e-12; // tolerance for float checks
+
+  @Test
+  public void polynomial() {
+    // 7th-degree Maclaurin expansion of sin(x), as in RiemannApp
+    Polynomial polynomial =
+        new Polynomial(new double[] {0, 1, 0, -1.0 / 6, 0, 1.0 / 120, 0, -1.0 / 5040});
+    Function horner = new Function(polynomial);
+    Function fused = new Function(polynomial, true);
+    for (double x = -Math.PI; x <= Math.PI; x += 0.1) {
+      assertEquals(polynomial.eval(x), horner.eval(x), DELTA);
+      assertEquals(polynomial.eval(x), fused.eval(x), DELTA);
+    }
+    assertEquals(polynomial.toString(), horner.toString());
+  }
+
+  @Test
+  public void constant() {
+    Function func = new Function(new Polynomial(new double[] {4.5}));
+    assertEquals(4.5, func.eval(-3), 0);
+    assertEquals(4.5, func.eval(1e300), 0);
+  }
+
+  @Test
+  public void operator() {
+    Function func = new Function(Math::cos);
+    assertEquals(Math.cos(0.7), func.eval(0.7), 0);
+  }
+}
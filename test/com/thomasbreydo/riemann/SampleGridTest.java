@@ -0,0 +1,110 @@
+package com.thomasbreydo.riemann;
+
+import org.dalton.polyfun.Polynomial;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+public class SampleGridTest {
+  static final double DELTA = 1e-5; // tolerance for float checks
+
+  @Test
+  public void rules() {
+    Function func = new Function(new Polynomial(new double[] {0, 0, 1})); // x^2
+    SampleGrid grid = new SampleGrid(func, 0, 2, 10);
+    assertEquals(2.28, grid.leftHand(), DELTA);
+    assertEquals(3.08, grid.rightHand(), DELTA);
+    assertEquals(2.68, grid.trapezoid(), DELTA);
+    assertEquals(8.0 / 3, grid.simpson(), 1e-12); // exact for parabolas
+    assertEquals(8.0 / 3, grid.romberg(1), 1e-12);
+  }
+
+  @Test
+  public void matchesPlots() {
+    Function func = new Function(Math::sin);
+    SampleGrid grid = new SampleGrid(func, -1, 2.5, 7);
+    assertEquals(new LeftHandPlot(func, null, -1, 2.5, 7).getIntervalArea(), grid.leftHand(), 0);
+    assertEquals(new RightHandPlot(func, null, -1, 2.5, 7).getIntervalArea(), grid.rightHand(), 0);
+    assertEquals(new TrapezoidPlot(func, null, -1, 2.5, 7).getIntervalArea(), grid.trapezoid(), 0);
+  }
+
+  @Test
+  public void evaluatesOncePerNode() {
+    int[] evaluations = new int[1];
+    Function func =
+        new Function(
+            x -> {
+              ++evaluations[0];
+              return Math.exp(x);
+            });
+    SampleGrid grid = new SampleGrid(func, 0, 1, 8);
+    assertEquals(9, evaluations[0]);
+    grid.trapezoid();
+    grid.simpson();
+    assertEquals(9, evaluations[0]);
+
+    SampleGrid fine = grid.refine();
+    assertEquals(9 + 8, evaluations[0]);
+    for (int i = 0; i <= 8; ++i) {
+      assertEquals(grid.getNode(i), fine.getNode(2 * i), 0);
+      assertEquals(grid.getSample(i), fine.getSample(2 * i), 0);
+    }
+
+    evaluations[0] = 0;
+    double romberg = grid.romberg(4);
+    assertEquals(8 + 16 + 32 + 64, evaluations[0]);
+    assertEquals(Math.E - 1, romberg, 1e-14);
+  }
+
+  @Test
+  public void plotReusesSamples() {
+    int[] evaluations = new int[1];
+    Function func =
+        new Function(
+            x -> {
+              ++evaluations[0];
+              return x * x;
+            });
+    TrapezoidPlot plot = new TrapezoidPlot(func, null, 0, 2, 10);
+    SampleGrid grid = plot.getSampleGrid();
+    assertEquals(11, evaluations[0]);
+    assertEquals(2.68, plot.getIntervalArea(), DELTA);
+    assertEquals(11, evaluations[0]);
+    assertEquals(grid, plot.getSampleGrid());
+
+    plot.subintervals = 20;
+    assertEquals(2.67, plot.getIntervalArea(), DELTA); // no longer matches the cached samples
+    assertEquals(11 + 21, evaluations[0]); // streamed, evaluating each border once
+
+    SampleGrid fine = plot.getSampleGrid(); // refines the cached grid
+    assertEquals(11 + 21 + 10, evaluations[0]);
+    assertEquals(20, fine.getSubintervalCount());
+    SampleGrid fresh = new SampleGrid(new Function(x -> x * x), 0, 2, 20);
+    assertEquals(fresh.trapezoid(), fine.trapezoid(), 0);
+  }
+
+  @Test
+  public void parallelSumEvaluatesOncePerBorder() {
+    long[] evaluations = new long[1];
+    Function func =
+        new Function(
+            x -> {
+              synchronized (evaluations) {
+                ++evaluations[0];
+              }
+              return Math.cos(x);
+            });
+    int leaves = 40;
+    LeftHandPlot plot = new LeftHandPlot(func, null, 0, 1, (long) leaves * RiemannSum.LEAF_SIZE);
+    assertEquals(Math.sin(1), plot.getIntervalArea(AbstractRiemann.Summation.PARALLEL), 1e-4);
+    // each leaf evaluates its own borders, so only the borders between leaves are shared
+    assertEquals(plot.subintervals + leaves, evaluations[0]);
+  }
+
+  @Test
+  public void simpsonOddSubintervals() {
+    SampleGrid grid = new SampleGrid(new Function(Math::sin), 0, 1, 3);
+    assertThrows(IllegalStateException.class, grid::simpson);
+  }
+}
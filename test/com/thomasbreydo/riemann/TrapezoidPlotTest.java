@@ -16,4 +16,18 @@ public class TrapezoidPlotTest {
     TrapezoidPlot trapezoidPlot = new TrapezoidPlot(func, plotFrame, 0, 2, 10);
     assertEquals(trapezoidPlot.getIntervalArea(), 2.68, DELTA);
   }
+
+  @Test
+  public void getIntervalAreaParallel() {
+    Function func = new Function(new Polynomial(new double[] {0, 0, 1})); // x^2
+    TrapezoidPlot small = new TrapezoidPlot(func, null, 0, 2, 10);
+    assertEquals(small.getIntervalArea(AbstractRiemann.Summation.PARALLEL), 2.68, DELTA);
+
+    // many leaves, with a partial one at the end
+    TrapezoidPlot large = new TrapezoidPlot(func, null, 0, 2, 1_000_003);
+    double parallel = large.getIntervalArea(AbstractRiemann.Summation.PARALLEL);
+    assertEquals(8.0 / 3, parallel, 1e-11);
+    assertEquals(large.getIntervalArea(), parallel, 1e-11);
+    assertEquals(parallel, large.getIntervalArea(AbstractRiemann.Summation.PARALLEL), 0);
+  }
 }